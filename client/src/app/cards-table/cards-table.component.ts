@@ -19,6 +19,7 @@ import {
   type ColDef,
   type GridReadyEvent,
   type GridApi,
+  type IDatasource,
   type IGetRowsParams,
   type GetRowIdParams,
   type RowClickedEvent,
@@ -40,7 +41,13 @@ import { injectParams } from '../utils/inject-params';
 import { CardReadiness, CARD_READINESS_VALUES } from '../shared/state/card-readiness';
 import { DueCardsService } from '../due-cards.service';
 import { InReviewCardsService } from '../in-review-cards.service';
-import { CardsTableService, CardTableRow } from './cards-table.service';
+import {
+  CardBulkOperationResponse,
+  CardFilterParams,
+  CardsTableService,
+  CardTableResponse,
+  CardTableRow,
+} from './cards-table.service';
 import { SelectAllHeaderComponent } from './select-all-header.component';
 import { SelectionCheckboxComponent } from './selection-checkbox.component';
 import { injectQueryParams } from '../utils/inject-query-params';
@@ -201,26 +208,28 @@ export class CardsTableComponent {
     this.activeQuickFilter() === 'suggestedKnown' ? true : undefined
   );
 
+  private readonly filterParams = computed((): CardFilterParams | undefined => {
+    const sourceId = this.sourceId();
+    if (!sourceId) return undefined;
+    const reviewScoreRange = this.parseReviewScoreRange(this.reviewScoreFilter());
+    return {
+      sourceId,
+      readiness: this.readinessParam(),
+      state: this.stateFilter() || undefined,
+      lastReviewDaysAgo: this.lastReviewDaysAgoFilter()
+        ? Number(this.lastReviewDaysAgoFilter())
+        : undefined,
+      minReviewScore: reviewScoreRange?.min,
+      maxReviewScore: reviewScoreRange?.max,
+      cardFilter: this.cardFilter() || undefined,
+      flagged: this.flaggedParam(),
+      unhealthy: this.unhealthyParam(),
+      suggestedKnown: this.suggestedKnownParam(),
+    };
+  });
+
   readonly allFilteredIds = resource({
-    params: () => {
-      const sourceId = this.sourceId();
-      if (!sourceId) return undefined;
-      const reviewScoreRange = this.parseReviewScoreRange(this.reviewScoreFilter());
-      return {
-        sourceId,
-        readiness: this.readinessParam(),
-        state: this.stateFilter() || undefined,
-        lastReviewDaysAgo: this.lastReviewDaysAgoFilter()
-          ? Number(this.lastReviewDaysAgoFilter())
-          : undefined,
-        minReviewScore: reviewScoreRange?.min,
-        maxReviewScore: reviewScoreRange?.max,
-        cardFilter: this.cardFilter() || undefined,
-        flagged: this.flaggedParam(),
-        unhealthy: this.unhealthyParam(),
-        suggestedKnown: this.suggestedKnownParam(),
-      };
-    },
+    params: () => this.filterParams(),
     loader: ({ params }) =>
       this.cardsTableService.fetchFilteredCardIds(params),
   });
@@ -235,6 +244,10 @@ export class CardsTableComponent {
   readonly totalFilteredCount = computed(
     () => this.allFilteredIds.value()?.length ?? 0
   );
+  private readonly allFilteredSelected = linkedSignal<string[] | undefined, boolean>({
+    source: this.allFilteredIds.value,
+    computation: () => false,
+  });
 
   readonly gridContext = {
     selectedIdsSet: this.selectedIdsSet,
@@ -359,9 +372,7 @@ export class CardsTableComponent {
   onGridReady(event: GridReadyEvent): void {
     this.gridApi = event.api;
 
-    event.api.setGridOption('datasource', {
-      getRows: (params: IGetRowsParams) => this.loadRows(params),
-    });
+    event.api.setGridOption('datasource', this.createDatasource());
 
     event.api.sizeColumnsToFit();
   }
@@ -421,8 +432,12 @@ export class CardsTableComponent {
     const ids = this.selectedIds();
     if (ids.length === 0) return;
 
-    await this.cardsTableService.markCardsAsKnown(ids);
-    this.notifications.success(`${ids.length} card(s) marked as known`);
+    const affectedCount = await this.runBulkOperation(
+      ids,
+      (cardIds) => this.cardsTableService.markCardsAsKnown(cardIds),
+      (filter) => this.cardsTableService.markFilteredCardsAsKnown(filter)
+    );
+    this.notifications.success(`${affectedCount} card(s) marked as known`);
     this.selectedIds.set([]);
     this.refreshGrid();
     this.sourcesService.refetchSources();
@@ -443,8 +458,12 @@ export class CardsTableComponent {
     const result = await firstValueFrom(dialogRef.afterClosed());
     if (!result) return;
 
-    await this.cardsTableService.markCardsAsDraft(ids);
-    this.notifications.success(`${ids.length} card(s) moved to draft`);
+    const affectedCount = await this.runBulkOperation(
+      ids,
+      (cardIds) => this.cardsTableService.markCardsAsDraft(cardIds),
+      (filter) => this.cardsTableService.markFilteredCardsAsDraft(filter)
+    );
+    this.notifications.success(`${affectedCount} card(s) moved to draft`);
     this.selectedIds.set([]);
     this.refreshGrid();
     this.sourcesService.refetchSources();
@@ -466,9 +485,13 @@ export class CardsTableComponent {
     const result = await firstValueFrom(dialogRef.afterClosed());
     if (!result) return;
 
-    await this.cardsTableService.deleteCards(ids);
+    const affectedCount = await this.runBulkOperation(
+      ids,
+      (cardIds) => this.cardsTableService.deleteCards(cardIds),
+      (filter) => this.cardsTableService.deleteFilteredCards(filter)
+    );
     this.selectedIds.set([]);
-    this.notifications.success(`${ids.length} card(s) deleted`);
+    this.notifications.success(`${affectedCount} card(s) deleted`);
     this.refreshGrid();
     this.sourcesService.refetchSources();
     this.dueCardsService.refetchDueCounts();
@@ -489,9 +512,13 @@ export class CardsTableComponent {
     const result = await firstValueFrom(dialogRef.afterClosed());
     if (!result) return;
 
-    await this.cardsTableService.deleteCardsAudio(ids);
+    const affectedCount = await this.runBulkOperation(
+      ids,
+      (cardIds) => this.cardsTableService.deleteCardsAudio(cardIds),
+      (filter) => this.cardsTableService.deleteFilteredCardsAudio(filter)
+    );
     this.selectedIds.set([]);
-    this.notifications.success(`Audio deleted for ${ids.length} card(s)`);
+    this.notifications.success(`Audio deleted for ${affectedCount} card(s)`);
     this.refreshGrid();
   }
 
@@ -524,7 +551,24 @@ export class CardsTableComponent {
     this.inReviewCardsService.refetchCards();
   }
 
+  private async runBulkOperation(
+    ids: readonly string[],
+    byIds: (cardIds: readonly string[]) => Promise<void>,
+    byFilter: (filter: CardFilterParams) => Promise<CardBulkOperationResponse>
+  ): Promise<number> {
+    const filter = this.allFilteredSelected() ? this.filterParams() : undefined;
+    if (filter) {
+      const { affectedCount } = await byFilter(filter);
+      this.allFilteredSelected.set(false);
+      return affectedCount;
+    }
+
+    await byIds(ids);
+    return ids.length;
+  }
+
   private toggleSelection(id: string): void {
+    this.allFilteredSelected.set(false);
     const current = this.selectedIds();
     const currentSet = this.selectedIdsSet();
     this.selectedIds.set(
@@ -538,16 +582,36 @@ export class CardsTableComponent {
     const ids = this.allFilteredIds.value();
     if (!ids) return;
     this.selectedIds.set(ids);
+    this.allFilteredSelected.set(true);
   }
 
   private deselectAll(): void {
     this.selectedIds.set([]);
+    this.allFilteredSelected.set(false);
   }
 
   private refreshGrid(): void {
-    this.gridApi?.setGridOption('datasource', {
-      getRows: (params: IGetRowsParams) => this.loadRows(params),
-    });
+    this.gridApi?.setGridOption('datasource', this.createDatasource());
+  }
+
+  private createDatasource(): IDatasource {
+    const cursors = new Map<number, string>();
+    let totalCount: number | undefined;
+
+    return {
+      getRows: async (params: IGetRowsParams) => {
+        try {
+          const response = await this.loadRows(params, cursors.get(params.startRow));
+          if (response.nextCursor) {
+            cursors.set(params.startRow + response.rows.length, response.nextCursor);
+          }
+          totalCount = response.totalCount ?? totalCount;
+          params.successCallback(response.rows, totalCount);
+        } catch {
+          params.failCallback();
+        }
+      },
+    };
   }
 
   private parseReviewScoreRange(value: string): { min: number; max: number } | undefined {
@@ -556,39 +620,39 @@ export class CardsTableComponent {
     return { min, max };
   }
 
-  private async loadRows(params: IGetRowsParams): Promise<void> {
+  private async loadRows(
+    params: IGetRowsParams,
+    after: string | undefined
+  ): Promise<CardTableResponse> {
     const sortModel = params.sortModel;
     const sortField = sortModel.length > 0 ? sortModel[0].colId : undefined;
     const sortDirection = sortModel.length > 0 ? sortModel[0].sort : undefined;
     const reviewScoreRange = this.parseReviewScoreRange(this.reviewScoreFilter());
 
-    try {
-      const response = await this.cardsTableService.fetchCards({
-        sourceId: this.sourceId(),
-        startRow: params.startRow,
-        endRow: params.endRow,
-        sortField,
-        sortDirection,
-        readiness: this.readinessParam(),
-        state: this.stateFilter() || undefined,
-        lastReviewDaysAgo: this.lastReviewDaysAgoFilter()
-          ? Number(this.lastReviewDaysAgoFilter())
-          : undefined,
-        minReviewScore: reviewScoreRange?.min,
-        maxReviewScore: reviewScoreRange?.max,
-        cardFilter: this.cardFilter() || undefined,
-        flagged: this.flaggedParam(),
-        unhealthy: this.unhealthyParam(),
-        suggestedKnown: this.suggestedKnownParam(),
-      });
-
-      const updatedMap = new Map(this.loadedRowReadiness());
-      response.rows.forEach(row => updatedMap.set(row.id, row.readiness));
-      this.loadedRowReadiness.set(updatedMap);
-
-      params.successCallback(response.rows, response.totalCount);
-    } catch {
-      params.failCallback();
-    }
+    const response = await this.cardsTableService.fetchCards({
+      sourceId: this.sourceId(),
+      startRow: params.startRow,
+      endRow: params.endRow,
+      after,
+      sortField,
+      sortDirection,
+      readiness: this.readinessParam(),
+      state: this.stateFilter() || undefined,
+      lastReviewDaysAgo: this.lastReviewDaysAgoFilter()
+        ? Number(this.lastReviewDaysAgoFilter())
+        : undefined,
+      minReviewScore: reviewScoreRange?.min,
+      maxReviewScore: reviewScoreRange?.max,
+      cardFilter: this.cardFilter() || undefined,
+      flagged: this.flaggedParam(),
+      unhealthy: this.unhealthyParam(),
+      suggestedKnown: this.suggestedKnownParam(),
+    });
+
+    const updatedMap = new Map(this.loadedRowReadiness());
+    response.rows.forEach(row => updatedMap.set(row.id, row.readiness));
+    this.loadedRowReadiness.set(updatedMap);
+
+    return response;
   }
 }
@@ -18,13 +18,33 @@ export type CardTableRow = {
 
 export type CardTableResponse = {
   rows: CardTableRow[];
-  totalCount: number;
+  totalCount: number | null;
+  nextCursor: string | null;
+};
+
+export type CardFilterParams = {
+  sourceId: string;
+  readiness?: string;
+  state?: string;
+  lastReviewDaysAgo?: number;
+  minReviewScore?: number;
+  maxReviewScore?: number;
+  cardFilter?: string;
+  flagged?: boolean;
+  unhealthy?: boolean;
+  suggestedKnown?: boolean;
+};
+
+export type CardBulkOperationResponse = {
+  detail: string;
+  affectedCount: number;
 };
 
 export type CardTableParams = {
   sourceId: string;
   startRow: number;
   endRow: number;
+  after?: string;
   sortField?: string;
   sortDirection?: string;
   readiness?: string;
@@ -48,6 +68,7 @@ export class CardsTableService {
     const httpParams = Object.entries({
       startRow: params.startRow,
       endRow: params.endRow,
+      ...(params.after ? { after: params.after } : {}),
       ...(params.sortField ? { sortField: params.sortField } : {}),
       ...(params.sortDirection ? { sortDirection: params.sortDirection } : {}),
       ...(params.readiness ? { readiness: params.readiness } : {}),
@@ -80,43 +101,57 @@ export class CardsTableService {
     );
   }
 
-  async fetchFilteredCardIds(params: {
-    sourceId: string;
-    readiness?: string;
-    state?: string;
-    lastReviewDaysAgo?: number;
-    minReviewScore?: number;
-    maxReviewScore?: number;
-    cardFilter?: string;
-    flagged?: boolean;
-    unhealthy?: boolean;
-    suggestedKnown?: boolean;
-  }): Promise<string[]> {
-    const httpParams = Object.entries({
-      ...(params.readiness ? { readiness: params.readiness } : {}),
-      ...(params.state ? { state: params.state } : {}),
-      ...(params.lastReviewDaysAgo !== undefined
-        ? { lastReviewDaysAgo: params.lastReviewDaysAgo }
-        : {}),
-      ...(params.minReviewScore !== undefined
-        ? { minReviewScore: params.minReviewScore }
-        : {}),
-      ...(params.maxReviewScore !== undefined
-        ? { maxReviewScore: params.maxReviewScore }
-        : {}),
-      ...(params.cardFilter ? { cardFilter: params.cardFilter } : {}),
-      ...(params.flagged ? { flagged: params.flagged } : {}),
-      ...(params.unhealthy ? { unhealthy: params.unhealthy } : {}),
-      ...(params.suggestedKnown ? { suggestedKnown: params.suggestedKnown } : {}),
-    }).reduce(
-      (acc, [key, value]) => acc.set(key, String(value)),
-      new HttpParams()
-    );
-
+  async fetchFilteredCardIds(params: CardFilterParams): Promise<string[]> {
     return firstValueFrom(
       this.http.get<string[]>(
         `/api/source/${params.sourceId}/card-ids`,
-        { params: httpParams }
+        { params: this.toFilterHttpParams(params) }
+      )
+    );
+  }
+
+  async markFilteredCardsAsKnown(
+    params: CardFilterParams
+  ): Promise<CardBulkOperationResponse> {
+    return firstValueFrom(
+      this.http.put<CardBulkOperationResponse>(
+        `/api/source/${params.sourceId}/cards/mark-known`,
+        null,
+        { params: this.toFilterHttpParams(params) }
+      )
+    );
+  }
+
+  async markFilteredCardsAsDraft(
+    params: CardFilterParams
+  ): Promise<CardBulkOperationResponse> {
+    return firstValueFrom(
+      this.http.put<CardBulkOperationResponse>(
+        `/api/source/${params.sourceId}/cards/mark-draft`,
+        null,
+        { params: this.toFilterHttpParams(params) }
+      )
+    );
+  }
+
+  async deleteFilteredCards(
+    params: CardFilterParams
+  ): Promise<CardBulkOperationResponse> {
+    return firstValueFrom(
+      this.http.delete<CardBulkOperationResponse>(
+        `/api/source/${params.sourceId}/cards`,
+        { params: this.toFilterHttpParams(params) }
+      )
+    );
+  }
+
+  async deleteFilteredCardsAudio(
+    params: CardFilterParams
+  ): Promise<CardBulkOperationResponse> {
+    return firstValueFrom(
+      this.http.delete<CardBulkOperationResponse>(
+        `/api/source/${params.sourceId}/cards/audio`,
+        { params: this.toFilterHttpParams(params) }
       )
     );
   }
@@ -144,4 +179,27 @@ export class CardsTableService {
       this.http.delete('/api/cards/audio', { body: cardIds })
     );
   }
+
+  private toFilterHttpParams(params: CardFilterParams): HttpParams {
+    return Object.entries({
+      ...(params.readiness ? { readiness: params.readiness } : {}),
+      ...(params.state ? { state: params.state } : {}),
+      ...(params.lastReviewDaysAgo !== undefined
+        ? { lastReviewDaysAgo: params.lastReviewDaysAgo }
+        : {}),
+      ...(params.minReviewScore !== undefined
+        ? { minReviewScore: params.minReviewScore }
+        : {}),
+      ...(params.maxReviewScore !== undefined
+        ? { maxReviewScore: params.maxReviewScore }
+        : {}),
+      ...(params.cardFilter ? { cardFilter: params.cardFilter } : {}),
+      ...(params.flagged ? { flagged: params.flagged } : {}),
+      ...(params.unhealthy ? { unhealthy: params.unhealthy } : {}),
+      ...(params.suggestedKnown ? { suggestedKnown: params.suggestedKnown } : {}),
+    }).reduce(
+      (acc, [key, value]) => acc.set(key, String(value)),
+      new HttpParams()
+    );
+  }
 }
@@ -24,4 +24,8 @@ export class DueCardsService {
   refetchDueCounts() {
     this.dueCounts.reload();
   }
+
+  setDueCounts(dueCounts: SourceDueCardCount[]) {
+    this.dueCounts.set(dueCounts);
+  }
 }
@@ -1,35 +1,17 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { FSRS, Card as FSRSCard, Rating, RecordLog } from 'ts-fsrs';
+import { Card as FSRSCard, Rating } from 'ts-fsrs';
 import { Card } from './parser/types';
-import {
-  mapCardStateToTsfsrsState,
-  mapTsfsrsStateToCardState,
-} from './shared/state/card-state';
+import { mapTsfsrsStateToCardState } from './shared/state/card-state';
 import { fetchJson } from './utils/fetchJson';
-import { mapCardDatesToISOStrings } from './utils/date-mapping.util';
+import { StudySessionService } from './study-session.service';
 
 @Injectable({
   providedIn: 'root',
 })
 export class FsrsGradingService {
   private readonly http = inject(HttpClient);
-  private readonly fsrs = new FSRS({});
-
-  convertToFSRSCard(card: Card): FSRSCard {
-    return {
-      due: card.due,
-      stability: card.stability,
-      difficulty: card.difficulty,
-      elapsed_days: card.elapsedDays,
-      scheduled_days: card.scheduledDays,
-      learning_steps: card.learningSteps,
-      reps: card.reps,
-      lapses: card.lapses,
-      state: mapCardStateToTsfsrsState(card.state),
-      last_review: card.lastReview,
-    };
-  }
+  private readonly studySessionService = inject(StudySessionService);
 
   convertFromFSRSCard(
     fsrsCard: FSRSCard
@@ -61,7 +43,7 @@ export class FsrsGradingService {
   }
 
   /**
-   * Grade a card using FSRS algorithm and save the updated card
+   * Grade a card; the server computes the next FSRS state
    */
   async gradeCard(
     card: Card,
@@ -69,27 +51,13 @@ export class FsrsGradingService {
     learningPartnerId?: number | null,
     reviewDuration?: number | null
   ): Promise<void> {
-    // Convert grade to FSRS Rating
-    const rating = this.convertGradeToRating(grade);
-
-    // Convert to FSRS card format
-    const fsrsCard = this.convertToFSRSCard(card);
-
-    // Calculate new card state using FSRS
-    const now = new Date();
-    const schedulingCards: RecordLog = this.fsrs.repeat(fsrsCard, now);
-    const updatedCard = schedulingCards[rating].card;
-
-    // Convert back to our format
-    const cardUpdateData = this.convertFromFSRSCard(updatedCard);
-
-    // Save the updated card using existing endpoint
-    await fetchJson(this.http, `/api/card/${card.id}`, {
-      method: 'PUT',
+    this.studySessionService.beginCardUpdate();
+    await fetchJson(this.http, '/api/cards/grade', {
+      method: 'POST',
       body: {
-        ...mapCardDatesToISOStrings(cardUpdateData),
+        cardId: card.id,
+        rating: this.convertGradeToRating(grade),
         learningPartnerId: learningPartnerId ?? null,
-        rating,
         reviewDuration: reviewDuration ?? null,
       },
     });
@@ -10,6 +10,7 @@ import {
 } from '@angular/core';
 import { fetchJson } from './utils/fetchJson';
 import { fetchAsset } from './utils/fetchAsset';
+import { responsiveImageWidth } from './utils/responsive-image-width';
 import { HttpClient } from '@angular/common/http';
 import { CardTypeRegistry } from './cardTypes/card-type.registry';
 import { ExtractionRegion, ExtractionRegionSelection, Page } from './parser/types';
@@ -65,7 +66,7 @@ export class PageService {
 
       return fetchAsset(
         this.http,
-        `/api/source/${page.sourceId}/document/${page.number}/image`
+        `/api/source/${page.sourceId}/document/${page.number}/image?w=${responsiveImageWidth()}`
       );
     },
   });
@@ -140,10 +140,28 @@ export class CardActionsComponent {
           },
         },
       });
+      await this.releaseDroppedAudio(card.data?.audio ?? [], sanitizedAudio);
       this.card()?.reload?.();
       this.cardProcessed.emit();
     } catch (error) {
       console.error('Error saving voice selection:', error);
     }
   }
+
+  private async releaseDroppedAudio(previous: AudioData[], current: AudioData[]) {
+    const keptIds = new Set(current.map((entry) => entry.id));
+    const droppedIds = previous
+      .map((entry) => entry.id)
+      .filter((id) => !keptIds.has(id));
+
+    try {
+      await Promise.all(
+        droppedIds.map((audioId) =>
+          fetchJson(this.http, `/api/audio/${audioId}`, { method: 'DELETE' })
+        )
+      );
+    } catch (error) {
+      console.warn('Failed to release dropped audio:', error);
+    }
+  }
 }
@@ -77,6 +77,10 @@ export class VoiceSelectionDialogComponent implements OnDestroy {
   // Local copy of audio data for modifications
   readonly localAudioData = signal<AudioData[]>([...this.data.audioData]);
 
+  // Audio generated in this dialog and not saved to the card. Each holds one
+  // reference on the server, released when the dialog goes away.
+  private unsavedAudioIds: string[] = [];
+
   // Track generating and playing states
   readonly generatingVoices = signal<Set<string>>(new Set());
   readonly playingVoices = signal<Set<string>>(new Set());
@@ -121,6 +125,7 @@ export class VoiceSelectionDialogComponent implements OnDestroy {
   ngOnDestroy() {
     // Clean up audio when component is destroyed
     this.audioPlaybackService.stopPlayback();
+    this.releaseAudio(this.unsavedAudioIds);
   }
 
   // Get language label for display
@@ -209,6 +214,7 @@ export class VoiceSelectionDialogComponent implements OnDestroy {
           }
         );
 
+        this.unsavedAudioIds.push(response.id);
         generatedAudios.push({
           id: response.id,
           voice: voiceCard.config.voiceId,
@@ -329,6 +335,8 @@ export class VoiceSelectionDialogComponent implements OnDestroy {
       return selectedAudios.length > 0 ? selectedAudios : languageAudios;
     });
 
+    const keptIds = new Set(filteredAudio.map((audio) => audio.id));
+    this.unsavedAudioIds = this.unsavedAudioIds.filter((id) => !keptIds.has(id));
     this.dialogRef.close(filteredAudio);
   }
 
@@ -337,4 +345,12 @@ export class VoiceSelectionDialogComponent implements OnDestroy {
     this.audioPlaybackService.stopPlayback();
     this.dialogRef.close();
   }
+
+  private releaseAudio(audioIds: string[]) {
+    Promise.all(
+      audioIds.map((audioId) =>
+        fetchJson(this.http, `/api/audio/${audioId}`, { method: 'DELETE' })
+      )
+    ).catch((error) => console.warn('Failed to release unused audio:', error));
+  }
 }
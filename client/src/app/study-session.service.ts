@@ -1,11 +1,17 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable, Injector, computed, inject, resource, signal } from '@angular/core';
 import { SourcesService } from './sources.service';
-import { firstValueFrom } from 'rxjs';
+import { Subscription, firstValueFrom, from, merge, repeat, retry, timer } from 'rxjs';
 import { fetchJson } from './utils/fetchJson';
+import { EventStreamError, ServerSentEvent, streamEvents } from './utils/streamEvents';
 import { SessionStats, StudySession, StudySessionCard } from './parser/types';
 import { mapCardDatesFromISOStrings } from './utils/date-mapping.util';
-import { DueCardsService } from './due-cards.service';
+import { DueCardsService, SourceDueCardCount } from './due-cards.service';
+import { AuthService } from './auth.service';
+
+// How long a graded card may wait for the pushed next card before it is
+// fetched, in case the server could not publish it
+const PUSH_TIMEOUT_MS = 2000;
 
 @Injectable({
   providedIn: 'root',
@@ -15,11 +21,18 @@ export class StudySessionService {
   private readonly injector = inject(Injector);
   private readonly dueCardsService = inject(DueCardsService);
   private readonly sourcesService = inject(SourcesService);
+  private readonly authService = inject(AuthService);
 
   readonly sourceId = signal<string | undefined>(undefined);
   readonly hasSession = signal(false);
   readonly hasExistingSession = signal(false);
 
+  private eventsSubscription: Subscription | null = null;
+  private eventsConnected = false;
+  private awaitingRefresh = false;
+  private bufferedCard: StudySessionCard | null | undefined = undefined;
+  private pushTimeout: ReturnType<typeof setTimeout> | null = null;
+
   readonly currentCard = resource({
     params: () => ({
       sourceId: this.sourceId(),
@@ -78,11 +91,13 @@ export class StudySessionService {
     if (session) {
       this.sourceId.set(sourceId);
       this.hasSession.set(true);
+      this.connectEvents(sourceId);
     }
     return session;
   }
 
   async skipCard(sourceId: string, cardId: string): Promise<void> {
+    this.beginCardUpdate();
     await fetchJson(
       this.http,
       `/api/source/${sourceId}/study-session/skip-card/${cardId}`,
@@ -90,10 +105,107 @@ export class StudySessionService {
     );
   }
 
+  beginCardUpdate() {
+    this.clearPushTimeout();
+    this.awaitingRefresh = true;
+    this.bufferedCard = undefined;
+  }
+
   refreshSession() {
-    this.currentCard.reload();
-    this.dueCardsService.refetchDueCounts();
+    this.awaitingRefresh = false;
     this.sourcesService.refetchSources();
+
+    if (!this.eventsConnected) {
+      this.currentCard.reload();
+      this.dueCardsService.refetchDueCounts();
+      return;
+    }
+
+    if (this.bufferedCard !== undefined) {
+      this.currentCard.set(this.bufferedCard);
+      this.bufferedCard = undefined;
+      return;
+    }
+
+    this.pushTimeout = setTimeout(() => {
+      this.pushTimeout = null;
+      this.currentCard.reload();
+    }, PUSH_TIMEOUT_MS);
+  }
+
+  private clearPushTimeout() {
+    if (this.pushTimeout !== null) {
+      clearTimeout(this.pushTimeout);
+      this.pushTimeout = null;
+    }
+  }
+
+  private connectEvents(sourceId: string) {
+    this.disconnectEvents();
+    this.eventsSubscription = merge(
+      streamEvents(`/api/source/${sourceId}/study-session/events`, () => this.eventHeaders()),
+      streamEvents('/api/sources/due-cards-count/events', () => this.eventHeaders())
+    )
+      .pipe(
+        repeat({ delay: 1000 }),
+        retry({
+          delay: (error) =>
+            error instanceof EventStreamError && error.status === 401
+              ? from(this.authService.refresh('event-stream-401'))
+              : timer(5000),
+        })
+      )
+      .subscribe({
+        next: (event) => this.handleEvent(event),
+        error: () => (this.eventsConnected = false),
+      });
+  }
+
+  // The stream is read with fetch, outside the HTTP interceptors
+  private eventHeaders(): Record<string, string> {
+    const token = this.authService.getAccessToken();
+    return {
+      'X-Timezone': Intl.DateTimeFormat().resolvedOptions().timeZone,
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    };
+  }
+
+  private disconnectEvents() {
+    this.clearPushTimeout();
+    this.eventsSubscription?.unsubscribe();
+    this.eventsSubscription = null;
+    this.eventsConnected = false;
+    this.awaitingRefresh = false;
+    this.bufferedCard = undefined;
+  }
+
+  private handleEvent({ event, data }: ServerSentEvent) {
+    switch (event) {
+      case 'current-card': {
+        const result = JSON.parse(data) as StudySessionCard;
+        if (result.card) {
+          result.card = mapCardDatesFromISOStrings(result.card);
+        }
+        this.applyPushedCard(result);
+        break;
+      }
+      case 'session-complete':
+        this.applyPushedCard(null);
+        break;
+      case 'due-counts':
+        this.dueCardsService.setDueCounts(JSON.parse(data) as SourceDueCardCount[]);
+        break;
+    }
+  }
+
+  private applyPushedCard(card: StudySessionCard | null) {
+    this.eventsConnected = true;
+    this.clearPushTimeout();
+    if (this.awaitingRefresh) {
+      this.bufferedCard = card;
+      return;
+    }
+    this.currentCard.set(card);
   }
 
   async fetchSessionStats(sourceId: string): Promise<SessionStats | null> {
@@ -118,6 +230,7 @@ export class StudySessionService {
   }
 
   clearSession() {
+    this.disconnectEvents();
     this.sourceId.set(undefined);
     this.hasSession.set(false);
     this.hasExistingSession.set(false);
@@ -12,6 +12,7 @@ import {
 import { CommonModule } from '@angular/common';
 import { HttpClient } from '@angular/common/http';
 import { fetchAsset } from '../../utils/fetchAsset';
+import { responsiveImageWidth } from '../../utils/responsive-image-width';
 import { ExampleImage } from '../../parser/types';
 import { StateComponent } from '../../shared/state/state.component';
 import { CardResourceLike } from '../../shared/types/card-resource.types';
@@ -61,7 +62,7 @@ export class LearnSpeechCardComponent {
                 ...image,
                 url: await fetchAsset(
                   this.http,
-                  `/api/image/${image.id}`
+                  `/api/image/${image.id}?w=${responsiveImageWidth()}`
                 ),
               };
             },
@@ -13,6 +13,7 @@ import { CommonModule } from '@angular/common';
 import { MatChipsModule } from '@angular/material/chips';
 import { HttpClient } from '@angular/common/http';
 import { fetchAsset } from '../../utils/fetchAsset';
+import { responsiveImageWidth } from '../../utils/responsive-image-width';
 import { ExampleImage } from '../../parser/types';
 import { StateComponent } from '../../shared/state/state.component';
 import { getWordTypeInfo } from '../../shared/word-type-translations';
@@ -85,7 +86,7 @@ export class LearnVocabularyCardComponent {
                 ...image,
                 url: await fetchAsset(
                   this.http,
-                  `/api/image/${image.id}`
+                  `/api/image/${image.id}?w=${responsiveImageWidth()}`
                 ),
               };
             },
@@ -0,0 +1,6 @@
+// Width in device pixels an image needs to look sharp when it is displayed
+// at the given fraction of the viewport width. The server rounds it up to
+// the nearest stored variant.
+export function responsiveImageWidth(viewportFraction = 1): number {
+  return Math.ceil(window.innerWidth * viewportFraction * (window.devicePixelRatio || 1));
+}
@@ -0,0 +1,87 @@
+import { Observable } from 'rxjs';
+
+export type ServerSentEvent = { event: string; data: string };
+
+export class EventStreamError extends Error {
+  constructor(readonly status: number) {
+    super(`Event stream request failed with status ${status}`);
+  }
+}
+
+/**
+ * Reads a server-sent event stream chunk by chunk. Only the not yet complete
+ * tail of the stream is buffered, so a long-lived connection neither grows in
+ * memory nor reparses what it already emitted. Headers are resolved on every
+ * subscription, so a resubscription picks up a refreshed access token.
+ */
+export function streamEvents(
+  url: string,
+  headers: () => Record<string, string>
+): Observable<ServerSentEvent> {
+  return new Observable<ServerSentEvent>((subscriber) => {
+    const controller = new AbortController();
+
+    const read = async () => {
+      const response = await fetch(url, {
+        headers: { ...headers(), Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        throw new EventStreamError(response.status);
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+
+      while (true) {
+        const { done, value } = await reader.read();
+        if (done) {
+          break;
+        }
+        buffer += value;
+
+        let boundary = buffer.indexOf('\n\n');
+        while (boundary !== -1) {
+          const parsed = parseEvent(buffer.slice(0, boundary));
+          buffer = buffer.slice(boundary + 2);
+          if (parsed) {
+            subscriber.next(parsed);
+          }
+          boundary = buffer.indexOf('\n\n');
+        }
+      }
+    };
+
+    read().then(
+      () => subscriber.complete(),
+      (error) => {
+        if (!controller.signal.aborted) {
+          subscriber.error(error);
+        }
+      }
+    );
+
+    return () => controller.abort();
+  });
+}
+
+function parseEvent(block: string): ServerSentEvent | null {
+  let event = 'message';
+  const data: string[] = [];
+
+  for (const line of block.split('\n')) {
+    if (line.startsWith(':')) {
+      continue;
+    }
+    const separator = line.indexOf(':');
+    const field = separator === -1 ? line : line.slice(0, separator);
+    const value = separator === -1 ? '' : line.slice(separator + 1).replace(/^ /, '');
+    if (field === 'event') {
+      event = value;
+    } else if (field === 'data') {
+      data.push(value);
+    }
+  }
+
+  return data.length > 0 ? { event, data: data.join('\n') } : null;
+}
@@ -217,6 +217,7 @@ export class VoiceConfigComponent {
                 voice: config.voiceId,
                 model: config.model,
                 language: config.language,
+                preview: true,
               },
             }
           );
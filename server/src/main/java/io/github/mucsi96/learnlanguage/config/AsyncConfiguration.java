@@ -19,4 +19,37 @@ public class AsyncConfiguration {
     executor.initialize();
     return executor;
   }
+
+  @Bean
+  Executor studySessionEventExecutor() {
+    final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(100);
+    executor.setThreadNamePrefix("session-events-");
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean
+  Executor cardStatsExecutor() {
+    final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(10);
+    executor.setThreadNamePrefix("card-stats-");
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean
+  Executor mediaGcExecutor() {
+    final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(1);
+    executor.setThreadNamePrefix("media-gc-");
+    executor.initialize();
+    return executor;
+  }
 }
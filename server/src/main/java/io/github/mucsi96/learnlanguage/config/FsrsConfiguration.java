@@ -0,0 +1,23 @@
+package io.github.mucsi96.learnlanguage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.mucsi96.learnlanguage.service.FsrsScheduler;
+
+@Configuration
+public class FsrsConfiguration {
+
+  @Bean
+  FsrsScheduler fsrsScheduler(
+      @Value("${fsrs.request-retention:0.9}") double requestRetention,
+      @Value("${fsrs.maximum-interval:36500}") int maximumInterval) {
+    return new FsrsScheduler(
+        FsrsScheduler.DEFAULT_WEIGHTS,
+        requestRetention,
+        maximumInterval,
+        FsrsScheduler.DEFAULT_LEARNING_STEPS_MINUTES,
+        FsrsScheduler.DEFAULT_RELEARNING_STEPS_MINUTES);
+  }
+}
@@ -39,11 +39,12 @@ public class SecurityConfiguration {
         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
 
     http.csrf(csrf -> csrf
-        .ignoringRequestMatchers("/test/cleanup-storage"));
+        .ignoringRequestMatchers("/test/cleanup-storage", "/test/warm-up-sessions"));
 
     http.authorizeHttpRequests(requests -> requests
         .requestMatchers(
             "/test/cleanup-storage",
+            "/test/warm-up-sessions",
             "/environment",
             "/actuator/**")
         .permitAll()
@@ -0,0 +1,43 @@
+package io.github.mucsi96.learnlanguage.config;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.github.mucsi96.learnlanguage.service.StudySessionWarmupService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class TimezoneTrackingFilter implements Filter {
+
+    private static final String TIMEZONE_HEADER = "X-Timezone";
+
+    private final StudySessionWarmupService studySessionWarmupService;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof HttpServletRequest httpRequest) {
+            final String timezone = httpRequest.getHeader(TIMEZONE_HEADER);
+            if (timezone != null && !timezone.isBlank()) {
+                try {
+                    studySessionWarmupService.recordTimezone(ZoneId.of(timezone));
+                } catch (DateTimeException e) {
+                    // Invalid timezones are rejected by the endpoints themselves
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
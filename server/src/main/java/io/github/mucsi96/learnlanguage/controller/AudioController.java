@@ -1,10 +1,13 @@
 package io.github.mucsi96.learnlanguage.controller;
 
+import static io.github.mucsi96.learnlanguage.util.MediaResponseUtils.immutableMedia;
+
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.UUID;
+import java.util.Optional;
 
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,14 +18,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import io.github.mucsi96.learnlanguage.model.AudioSourceRequest;
 import io.github.mucsi96.learnlanguage.model.AudioData;
 import io.github.mucsi96.learnlanguage.model.ModelType;
 import io.github.mucsi96.learnlanguage.repository.ModelUsageLogRepository;
-import io.github.mucsi96.learnlanguage.service.AudioService;
-import io.github.mucsi96.learnlanguage.service.FfmpegService;
+import io.github.mucsi96.learnlanguage.service.AudioClipService;
 import io.github.mucsi96.learnlanguage.service.FileStorageService;
 import io.github.mucsi96.learnlanguage.service.RateLimitSettingService;
 
@@ -33,32 +36,23 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AudioController {
 
+  private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
   private final FileStorageService fileStorageService;
-  private final AudioService audioService;
-  private final FfmpegService ffmpegService;
+  private final AudioClipService audioClipService;
   private final RateLimitSettingService rateLimitSettingService;
   private final ModelUsageLogRepository modelUsageLogRepository;
 
   @PostMapping("/audio")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public AudioData createAudio(@Valid @RequestBody AudioSourceRequest audioSource) throws IOException {
-    final int dailyLimit = rateLimitSettingService.getAudioDailyLimit();
-    if (dailyLimit > 0) {
-      final long todayUsage = modelUsageLogRepository.countByModelTypeSince(
-          ModelType.AUDIO, LocalDate.now(ZoneOffset.UTC).atStartOfDay());
-      if (todayUsage >= dailyLimit) {
-        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
-            "Daily audio generation limit of " + dailyLimit + " reached");
-      }
-    }
-    final String uuid = UUID.randomUUID().toString();
-    final String filePath = "audio/%s.mp3".formatted(uuid);
-
-    final byte[] data = audioService.generateAudio(audioSource.getInput(), audioSource.getVoice(), audioSource.getModel(), audioSource.getLanguage(), audioSource.getContext(), Boolean.TRUE.equals(audioSource.getSingleWord()));
-    ffmpegService.trimSilence(data, fileStorageService.resolveFilePath(filePath));
+    final Optional<String> cachedId = Boolean.TRUE.equals(audioSource.getPreview())
+        ? audioClipService.findCached(audioSource)
+        : audioClipService.acquireCached(audioSource);
+    final String id = cachedId.isPresent() ? cachedId.get() : generateAudio(audioSource);
 
     return AudioData.builder()
-        .id(uuid)
+        .id(id)
         .voice(audioSource.getVoice())
         .model(audioSource.getModel() != null ? audioSource.getModel().toString() : null)
         .language(audioSource.getLanguage())
@@ -67,23 +61,30 @@ public class AudioController {
         .build();
   }
 
-  @GetMapping(value = "/audio/{id}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  @GetMapping("/audio/{id}")
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
-  public ResponseEntity<byte[]> getAudio(@PathVariable String id) {
-    String filePath = "audio/%s.mp3".formatted(id);
-    byte[] audioData = fileStorageService.fetchFile(filePath).toBytes();
-
-    return ResponseEntity.ok()
-        .contentType(MediaType.parseMediaType("audio/mpeg"))
-        .header("Cache-Control", "public, max-age=31536000, immutable")
-        .body(audioData);
+  public ResponseEntity<Resource> getAudio(@PathVariable String id, WebRequest request) {
+    return immutableMedia(request, "audio-" + id, AUDIO_MPEG,
+        () -> fileStorageService.fetchResource(AudioClipService.filePath(id)));
   }
 
   @DeleteMapping("/audio/{id}")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Void> deleteAudio(@PathVariable String id) {
-    String filePath = "audio/%s.mp3".formatted(id);
-    fileStorageService.deleteFile(filePath);
+    audioClipService.release(id);
     return ResponseEntity.noContent().build();
   }
+
+  private String generateAudio(AudioSourceRequest audioSource) throws IOException {
+    final int dailyLimit = rateLimitSettingService.getAudioDailyLimit();
+    if (dailyLimit > 0) {
+      final long todayUsage = modelUsageLogRepository.countByModelTypeSince(
+          ModelType.AUDIO, LocalDate.now(ZoneOffset.UTC).atStartOfDay());
+      if (todayUsage >= dailyLimit) {
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+            "Daily audio generation limit of " + dailyLimit + " reached");
+      }
+    }
+    return audioClipService.generate(audioSource);
+  }
 }
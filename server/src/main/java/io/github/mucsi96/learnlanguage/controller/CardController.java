@@ -13,21 +13,33 @@ import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
 import io.github.mucsi96.learnlanguage.repository.CardRepository;
 import io.github.mucsi96.learnlanguage.repository.ReviewLogRepository;
 import io.github.mucsi96.learnlanguage.repository.SourceRepository;
+import io.github.mucsi96.learnlanguage.service.CardGradingService;
 import io.github.mucsi96.learnlanguage.service.CardService;
+import io.github.mucsi96.learnlanguage.service.CardStatsService;
 import io.github.mucsi96.learnlanguage.service.AudioSettingService;
 import io.github.mucsi96.learnlanguage.service.LearningPartnerService;
 import io.github.mucsi96.learnlanguage.service.StudySessionService;
 import io.github.mucsi96.learnlanguage.model.AudioData;
+import io.github.mucsi96.learnlanguage.model.CardBulkOperationResponse;
 import io.github.mucsi96.learnlanguage.model.CardData;
+import io.github.mucsi96.learnlanguage.model.CardFilterParams;
 import io.github.mucsi96.learnlanguage.model.CardCreateRequest;
+import io.github.mucsi96.learnlanguage.model.CardGradeRequest;
 import io.github.mucsi96.learnlanguage.model.CardReadiness;
 import io.github.mucsi96.learnlanguage.model.CardResponse;
+import io.github.mucsi96.learnlanguage.model.CardReviewBatchResponse;
+import io.github.mucsi96.learnlanguage.model.CardReviewRequest;
+import io.github.mucsi96.learnlanguage.model.CardSearchResult;
 import io.github.mucsi96.learnlanguage.model.CardTableResponse;
 import io.github.mucsi96.learnlanguage.model.CardUpdateRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -40,14 +52,18 @@ public class CardController {
 
   private static final int MIN_FSRS_RATING = 1;
   private static final int MAX_FSRS_RATING = 4;
+  private static final int MAX_SEARCH_LIMIT = 100;
 
   private final CardRepository cardRepository;
   private final SourceRepository sourceRepository;
   private final CardService cardService;
+  private final CardGradingService cardGradingService;
   private final ReviewLogRepository reviewLogRepository;
   private final LearningPartnerService learningPartnerService;
   private final StudySessionService studySessionService;
+  private final CardStatsService cardStatsService;
   private final AudioSettingService audioSettingService;
+  private final JsonMapper jsonMapper;
 
   @GetMapping("/source/{sourceId}/cards")
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
@@ -56,6 +72,7 @@ public class CardController {
       @RequestHeader("X-Timezone") String timezone,
       @RequestParam(defaultValue = "0") int startRow,
       @RequestParam(defaultValue = "100") int endRow,
+      @RequestParam(required = false) String after,
       @RequestParam(required = false) String sortField,
       @RequestParam(required = false) String sortDirection,
       @RequestParam(required = false) String readiness,
@@ -71,7 +88,7 @@ public class CardController {
       @RequestParam(required = false) Boolean suggestedKnown) {
 
     final CardTableResponse response = cardService.getCardTable(
-        sourceId, startRow, endRow, sortField, sortDirection,
+        sourceId, startRow, endRow, after, sortField, sortDirection,
         readiness, state, minReps, maxReps, lastReviewDaysAgo,
         minReviewScore, maxReviewScore, cardFilter, flagged, unhealthy, suggestedKnown,
         startOfDayUtc(parseTimezone(timezone)));
@@ -79,9 +96,21 @@ public class CardController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("/cards/search")
+  @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
+  public ResponseEntity<List<CardSearchResult>> searchCards(
+      @RequestParam String query,
+      @RequestParam(defaultValue = "20") int limit) {
+    if (query.isBlank()) {
+      return ResponseEntity.ok(List.of());
+    }
+
+    return ResponseEntity.ok(cardService.searchCards(query, Math.clamp(limit, 1, MAX_SEARCH_LIMIT)));
+  }
+
   @GetMapping("/source/{sourceId}/card-ids")
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
-  public ResponseEntity<List<String>> getFilteredCardIds(
+  public ResponseEntity<StreamingResponseBody> getFilteredCardIds(
       @PathVariable String sourceId,
       @RequestHeader("X-Timezone") String timezone,
       @RequestParam(required = false) String readiness,
@@ -96,40 +125,94 @@ public class CardController {
       @RequestParam(required = false) Boolean unhealthy,
       @RequestParam(required = false) Boolean suggestedKnown) {
 
-    final List<String> ids = cardService.getFilteredCardIds(
-        sourceId, readiness, state, minReps, maxReps,
-        lastReviewDaysAgo,
-        minReviewScore, maxReviewScore, cardFilter, flagged, unhealthy, suggestedKnown,
-        startOfDayUtc(parseTimezone(timezone)));
+    final LocalDateTime startOfDay = startOfDayUtc(parseTimezone(timezone));
+
+    final StreamingResponseBody body = outputStream -> {
+      try (JsonGenerator generator = jsonMapper.createGenerator(outputStream)) {
+        generator.writeStartArray();
+        cardService.streamFilteredCardIds(
+            sourceId, readiness, state, minReps, maxReps,
+            lastReviewDaysAgo,
+            minReviewScore, maxReviewScore, cardFilter, flagged, unhealthy, suggestedKnown,
+            startOfDay, generator::writeString);
+        generator.writeEndArray();
+      }
+    };
 
-    return ResponseEntity.ok(ids);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body);
   }
 
   @PutMapping("/cards/mark-known")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> markCardsAsKnown(@RequestBody List<String> cardIds) {
-    cardService.markCardsAsKnown(cardIds);
+    final int count = cardService.markCardsAsKnown(cardIds);
 
     return ResponseEntity.ok(Map.of("detail",
-        String.format("%d card(s) marked as known", cardIds.size())));
+        String.format("%d card(s) marked as known", count)));
   }
 
   @DeleteMapping("/cards")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> deleteCards(@RequestBody List<String> cardIds) {
-    cardService.deleteCardsByIds(cardIds);
+    final int count = cardService.deleteCardsByIds(cardIds);
 
     return ResponseEntity.ok(Map.of("detail",
-        String.format("%d card(s) deleted", cardIds.size())));
+        String.format("%d card(s) deleted", count)));
   }
 
   @DeleteMapping("/cards/audio")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> deleteCardsAudio(@RequestBody List<String> cardIds) {
-    cardService.deleteAudioForCards(cardIds);
+    final int count = cardService.deleteAudioForCards(cardIds);
 
     return ResponseEntity.ok(Map.of("detail",
-        String.format("Audio deleted for %d card(s)", cardIds.size())));
+        String.format("Audio deleted for %d card(s)", count)));
+  }
+
+  @PutMapping("/source/{sourceId}/cards/mark-known")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardBulkOperationResponse> markFilteredCardsAsKnown(
+      @PathVariable String sourceId,
+      @RequestHeader("X-Timezone") String timezone,
+      @ModelAttribute CardFilterParams filter) {
+    final int count = cardService.markCardsAsKnownByFilter(sourceId, filter, startOfDayUtc(parseTimezone(timezone)));
+
+    return ResponseEntity.ok(bulkOperationResponse(count, "%d card(s) marked as known"));
+  }
+
+  @PutMapping("/source/{sourceId}/cards/mark-draft")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardBulkOperationResponse> markFilteredCardsAsDraft(
+      @PathVariable String sourceId,
+      @RequestHeader("X-Timezone") String timezone,
+      @ModelAttribute CardFilterParams filter) {
+    final int count = cardService.markCardsAsDraftByFilter(sourceId, filter, startOfDayUtc(parseTimezone(timezone)));
+
+    return ResponseEntity.ok(bulkOperationResponse(count, "%d card(s) marked as draft"));
+  }
+
+  @DeleteMapping("/source/{sourceId}/cards")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardBulkOperationResponse> deleteFilteredCards(
+      @PathVariable String sourceId,
+      @RequestHeader("X-Timezone") String timezone,
+      @ModelAttribute CardFilterParams filter) {
+    final int count = cardService.deleteCardsByFilter(sourceId, filter, startOfDayUtc(parseTimezone(timezone)));
+
+    return ResponseEntity.ok(bulkOperationResponse(count, "%d card(s) deleted"));
+  }
+
+  @DeleteMapping("/source/{sourceId}/cards/audio")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardBulkOperationResponse> deleteFilteredCardsAudio(
+      @PathVariable String sourceId,
+      @RequestHeader("X-Timezone") String timezone,
+      @ModelAttribute CardFilterParams filter) {
+    final int count = cardService.deleteAudioForCardsByFilter(sourceId, filter, startOfDayUtc(parseTimezone(timezone)));
+
+    return ResponseEntity.ok(bulkOperationResponse(count, "Audio deleted for %d card(s)"));
   }
 
   @PostMapping("/card")
@@ -230,7 +313,8 @@ public class CardController {
           .build();
 
       reviewLogRepository.save(reviewLog);
-      studySessionService.moveCardToBack(cardId, existingCard.getSource().getId(), startOfDayUtc(parseTimezone(timezone)), request.getRating());
+      cardStatsService.markDirty(List.of(existingCard.getId()));
+      studySessionService.recordReview(existingCard.getSource().getId(), startOfDayUtc(parseTimezone(timezone)), reviewLog);
     }
 
     Map<String, String> response = new HashMap<>();
@@ -238,6 +322,22 @@ public class CardController {
     return ResponseEntity.ok(response);
   }
 
+  @PostMapping("/cards/grade")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardResponse> gradeCard(@RequestBody CardGradeRequest request,
+      @RequestHeader("X-Timezone") String timezone) {
+    final Card card = cardGradingService.grade(request, startOfDayUtc(parseTimezone(timezone)));
+
+    return ResponseEntity.ok(CardResponse.from(card));
+  }
+
+  @PostMapping("/cards/reviews")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public ResponseEntity<CardReviewBatchResponse> submitReviews(@RequestBody List<CardReviewRequest> reviews,
+      @RequestHeader("X-Timezone") String timezone) {
+    return ResponseEntity.ok(cardGradingService.submitReviews(reviews, startOfDayUtc(parseTimezone(timezone))));
+  }
+
   @DeleteMapping("/card/{cardId}")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> deleteCard(@PathVariable String cardId) throws Exception {
@@ -269,10 +369,10 @@ public class CardController {
   @PutMapping("/cards/mark-draft")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> markCardsAsDraft(@RequestBody List<String> cardIds) {
-    cardService.markCardsAsDraft(cardIds);
+    final int count = cardService.markCardsAsDraft(cardIds);
 
     return ResponseEntity.ok(Map.of("detail",
-        String.format("%d card(s) marked as draft", cardIds.size())));
+        String.format("%d card(s) marked as draft", count)));
   }
 
   @GetMapping("/cards/missing-audio")
@@ -340,4 +440,11 @@ public class CardController {
     response.put("detail", "Audio added successfully");
     return ResponseEntity.ok(response);
   }
+
+  private CardBulkOperationResponse bulkOperationResponse(int count, String detailFormat) {
+    return CardBulkOperationResponse.builder()
+        .detail(String.format(detailFormat, count))
+        .affectedCount(count)
+        .build();
+  }
 }
@@ -2,6 +2,7 @@ package io.github.mucsi96.learnlanguage.controller;
 
 import java.io.IOException;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import io.github.mucsi96.learnlanguage.model.CardExplanationRequest;
 import io.github.mucsi96.learnlanguage.model.CardExplanationResponse;
@@ -24,6 +26,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CardExplanationController {
 
+    private static final long MAX_TRANSCRIPTION_BYTES = 10L * 1024 * 1024;
+
     private final CardExplanationService cardExplanationService;
     private final TranscriptionService transcriptionService;
 
@@ -44,6 +48,13 @@ public class CardExplanationController {
     @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
     @PostMapping(value = "/transcribe", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public TranscriptionResponse transcribe(@RequestParam("file") MultipartFile file) throws IOException {
+        // The multipart limit is sized for source uploads, so recordings are
+        // checked here before they are read into memory
+        if (file.getSize() > MAX_TRANSCRIPTION_BYTES) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Recording must be under 10 MB");
+        }
+
         final String text = transcriptionService.transcribe(file.getBytes(), file.getOriginalFilename());
 
         return TranscriptionResponse.builder()
@@ -1,11 +1,13 @@
 package io.github.mucsi96.learnlanguage.controller;
 
+import java.time.Duration;
+
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import io.github.mucsi96.learnlanguage.service.FileStorageCleanupService;
+import io.github.mucsi96.learnlanguage.service.MediaGarbageCollectorService;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -13,11 +15,11 @@ import lombok.RequiredArgsConstructor;
 @Profile("test")
 public class FileStorageCleanupController {
 
-  private final FileStorageCleanupService fileStorageCleanupService;
+  private final MediaGarbageCollectorService mediaGarbageCollectorService;
 
   @PostMapping("/test/cleanup-storage")
   public ResponseEntity<Void> triggerCleanup() {
-    fileStorageCleanupService.cleanupUnreferencedFiles();
+    mediaGarbageCollectorService.collect(Duration.ZERO);
     return ResponseEntity.noContent().build();
   }
 }
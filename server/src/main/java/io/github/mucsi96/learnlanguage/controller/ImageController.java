@@ -1,10 +1,13 @@
 package io.github.mucsi96.learnlanguage.controller;
 
+import static io.github.mucsi96.learnlanguage.util.MediaResponseUtils.immutableMedia;
+
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.UUID;
 
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
 import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,7 +15,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import io.github.mucsi96.learnlanguage.model.ImageGenerationJobStatus;
@@ -23,6 +28,7 @@ import io.github.mucsi96.learnlanguage.model.ModelType;
 import io.github.mucsi96.learnlanguage.repository.ModelUsageLogRepository;
 import io.github.mucsi96.learnlanguage.service.AsyncImageGenerationService;
 import io.github.mucsi96.learnlanguage.service.FileStorageService;
+import io.github.mucsi96.learnlanguage.service.ImageDerivativeService;
 import io.github.mucsi96.learnlanguage.service.ImageGenerationJobService;
 import io.github.mucsi96.learnlanguage.service.RateLimitSettingService;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +44,7 @@ public class ImageController {
   private final ImageGenerationJobService imageGenerationJobService;
   private final RateLimitSettingService rateLimitSettingService;
   private final ModelUsageLogRepository modelUsageLogRepository;
+  private final ImageDerivativeService imageDerivativeService;
 
   private static final String IMAGE_WEBP_VALUE = "image/webp";
   private static final MediaType IMAGE_WEBP = MediaType.parseMediaType(IMAGE_WEBP_VALUE);
@@ -92,12 +99,19 @@ public class ImageController {
 
   @GetMapping(value = "/image/{id}", produces = IMAGE_WEBP_VALUE)
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
-  public ResponseEntity<byte[]> getImage(@PathVariable String id) {
+  public ResponseEntity<Resource> getImage(
+      @PathVariable String id,
+      @RequestParam(name = "w", required = false) Integer width,
+      WebRequest request) {
     final String filePath = "images/%s.webp".formatted(id);
-    final byte[] data = fileStorageService.fetchFile(filePath).toBytes();
-    return ResponseEntity.ok()
-        .contentType(IMAGE_WEBP)
-        .header("Cache-Control", "public, max-age=31536000, immutable")
-        .body(data);
+    final Integer variantWidth = imageDerivativeService.variantWidth(width);
+
+    if (variantWidth == null) {
+      return immutableMedia(request, "image-" + id, IMAGE_WEBP,
+          () -> fileStorageService.fetchResource(filePath));
+    }
+
+    return immutableMedia(request, "image-" + id + "-w" + variantWidth, IMAGE_WEBP,
+        () -> imageDerivativeService.fetch(filePath, variantWidth));
   }
 }
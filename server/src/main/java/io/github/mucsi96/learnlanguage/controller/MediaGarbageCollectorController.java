@@ -0,0 +1,22 @@
+package io.github.mucsi96.learnlanguage.controller;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.github.mucsi96.learnlanguage.model.MediaGcReport;
+import io.github.mucsi96.learnlanguage.service.MediaGarbageCollectorService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class MediaGarbageCollectorController {
+
+  private final MediaGarbageCollectorService mediaGarbageCollectorService;
+
+  @GetMapping("/media/gc/report")
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  public MediaGcReport getReport() {
+    return mediaGarbageCollectorService.report();
+  }
+}
@@ -1,16 +1,23 @@
 package io.github.mucsi96.learnlanguage.controller;
 
+import static io.github.mucsi96.learnlanguage.util.MediaResponseUtils.immutableMedia;
 import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.parseTimezone;
 import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfDayUtc;
 import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfNextDayUtc;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,8 +33,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.github.mucsi96.learnlanguage.config.OperationIdContext;
 import io.github.mucsi96.learnlanguage.entity.Document;
@@ -46,6 +55,7 @@ import io.github.mucsi96.learnlanguage.model.PageResponse;
 import io.github.mucsi96.learnlanguage.model.PendingPhotoConsumeRequest;
 import io.github.mucsi96.learnlanguage.model.PendingPhotoStatusResponse;
 import io.github.mucsi96.learnlanguage.model.RegionExtractionRequest;
+import io.github.mucsi96.learnlanguage.model.SourceDailyStatsResponse;
 import io.github.mucsi96.learnlanguage.model.SourceDueCardCountResponse;
 import io.github.mucsi96.learnlanguage.model.SourceRequest;
 import io.github.mucsi96.learnlanguage.model.SourceResponse;
@@ -60,7 +70,6 @@ import io.github.mucsi96.learnlanguage.service.AreaGrammarService;
 import io.github.mucsi96.learnlanguage.service.AreaSentenceService;
 import io.github.mucsi96.learnlanguage.service.AreaWordsService;
 import io.github.mucsi96.learnlanguage.service.CardService;
-import io.github.mucsi96.learnlanguage.service.CardService.SourceStats;
 import io.github.mucsi96.learnlanguage.service.CoverageService;
 import io.github.mucsi96.learnlanguage.service.DocumentProcessorService;
 import io.github.mucsi96.learnlanguage.service.PromptCardGenerationService;
@@ -68,22 +77,27 @@ import io.github.mucsi96.learnlanguage.service.FileStorageService;
 import io.github.mucsi96.learnlanguage.service.KnownWordService;
 import io.github.mucsi96.learnlanguage.service.LearningPartnerService;
 import io.github.mucsi96.learnlanguage.service.LessonDescriptionService;
+import io.github.mucsi96.learnlanguage.service.ImageDerivativeService;
 import io.github.mucsi96.learnlanguage.service.PendingPhotoService;
 import io.github.mucsi96.learnlanguage.service.PhotoGrammarConceptService;
 import io.github.mucsi96.learnlanguage.service.PhotoPreprocessingService;
 import io.github.mucsi96.learnlanguage.service.PhotoPreprocessingService.PreparedPage;
+import io.github.mucsi96.learnlanguage.service.SourceDailyStatsService;
 import io.github.mucsi96.learnlanguage.service.SourceService;
+import io.github.mucsi96.learnlanguage.service.StudySessionEventService;
+import io.github.mucsi96.learnlanguage.service.SourcesOverviewService;
+import io.github.mucsi96.learnlanguage.service.SourcesOverviewService.SourcesOverview;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
 
-import com.azure.core.util.BinaryData;
 
 @RestController
 @RequiredArgsConstructor
 public class SourceController {
 
   private static final long MAX_PENDING_PHOTO_BYTES = 10L * 1024 * 1024;
+  private static final int DAILY_STATS_DEFAULT_DAYS = 90;
 
   private final SourceService sourceService;
   private final CardService cardService;
@@ -97,54 +111,29 @@ public class SourceController {
   private final KnownWordService knownWordService;
   private final LearningPartnerService learningPartnerService;
   private final PendingPhotoService pendingPhotoService;
+  private final ImageDerivativeService imageDerivativeService;
   private final PhotoPreprocessingService photoPreprocessingService;
   private final LessonDescriptionService lessonDescriptionService;
   private final PhotoGrammarConceptService photoGrammarConceptService;
   private final PromptCardGenerationService promptCardGenerationService;
   private final CoverageService coverageService;
+  private final StudySessionEventService studySessionEventService;
+  private final SourcesOverviewService sourcesOverviewService;
+  private final SourceDailyStatsService sourceDailyStatsService;
 
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
   @GetMapping("/sources")
-  public List<SourceResponse> getSources() {
-    final var sources = sourceService.getAllSources();
-    final var statsMap = cardService.getSourceStats();
-    final var emptyStats = SourceStats.builder()
-        .cardCount(0).draftCardCount(0).flaggedCardCount(0).unhealthyCardCount(0).suggestedKnownCardCount(0)
-        .stateCounts(Map.of()).readinessCounts(Map.of())
-        .build();
-
-    return sources.stream().map(source -> {
-      final var sourceId = source.getId();
-      final var stats = statsMap.getOrDefault(sourceId, emptyStats);
+  public ResponseEntity<List<SourceResponse>> getSources(WebRequest request) {
+    final SourcesOverview overview = sourcesOverviewService.getOverview();
 
-      Integer pageCount = null;
-      if (source.getSourceType() == SourceType.IMAGES) {
-        pageCount = documentRepository.findFirstBySourceOrderByPageNumberDesc(source).map(Document::getPageNumber).orElse(0);
-      }
+    if (request.checkNotModified(overview.etag())) {
+      return null;
+    }
 
-      return SourceResponse.builder()
-          .id(sourceId)
-          .name(source.getName())
-          .sourceType(source.getSourceType())
-          .cardType(source.getCardType())
-          .startPage(source.getBookmarkedPage() != null ? source.getBookmarkedPage() : source.getStartPage())
-          .pageCount(pageCount)
-          .cardCount(stats.getCardCount())
-          .draftCardCount(stats.getDraftCardCount())
-          .flaggedCardCount(stats.getFlaggedCardCount())
-          .unhealthyCardCount(stats.getUnhealthyCardCount())
-          .suggestedKnownCardCount(stats.getSuggestedKnownCardCount())
-          .stateCounts(stats.getStateCounts())
-          .readinessCounts(stats.getReadinessCounts())
-          .languageLevel(source.getLanguageLevel())
-          .formatType(source.getFormatType())
-          .cardLimit(source.getCardLimit())
-          .newCardLimit(source.getNewCardLimit())
-          .learningPartnerId(source.getLearningPartner() != null ? source.getLearningPartner().getId() : null)
-          .detectionSourceIds(source.getDetectionSources().stream().map(Source::getId).sorted().toList())
-          .prompt(source.getPrompt())
-          .build();
-    }).collect(Collectors.toList());
+    return ResponseEntity.ok()
+        .eTag(overview.etag())
+        .cacheControl(CacheControl.noCache())
+        .body(overview.sources());
   }
 
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
@@ -342,6 +331,40 @@ public class SourceController {
     return cardService.getDueCardCountsBySource(startOfDayUtc(zone), startOfNextDayUtc(zone));
   }
 
+  @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
+  @GetMapping(value = "/sources/due-cards-count/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamDueCardsCount(@RequestHeader("X-Timezone") String timezone) {
+    return studySessionEventService.subscribeToDueCounts(parseTimezone(timezone));
+  }
+
+  @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
+  @GetMapping("/sources/daily-stats")
+  public List<SourceDailyStatsResponse> getDailyStats(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    final LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+    return sourceDailyStatsService.getAllSeries(from != null ? from : end.minusDays(DAILY_STATS_DEFAULT_DAYS), end);
+  }
+
+  @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
+  @GetMapping("/source/{sourceId}/daily-stats")
+  public List<SourceDailyStatsResponse> getSourceDailyStats(
+      @PathVariable String sourceId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    final LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+    return sourceDailyStatsService.getSeries(sourceId, from != null ? from : end.minusDays(DAILY_STATS_DEFAULT_DAYS),
+        end);
+  }
+
+  @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
+  @PostMapping("/sources/daily-stats")
+  public ResponseEntity<Map<String, Object>> snapshotDailyStats(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    final int written = sourceDailyStatsService.snapshot(date != null ? date : LocalDate.now(ZoneOffset.UTC));
+    return ResponseEntity.ok(Map.of("detail", "Daily stats snapshot written", "sourceCount", written));
+  }
+
   @PostMapping("/source")
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
   public ResponseEntity<Map<String, String>> createSource(@RequestBody SourceRequest request) {
@@ -425,11 +448,10 @@ public class SourceController {
         return ResponseEntity.badRequest().body(Map.of("error", "Only PDF files are allowed"));
       }
 
-      final var fileData = BinaryData.fromBytes(file.getBytes());
-      fileStorageService.saveFile(fileData, "sources/" + originalFilename);
+      final var fileName = storedSourceFileName(file, originalFilename);
 
       return ResponseEntity.ok(Map.of(
-          "fileName", originalFilename,
+          "fileName", fileName,
           "detail", "File uploaded successfully"));
     } catch (IOException e) {
       return ResponseEntity.internalServerError().body(Map.of("error", "Failed to upload file: " + e.getMessage()));
@@ -452,12 +474,11 @@ public class SourceController {
           return ResponseEntity.badRequest().body(Map.<String, Object>of("error", "Only PDF files are allowed"));
         }
 
-        final var fileData = BinaryData.fromBytes(file.getBytes());
-        fileStorageService.saveFile(fileData, "sources/" + originalFilename);
+        final var fileName = storedSourceFileName(file, originalFilename);
 
         final var savedDocument = documentRepository.save(Document.builder()
             .source(source)
-            .fileName(originalFilename)
+            .fileName(fileName)
             .pageNumber(null)
             .build());
 
@@ -465,7 +486,7 @@ public class SourceController {
         sourceService.saveSource(source);
 
         return ResponseEntity.ok(Map.<String, Object>of(
-            "fileName", originalFilename,
+            "fileName", fileName,
             "documentId", savedDocument.getId(),
             "detail", "PDF document uploaded successfully"));
       }
@@ -481,8 +502,9 @@ public class SourceController {
       final var maxPageNumber = documentRepository.findFirstBySourceOrderByPageNumberDesc(source).map(Document::getPageNumber).orElse(0);
       final var newPageNumber = maxPageNumber + 1;
 
-      final var fileData = BinaryData.fromBytes(file.getBytes());
-      fileStorageService.saveFile(fileData, "sources/" + sourceId + "/" + originalFilename);
+      try (InputStream data = file.getInputStream()) {
+        fileStorageService.saveStream(data, "sources/" + sourceId + "/" + originalFilename);
+      }
 
       documentRepository.save(Document.builder()
           .source(source)
@@ -518,9 +540,11 @@ public class SourceController {
 
   @GetMapping(value = "/source/{sourceId}/document/{pageNumber}/image")
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
-  public ResponseEntity<byte[]> getDocumentImage(
+  public ResponseEntity<Resource> getDocumentImage(
       @PathVariable String sourceId,
-      @PathVariable int pageNumber) {
+      @PathVariable int pageNumber,
+      @RequestParam(name = "w", required = false) Integer width,
+      WebRequest request) {
     Source source = sourceService.getSourceById(sourceId)
         .orElseThrow(() -> new ResourceNotFoundException("Source not found with id: " + sourceId));
 
@@ -531,13 +555,16 @@ public class SourceController {
     Document document = documentRepository.findBySourceAndPageNumber(source, pageNumber)
         .orElseThrow(() -> new ResourceNotFoundException("Document not found for page " + pageNumber));
 
-    byte[] imageData = fileStorageService.fetchFile("sources/" + sourceId + "/" + document.getFileName()).toBytes();
-    MediaType mediaType = getMediaTypeForFile(document.getFileName());
+    final String filePath = "sources/" + sourceId + "/" + document.getFileName();
+    final Integer variantWidth = imageDerivativeService.variantWidth(width);
 
-    return ResponseEntity.ok()
-        .contentType(mediaType)
-        .header("Cache-Control", "public, max-age=31536000, immutable")
-        .body(imageData);
+    if (variantWidth == null) {
+      return immutableMedia(request, "document-" + document.getId(), getMediaTypeForFile(document.getFileName()),
+          () -> fileStorageService.fetchResource(filePath));
+    }
+
+    return immutableMedia(request, "document-" + document.getId() + "-w" + variantWidth,
+        ImageDerivativeService.IMAGE_WEBP, () -> imageDerivativeService.fetch(filePath, variantWidth));
   }
 
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
@@ -563,8 +590,10 @@ public class SourceController {
         ? file.getContentType()
         : getMediaTypeForFile(originalFilename).toString();
 
-    final PendingPhoto saved = pendingPhotoService.upsert(
-        resolveUserId(jwt), source, file.getBytes(), contentType);
+    final PendingPhoto saved;
+    try (InputStream data = file.getInputStream()) {
+      saved = pendingPhotoService.upsert(resolveUserId(jwt), source, data, originalFilename, contentType);
+    }
 
     return ResponseEntity.ok(Map.<String, Object>of(
         "detail", "Pending photo stored",
@@ -589,7 +618,7 @@ public class SourceController {
 
   @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
   @GetMapping("/source/{sourceId}/pending-photo/image")
-  public ResponseEntity<byte[]> getPendingPhotoImage(
+  public ResponseEntity<Resource> getPendingPhotoImage(
       @PathVariable String sourceId,
       @AuthenticationPrincipal Jwt jwt) {
     final Source source = requirePhotoGrammarSource(sourceId);
@@ -600,7 +629,7 @@ public class SourceController {
     return ResponseEntity.ok()
         .contentType(MediaType.parseMediaType(photo.getContentType()))
         .header("Cache-Control", "no-store")
-        .body(photo.getImageData());
+        .body(pendingPhotoService.fetchImage(photo));
   }
 
   @PreAuthorize("hasAuthority('APPROLE_DeckCreator') and hasAuthority('SCOPE_createDeck')")
@@ -621,7 +650,7 @@ public class SourceController {
         .orElseThrow(() -> new ResourceNotFoundException("No pending photo for this source"));
 
     final List<PreparedPage> pages = photoPreprocessingService.prepare(
-        photo.getImageData(), photo.getContentType());
+        pendingPhotoService.fetchImageData(photo), photo.getContentType());
 
     final String baseOperationId = OperationIdContext.get();
 
@@ -732,6 +761,17 @@ public class SourceController {
         .collect(Collectors.toUnmodifiableSet());
   }
 
+  /**
+   * Stores an uploaded PDF and returns the name it is stored under, which is an
+   * existing file's name when the same PDF was uploaded before.
+   */
+  private String storedSourceFileName(MultipartFile file, String originalFilename) throws IOException {
+    try (InputStream data = file.getInputStream()) {
+      return fileStorageService.saveDeduplicated(data, "sources", originalFilename)
+          .substring("sources/".length());
+    }
+  }
+
   private boolean isImageFile(String filename) {
     String lowerName = filename.toLowerCase();
     return lowerName.endsWith(".png") ||
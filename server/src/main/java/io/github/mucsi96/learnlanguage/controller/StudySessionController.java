@@ -6,6 +6,7 @@ import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfNextDayU
 
 import java.time.ZoneId;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,11 +16,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.github.mucsi96.learnlanguage.model.AddCardsToSessionRequest;
 import io.github.mucsi96.learnlanguage.model.SessionStatsResponse;
 import io.github.mucsi96.learnlanguage.model.StudySessionCardResponse;
 import io.github.mucsi96.learnlanguage.model.StudySessionResponse;
+import io.github.mucsi96.learnlanguage.service.StudySessionEventService;
 import io.github.mucsi96.learnlanguage.service.StudySessionPdfService;
 import io.github.mucsi96.learnlanguage.service.StudySessionService;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +33,7 @@ public class StudySessionController {
 
     private final StudySessionService studySessionService;
     private final StudySessionPdfService studySessionPdfService;
+    private final StudySessionEventService studySessionEventService;
 
     @GetMapping("/source/{sourceId}/study-session")
     @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
@@ -62,6 +66,14 @@ public class StudySessionController {
                 .orElse(ResponseEntity.noContent().build());
     }
 
+    @GetMapping(value = "/source/{sourceId}/study-session/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
+    public SseEmitter streamSessionEvents(
+            @PathVariable String sourceId,
+            @RequestHeader("X-Timezone") String timezone) {
+        return studySessionEventService.subscribeToSession(sourceId, parseTimezone(timezone));
+    }
+
     @GetMapping("/source/{sourceId}/study-session/stats")
     @PreAuthorize("hasAuthority('APPROLE_DeckReader') and hasAuthority('SCOPE_readDecks')")
     public ResponseEntity<SessionStatsResponse> getSessionStats(
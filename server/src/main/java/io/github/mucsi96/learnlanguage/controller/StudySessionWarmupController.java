@@ -0,0 +1,23 @@
+package io.github.mucsi96.learnlanguage.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.github.mucsi96.learnlanguage.service.StudySessionWarmupService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@Profile("test")
+public class StudySessionWarmupController {
+
+  private final StudySessionWarmupService studySessionWarmupService;
+
+  @PostMapping("/test/warm-up-sessions")
+  public ResponseEntity<Void> triggerWarmUp() {
+    studySessionWarmupService.rewarmSessions();
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "audio_clips", schema = "learn_language")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudioClip {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String text;
+
+    @Column(nullable = false)
+    private String voice;
+
+    @Column(nullable = false)
+    private String model;
+
+    private String language;
+
+    @Column(name = "single_word", nullable = false)
+    private boolean singleWord;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,54 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the card media index. Audio and image rows are maintained by
+ * database triggers from {@code cards.data} on every card write, required
+ * audio rows by {@link io.github.mucsi96.learnlanguage.service.RequiredAudioService}.
+ */
+@Entity
+@Immutable
+@Table(name = "card_media", schema = "learn_language")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardMedia {
+
+    @Id
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private String cardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CardMediaKind kind;
+
+    @Column(name = "media_id")
+    private String mediaId;
+
+    private String text;
+
+    private String language;
+
+    @Column(nullable = false)
+    private boolean selected;
+
+    @Column(nullable = false)
+    private boolean favorite;
+
+    @Column(nullable = false)
+    private boolean front;
+}
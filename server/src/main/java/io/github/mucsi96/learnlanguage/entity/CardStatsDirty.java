@@ -0,0 +1,28 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "card_stats_dirty", schema = "learn_language")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatsDirty {
+
+    @Id
+    @Column(name = "card_id")
+    private String cardId;
+
+    @Column(name = "marked_at", nullable = false)
+    private Instant markedAt;
+}
@@ -80,4 +80,7 @@ public class CardView {
 
     @Column(name = "is_suggested_known", nullable = false)
     private Boolean isSuggestedKnown;
+
+    @Column(name = "search_text")
+    private String searchText;
 }
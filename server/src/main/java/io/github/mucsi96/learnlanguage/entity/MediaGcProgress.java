@@ -0,0 +1,29 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "media_gc_progress", schema = "learn_language")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaGcProgress {
+
+    @Id
+    private String directory;
+
+    private String cursor;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -42,8 +42,11 @@ public class PendingPhoto {
   @JoinColumn(name = "source_id", nullable = false)
   private Source source;
 
-  @Column(name = "image_data", nullable = false, columnDefinition = "bytea")
-  private byte[] imageData;
+  @Column(name = "file_path", nullable = false)
+  private String filePath;
+
+  @Column(nullable = false)
+  private Long size;
 
   @Column(name = "content_type", nullable = false)
   private String contentType;
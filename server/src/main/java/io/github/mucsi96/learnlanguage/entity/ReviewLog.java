@@ -1,6 +1,7 @@
 package io.github.mucsi96.learnlanguage.entity;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -64,4 +65,7 @@ public class ReviewLog {
     private LocalDateTime review;
 
     private Long reviewDuration;
+
+    @Column(name = "client_review_id", unique = true)
+    private UUID clientReviewId;
 }
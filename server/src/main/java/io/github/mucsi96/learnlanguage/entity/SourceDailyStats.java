@@ -0,0 +1,63 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.hibernate.annotations.Type;
+
+import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Table(name = "source_daily_stats", schema = "learn_language")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourceDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_id", nullable = false)
+    @ToString.Exclude
+    private Source source;
+
+    @Column(name = "stats_date", nullable = false)
+    private LocalDate statsDate;
+
+    @Column(name = "card_count")
+    private Integer cardCount;
+
+    @Column(name = "state_counts", columnDefinition = "jsonb")
+    @Type(JsonBinaryType.class)
+    private Map<String, Integer> stateCounts;
+
+    @Column(name = "readiness_counts", columnDefinition = "jsonb")
+    @Type(JsonBinaryType.class)
+    private Map<String, Integer> readinessCounts;
+
+    @Column(name = "review_count", nullable = false)
+    private int reviewCount;
+
+    @Column(name = "retention_rate")
+    private Double retentionRate;
+
+    @Column(name = "average_review_duration_ms")
+    private Long averageReviewDurationMs;
+}
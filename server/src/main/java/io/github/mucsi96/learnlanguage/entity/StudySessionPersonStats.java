@@ -0,0 +1,44 @@
+package io.github.mucsi96.learnlanguage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "study_session_person_stats", schema = "learn_language")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudySessionPersonStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne
+    @JoinColumn(name = "session_id", nullable = false)
+    private StudySession session;
+
+    @ManyToOne
+    @JoinColumn(name = "learning_partner_id")
+    private LearningPartner learningPartner;
+
+    @Column(name = "total_duration_ms", nullable = false)
+    private long totalDurationMs;
+
+    @Column(name = "review_count", nullable = false)
+    private int reviewCount;
+
+    @Column(name = "bad_count", nullable = false)
+    private int badCount;
+}
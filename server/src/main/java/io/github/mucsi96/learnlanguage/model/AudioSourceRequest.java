@@ -21,4 +21,5 @@ public class AudioSourceRequest {
   private Boolean selected;
   private String context;
   private Boolean singleWord;
+  private Boolean preview;
 }
@@ -0,0 +1,24 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardFilterParams {
+    private String readiness;
+    private String state;
+    private Integer minReps;
+    private Integer maxReps;
+    private Integer lastReviewDaysAgo;
+    private Integer minReviewScore;
+    private Integer maxReviewScore;
+    private String cardFilter;
+    private Boolean flagged;
+    private Boolean unhealthy;
+    private Boolean suggestedKnown;
+}
@@ -0,0 +1,17 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardGradeRequest {
+    private String cardId;
+    private Integer rating;
+    private Long reviewDuration;
+    private Integer learningPartnerId;
+}
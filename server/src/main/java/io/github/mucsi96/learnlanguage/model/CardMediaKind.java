@@ -0,0 +1,7 @@
+package io.github.mucsi96.learnlanguage.model;
+
+public enum CardMediaKind {
+    AUDIO,
+    IMAGE,
+    REQUIRED_AUDIO
+}
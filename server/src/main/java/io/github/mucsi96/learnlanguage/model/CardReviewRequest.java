@@ -0,0 +1,22 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardReviewRequest {
+    private UUID reviewId;
+    private String cardId;
+    private Integer rating;
+    private Long reviewDuration;
+    private Integer learningPartnerId;
+    private LocalDateTime reviewedAt;
+}
@@ -0,0 +1,18 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardSearchResult {
+    private String id;
+    private String sourceId;
+    private CardReadiness readiness;
+    private String label;
+    private Float score;
+}
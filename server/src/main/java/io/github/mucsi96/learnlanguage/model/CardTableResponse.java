@@ -13,5 +13,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class CardTableResponse {
     private List<CardTableRow> rows;
-    private long totalCount;
+    private Long totalCount;
+    private String nextCursor;
 }
@@ -0,0 +1,22 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaGcDirectoryReport {
+    private String directory;
+    private long scannedCount;
+    private long unreferencedCount;
+    private long unreferencedBytes;
+    private long deletedCount;
+    private boolean skipped;
+    private List<String> samplePaths;
+}
@@ -0,0 +1,19 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaGcReport {
+    private boolean dryRun;
+    private Instant createdBefore;
+    private List<MediaGcDirectoryReport> directories;
+}
@@ -0,0 +1,38 @@
+package io.github.mucsi96.learnlanguage.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import io.github.mucsi96.learnlanguage.entity.SourceDailyStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SourceDailyStatsResponse {
+    private String sourceId;
+    private LocalDate date;
+    private Integer cardCount;
+    private Map<String, Integer> stateCounts;
+    private Map<String, Integer> readinessCounts;
+    private Integer reviewCount;
+    private Double retentionRate;
+    private Long averageReviewDurationMs;
+
+    public static SourceDailyStatsResponse from(SourceDailyStats stats) {
+        return SourceDailyStatsResponse.builder()
+                .sourceId(stats.getSource().getId())
+                .date(stats.getStatsDate())
+                .cardCount(stats.getCardCount())
+                .stateCounts(stats.getStateCounts())
+                .readinessCounts(stats.getReadinessCounts())
+                .reviewCount(stats.getReviewCount())
+                .retentionRate(stats.getRetentionRate())
+                .averageReviewDurationMs(stats.getAverageReviewDurationMs())
+                .build();
+    }
+}
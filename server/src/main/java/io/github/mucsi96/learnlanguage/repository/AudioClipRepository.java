@@ -0,0 +1,61 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.AudioClip;
+
+@Repository
+public interface AudioClipRepository extends JpaRepository<AudioClip, String> {
+
+    @Modifying
+    @Query("update AudioClip a set a.referenceCount = a.referenceCount + 1 where a.id = :id")
+    int incrementReference(@Param("id") String id);
+
+    @Modifying
+    @Query("update AudioClip a set a.referenceCount = a.referenceCount - 1 where a.id = :id and a.referenceCount > 1")
+    int decrementSharedReference(@Param("id") String id);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO learn_language.audio_clips
+            (id, text, voice, model, language, single_word, reference_count, created_at)
+        VALUES (:id, :text, :voice, :model, :language, :singleWord, 1, now())
+        ON CONFLICT (id) DO UPDATE SET reference_count = audio_clips.reference_count + 1
+        """, nativeQuery = true)
+    void insertOrIncrementReference(
+            @Param("id") String id,
+            @Param("text") String text,
+            @Param("voice") String voice,
+            @Param("model") String model,
+            @Param("language") String language,
+            @Param("singleWord") boolean singleWord);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO learn_language.audio_clips
+            (id, text, voice, model, language, single_word, reference_count, created_at)
+        VALUES (:id, :text, :voice, :model, :language, :singleWord, 0, now())
+        ON CONFLICT (id) DO NOTHING
+        """, nativeQuery = true)
+    void insertUnreferenced(
+            @Param("id") String id,
+            @Param("text") String text,
+            @Param("voice") String voice,
+            @Param("model") String model,
+            @Param("language") String language,
+            @Param("singleWord") boolean singleWord);
+
+    @Query("select a.id from AudioClip a where a.id in :ids and a.referenceCount > 0")
+    List<String> findReferencedIds(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("delete from AudioClip a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,27 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.CardMediaDirty;
+
+@Repository
+public interface CardMediaDirtyRepository extends JpaRepository<CardMediaDirty, String> {
+
+    @Query(value = """
+        SELECT card_id FROM learn_language.card_media_dirty
+        ORDER BY marked_at, card_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findCardIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM learn_language.card_media_dirty WHERE card_id = ANY(CAST(:cardIds AS varchar[]))",
+            nativeQuery = true)
+    void clearDirty(@Param("cardIds") String[] cardIds);
+}
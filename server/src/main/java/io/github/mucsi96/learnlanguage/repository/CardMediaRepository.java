@@ -0,0 +1,65 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.CardMedia;
+import io.github.mucsi96.learnlanguage.entity.Source;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+
+@Repository
+public interface CardMediaRepository extends JpaRepository<CardMedia, Long> {
+
+    @Query("""
+        SELECT DISTINCT m.mediaId FROM CardMedia m
+        WHERE m.kind = :kind AND m.mediaId IN :mediaIds
+        """)
+    List<String> findReferencedMediaIds(
+            @Param("kind") CardMediaKind kind,
+            @Param("mediaIds") Collection<String> mediaIds);
+
+    @Query("""
+        SELECT m.mediaId FROM CardMedia m
+        WHERE m.kind = :kind AND m.cardId IN :cardIds AND m.mediaId IS NOT NULL
+        """)
+    List<String> findMediaIdsByCardIds(
+            @Param("kind") CardMediaKind kind,
+            @Param("cardIds") Collection<String> cardIds);
+
+    @Query("""
+        SELECT m.mediaId FROM CardMedia m JOIN Card c ON c.id = m.cardId
+        WHERE m.kind = :kind AND c.source = :source AND m.mediaId IS NOT NULL
+        """)
+    List<String> findMediaIdsBySource(
+            @Param("kind") CardMediaKind kind,
+            @Param("source") Source source);
+
+    boolean existsByKind(CardMediaKind kind);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM learn_language.card_media
+        WHERE card_id = ANY(CAST(:cardIds AS varchar[])) AND kind = 'REQUIRED_AUDIO'
+        """, nativeQuery = true)
+    void deleteRequiredAudio(@Param("cardIds") String[] cardIds);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO learn_language.card_media (card_id, kind, text, language, selected, favorite, front)
+        SELECT r.card_id, 'REQUIRED_AUDIO', r.text, r.language, false, false, r.front
+        FROM unnest(CAST(:cardIds AS varchar[]), CAST(:texts AS text[]), CAST(:languages AS varchar[]),
+                    CAST(:fronts AS boolean[]))
+            AS r(card_id, text, language, front)
+        """, nativeQuery = true)
+    void insertRequiredAudio(
+            @Param("cardIds") String[] cardIds,
+            @Param("texts") String[] texts,
+            @Param("languages") String[] languages,
+            @Param("fronts") Boolean[] fronts);
+}
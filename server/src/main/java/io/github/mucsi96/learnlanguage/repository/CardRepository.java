@@ -2,11 +2,14 @@ package io.github.mucsi96.learnlanguage.repository;
 
 import io.github.mucsi96.learnlanguage.entity.Card;
 import io.github.mucsi96.learnlanguage.entity.Source;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
 import io.github.mucsi96.learnlanguage.model.CardReadiness;
+import jakarta.persistence.LockModeType;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,9 +24,11 @@ public interface CardRepository
         extends JpaRepository<Card, String>, JpaSpecificationExecutor<Card>, CardRepositoryCustom {
     List<Card> findByIdInOrderByIdAsc(List<String> ids);
 
-    List<Card> findByReadinessOrderByDueAsc(CardReadiness readiness);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findByIdInWithLock(@Param("ids") Collection<String> ids);
 
-    List<Card> findByReadinessIn(List<CardReadiness> readinessList);
+    List<Card> findByReadinessOrderByDueAsc(CardReadiness readiness);
 
     @Query("SELECT c FROM Card c ORDER BY c.lastReview DESC")
     List<Card> findTopByOrderByLastReviewDesc(Pageable pageable);
@@ -31,7 +36,20 @@ public interface CardRepository
     List<Card> findByFlaggedTrueOrderByDueAsc();
 
     @Query(value = """
-        WITH ranked_cards AS (
+        WITH active_sessions AS (
+            SELECT id, source_id
+            FROM learn_language.study_sessions
+            WHERE created_at >= :startOfDay
+        ),
+        session_counts AS (
+            SELECT ss.source_id, c.state, COUNT(*) AS count
+            FROM active_sessions ss
+            JOIN learn_language.study_session_cards ssc ON ssc.session_id = ss.id
+            JOIN learn_language.cards c ON c.id = ssc.card_id
+            WHERE c.readiness = 'READY' AND c.due < :startOfNextDay
+            GROUP BY ss.source_id, c.state
+        ),
+        ranked_cards AS (
             SELECT c.source_id, c.state, c.due,
                    ROW_NUMBER() OVER (PARTITION BY c.source_id ORDER BY c.due ASC) AS due_row_num,
                    s.card_limit,
@@ -39,6 +57,7 @@ public interface CardRepository
             FROM learn_language.cards c
             JOIN learn_language.sources s ON c.source_id = s.id
             WHERE c.readiness = 'READY' AND c.due < :startOfNextDay
+              AND NOT EXISTS (SELECT 1 FROM active_sessions ss WHERE ss.source_id = c.source_id)
         ),
         within_card_limit AS (
             SELECT source_id, state, due, new_card_limit
@@ -50,6 +69,9 @@ public interface CardRepository
                    ROW_NUMBER() OVER (PARTITION BY source_id, state ORDER BY due ASC) AS state_row_num
             FROM within_card_limit
         )
+        SELECT source_id AS sourceId, state AS state, count AS count
+        FROM session_counts
+        UNION ALL
         SELECT source_id AS sourceId, state AS state, COUNT(*) AS count
         FROM state_ranked
         WHERE new_card_limit IS NULL
@@ -57,7 +79,8 @@ public interface CardRepository
            OR state_row_num <= new_card_limit
         GROUP BY source_id, state
         """, nativeQuery = true)
-    List<SourceStateCountProjection> findDueCardCountsGroupedByStateAndSource(
+    List<SourceStateCountProjection> findDueCardCountsBySource(
+            @Param("startOfDay") LocalDateTime startOfDay,
             @Param("startOfNextDay") LocalDateTime startOfNextDay);
 
     @Query(value = """
@@ -71,6 +94,20 @@ public interface CardRepository
         """, nativeQuery = true)
     List<SourceCardStatsProjection> getSourceCardStats();
 
+    @Query(value = """
+        SELECT c.id AS id, c.source_id AS sourceId, c.readiness AS readiness,
+               COALESCE(c.data->>'word', c.data->>'frontText') AS label,
+               word_similarity(:query, c.search_text) AS score
+        FROM learn_language.cards c
+        WHERE c.search_text LIKE '%' || :likePattern || '%' ESCAPE '\\' OR :query <% c.search_text
+        ORDER BY score DESC, c.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<CardSearchProjection> searchCards(
+            @Param("query") String query,
+            @Param("likePattern") String likePattern,
+            @Param("limit") int limit);
+
     boolean existsByIdStartingWithAndIdNot(String prefix, String id);
 
     boolean existsByIdAndSource_IdIn(String id, Collection<String> sourceIds);
@@ -79,6 +116,82 @@ public interface CardRepository
 
     List<Card> findBySource_IdIn(Collection<String> sourceIds);
 
+    @Query("SELECT DISTINCT c.source.id FROM Card c WHERE c.readiness = :readiness AND c.due < :cutoff")
+    List<String> findSourceIdsWithDueCards(
+        @Param("readiness") CardReadiness readiness,
+        @Param("cutoff") LocalDateTime cutoff);
+
     @Modifying
     void deleteBySource(Source source);
+
+    @Query("""
+        SELECT c FROM Card c
+        WHERE c.readiness IN :readiness
+          AND EXISTS (
+            SELECT 1 FROM CardMedia r
+            WHERE r.cardId = c.id
+              AND r.kind = :requiredKind
+              AND (:frontAudioDisabled = false OR r.front = false)
+              AND NOT EXISTS (
+                SELECT 1 FROM CardMedia a
+                WHERE a.cardId = r.cardId
+                  AND a.kind = :audioKind
+                  AND a.text = r.text))
+        ORDER BY c.id
+        """)
+    List<Card> findCardsMissingAudio(
+        @Param("readiness") Collection<CardReadiness> readiness,
+        @Param("frontAudioDisabled") boolean frontAudioDisabled,
+        @Param("requiredKind") CardMediaKind requiredKind,
+        @Param("audioKind") CardMediaKind audioKind);
+
+    @Modifying
+    @Query(value = """
+        UPDATE learn_language.cards c
+        SET data = jsonb_set(c.data, '{examples}', (
+            SELECT jsonb_agg(CASE WHEN jsonb_typeof(e) = 'object'
+                                  THEN e || '{"images": null}'::jsonb
+                                  ELSE e END ORDER BY ord)
+            FROM jsonb_array_elements(c.data->'examples') WITH ORDINALITY AS x(e, ord)))
+        WHERE c.id IN (
+            SELECT id FROM learn_language.cards
+            WHERE readiness = 'KNOWN'
+              AND jsonb_path_exists(data, '$.examples[*].images[*] ? (@.type() == "object")')
+            ORDER BY id
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int stripImagesFromKnownCards(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+        UPDATE learn_language.cards c
+        SET data = jsonb_set(c.data, '{examples}', (
+            SELECT jsonb_agg(CASE WHEN jsonb_typeof(e->'images') = 'array'
+                                  THEN jsonb_set(e, '{images}', COALESCE((
+                                      SELECT jsonb_agg(i ORDER BY io)
+                                      FROM jsonb_array_elements(e->'images') WITH ORDINALITY AS y(i, io)
+                                      WHERE i->'isFavorite' = 'true'::jsonb), '[]'::jsonb))
+                                  ELSE e END ORDER BY ord)
+            FROM jsonb_array_elements(c.data->'examples') WITH ORDINALITY AS x(e, ord)))
+        WHERE c.id IN (
+            SELECT id FROM learn_language.cards
+            WHERE readiness IN ('REVIEWED', 'READY')
+              AND jsonb_path_exists(data,
+                  '$.examples[*].images[*] ? (@.type() == "object" && !(@.isFavorite == true))')
+            ORDER BY id
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int stripNonFavoriteImagesFromReviewedCards(@Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Card c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE learn_language.cards
+        SET data = data - 'audio'
+        WHERE id IN :ids AND jsonb_path_exists(data, '$.audio[*]')
+        """, nativeQuery = true)
+    int removeAudioByIdIn(@Param("ids") Collection<String> ids);
 }
@@ -1,11 +1,19 @@
 package io.github.mucsi96.learnlanguage.repository;
 
+import io.github.mucsi96.learnlanguage.entity.CardView;
 import io.github.mucsi96.learnlanguage.model.CardReadiness;
+import org.springframework.data.jpa.domain.PredicateSpecification;
 
 import java.util.List;
 
 public interface CardRepositoryCustom {
-    void updateReadinessByIds(List<String> ids, CardReadiness readiness);
+    int updateReadinessByIds(List<String> ids, CardReadiness readiness);
 
-    void resetFsrsAndMarkDraftByIds(List<String> ids);
+    int resetFsrsAndMarkDraftByIds(List<String> ids);
+
+    int updateReadinessByFilter(PredicateSpecification<CardView> spec, CardReadiness readiness);
+
+    int resetFsrsAndMarkDraftByFilter(PredicateSpecification<CardView> spec);
+
+    int deleteByFilter(PredicateSpecification<CardView> spec);
 }
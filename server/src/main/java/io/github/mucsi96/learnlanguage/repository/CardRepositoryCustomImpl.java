@@ -1,16 +1,24 @@
 package io.github.mucsi96.learnlanguage.repository;
 
 import io.github.mucsi96.learnlanguage.entity.Card;
+import io.github.mucsi96.learnlanguage.entity.CardView;
 import io.github.mucsi96.learnlanguage.entity.Card_;
 import io.github.mucsi96.learnlanguage.model.CardReadiness;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.PredicateSpecification;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.BiFunction;
+
+import static io.github.mucsi96.learnlanguage.repository.CardViewRepositoryCustomImpl.matchingCardIds;
 
 @RequiredArgsConstructor
 public class CardRepositoryCustomImpl implements CardRepositoryCustom {
@@ -19,19 +27,51 @@ public class CardRepositoryCustomImpl implements CardRepositoryCustom {
     private final EntityManager entityManager;
 
     @Override
-    public void updateReadinessByIds(List<String> ids, CardReadiness readiness) {
+    public int updateReadinessByIds(List<String> ids, CardReadiness readiness) {
+        return updateReadiness((update, root) -> root.get(Card_.id).in(ids), readiness);
+    }
+
+    @Override
+    public int updateReadinessByFilter(PredicateSpecification<CardView> spec, CardReadiness readiness) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        return updateReadiness((update, root) -> root.get(Card_.id).in(matchingCardIds(update, cb, spec)), readiness);
+    }
+
+    @Override
+    public int resetFsrsAndMarkDraftByIds(List<String> ids) {
+        return resetFsrsAndMarkDraft((update, root) -> root.get(Card_.id).in(ids));
+    }
+
+    @Override
+    public int resetFsrsAndMarkDraftByFilter(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        return resetFsrsAndMarkDraft((update, root) -> root.get(Card_.id).in(matchingCardIds(update, cb, spec)));
+    }
+
+    @Override
+    public int deleteByFilter(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaDelete<Card> delete = cb.createCriteriaDelete(Card.class);
+        final Root<Card> root = delete.from(Card.class);
+
+        delete.where(root.get(Card_.id).in(matchingCardIds(delete, cb, spec)));
+
+        return executeBulkStatement(entityManager.createQuery(delete));
+    }
+
+    private int updateReadiness(BiFunction<CriteriaUpdate<Card>, Root<Card>, Predicate> restriction,
+            CardReadiness readiness) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaUpdate<Card> update = cb.createCriteriaUpdate(Card.class);
         final Root<Card> root = update.from(Card.class);
 
         update.set(root.get(Card_.readiness), readiness);
-        update.where(root.get(Card_.id).in(ids));
+        update.where(restriction.apply(update, root), cb.notEqual(root.get(Card_.readiness), readiness));
 
-        entityManager.createQuery(update).executeUpdate();
+        return executeBulkStatement(entityManager.createQuery(update));
     }
 
-    @Override
-    public void resetFsrsAndMarkDraftByIds(List<String> ids) {
+    private int resetFsrsAndMarkDraft(BiFunction<CriteriaUpdate<Card>, Root<Card>, Predicate> restriction) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaUpdate<Card> update = cb.createCriteriaUpdate(Card.class);
         final Root<Card> root = update.from(Card.class);
@@ -47,8 +87,15 @@ public class CardRepositoryCustomImpl implements CardRepositoryCustom {
         update.set(root.get(Card_.lapses), 0);
         update.set(root.get(Card_.state), NEW_STATE);
         update.set(root.get(Card_.lastReview), (LocalDateTime) null);
-        update.where(root.get(Card_.id).in(ids));
+        update.where(restriction.apply(update, root));
+
+        return executeBulkStatement(entityManager.createQuery(update));
+    }
 
-        entityManager.createQuery(update).executeUpdate();
+    private int executeBulkStatement(Query statement) {
+        entityManager.flush();
+        final int updated = statement.executeUpdate();
+        entityManager.clear();
+        return updated;
     }
 }
@@ -0,0 +1,9 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+public interface CardSearchProjection {
+    String getId();
+    String getSourceId();
+    String getReadiness();
+    String getLabel();
+    Float getScore();
+}
@@ -0,0 +1,34 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.mucsi96.learnlanguage.entity.CardStatsDirty;
+
+@Repository
+public interface CardStatsDirtyRepository extends JpaRepository<CardStatsDirty, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO learn_language.card_stats_dirty (card_id, marked_at)
+        SELECT c.id, now() FROM learn_language.cards c
+        WHERE c.id = ANY(CAST(:cardIds AS varchar[]))
+        ON CONFLICT (card_id) DO NOTHING
+        """, nativeQuery = true)
+    void markDirty(@Param("cardIds") String[] cardIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM learn_language.card_stats_dirty WHERE card_id = ANY(CAST(:cardIds AS varchar[]))",
+            nativeQuery = true)
+    void clearDirty(@Param("cardIds") String[] cardIds);
+
+    @Query("SELECT d.cardId FROM CardStatsDirty d")
+    List<String> findAllCardIds();
+}
@@ -0,0 +1,20 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.time.LocalDateTime;
+
+import io.github.mucsi96.learnlanguage.model.CardReadiness;
+
+public record CardTableRowProjection(
+        String id,
+        CardReadiness readiness,
+        String state,
+        Integer reps,
+        Integer lapses,
+        Float stability,
+        LocalDateTime due,
+        LocalDateTime lastReview,
+        Integer correctStreak,
+        Integer reviewScore,
+        Integer sourcePageNumber,
+        Float relevance) {
+}
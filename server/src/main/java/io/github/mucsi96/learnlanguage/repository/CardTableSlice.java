@@ -0,0 +1,6 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+
+public record CardTableSlice(List<CardTableRowProjection> rows, String nextCursor) {
+}
@@ -0,0 +1,14 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+public enum CardTableSortField {
+    DUE,
+    REPS,
+    LAPSES,
+    STABILITY,
+    CORRECT_STREAK,
+    LAST_REVIEW,
+    STATE,
+    READINESS,
+    REVIEW_SCORE,
+    RELEVANCE
+}
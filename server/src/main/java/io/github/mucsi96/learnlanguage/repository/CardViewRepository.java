@@ -5,15 +5,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface CardViewRepository
-        extends JpaRepository<CardView, String>, JpaSpecificationExecutor<CardView> {
+        extends JpaRepository<CardView, String>, JpaSpecificationExecutor<CardView>, CardViewRepositoryCustom {
 
     @Modifying
-    @Transactional
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY learn_language.card_view", nativeQuery = true)
-    void refresh();
+    @Query(value = "CALL learn_language.refresh_card_stats(CAST(:cardIds AS varchar[]))", nativeQuery = true)
+    void refreshCardStats(@Param("cardIds") String[] cardIds);
 }
@@ -0,0 +1,22 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import io.github.mucsi96.learnlanguage.entity.CardView;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+
+public interface CardViewRepositoryCustom {
+    CardTableSlice findCardTableSlice(PredicateSpecification<CardView> spec, CardTableSortField sortField,
+            boolean descending, String searchTerm, String afterCursor, int offset, int limit);
+
+    Stream<String> streamCardIds(PredicateSpecification<CardView> spec);
+
+    List<String> findSessionCardIds(PredicateSpecification<CardView> spec);
+
+    List<String> findReviewedCardIds(PredicateSpecification<CardView> spec);
+
+    List<String> findCardIdsWithMedia(PredicateSpecification<CardView> spec, CardMediaKind kind);
+}
@@ -0,0 +1,218 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import io.github.mucsi96.learnlanguage.entity.CardMedia;
+import io.github.mucsi96.learnlanguage.entity.CardMedia_;
+import io.github.mucsi96.learnlanguage.entity.CardView;
+import io.github.mucsi96.learnlanguage.entity.CardView_;
+import io.github.mucsi96.learnlanguage.entity.Card_;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog_;
+import io.github.mucsi96.learnlanguage.entity.StudySessionCard;
+import io.github.mucsi96.learnlanguage.entity.StudySessionCard_;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+import io.github.mucsi96.learnlanguage.model.CardReadiness;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CardViewRepositoryCustomImpl implements CardViewRepositoryCustom {
+    private static final int NULL_NUMBER = Integer.MAX_VALUE;
+    private static final LocalDateTime NULL_DATE_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String CURSOR_SEPARATOR = "\n";
+    private static final int ID_FETCH_SIZE = 1000;
+
+    private record SortKey<Y extends Comparable<? super Y>>(
+            Expression<Y> expression,
+            Function<String, Y> parser,
+            Function<CardTableRowProjection, Y> extractor) {
+    }
+
+    private final EntityManager entityManager;
+
+    @Override
+    public CardTableSlice findCardTableSlice(PredicateSpecification<CardView> spec, CardTableSortField sortField,
+            boolean descending, String searchTerm, String afterCursor, int offset, int limit) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<CardTableRowProjection> query = cb.createQuery(CardTableRowProjection.class);
+        final Root<CardView> root = query.from(CardView.class);
+        final Expression<Float> relevance = searchTerm != null
+                ? cb.function("word_similarity", Float.class,
+                        cb.literal(searchTerm.toLowerCase()), root.get(CardView_.searchText))
+                : cb.literal(0f);
+        final SortKey<?> sortKey = sortKey(cb, root, sortField, relevance);
+
+        query.select(cb.construct(CardTableRowProjection.class,
+                root.get(CardView_.id),
+                root.get(CardView_.readiness),
+                root.get(CardView_.state),
+                root.get(CardView_.reps),
+                root.get(CardView_.lapses),
+                root.get(CardView_.stability),
+                root.get(CardView_.due),
+                root.get(CardView_.lastReview),
+                root.get(CardView_.correctStreak),
+                root.get(CardView_.reviewScore),
+                root.get(CardView_.sourcePageNumber),
+                relevance));
+
+        final Predicate filter = spec.toPredicate(root, cb);
+        query.where(afterCursor != null
+                ? cb.and(filter, seek(cb, sortKey, root.get(CardView_.id), afterCursor, descending))
+                : filter);
+        query.orderBy(descending
+                ? List.of(cb.desc(sortKey.expression()), cb.desc(root.get(CardView_.id)))
+                : List.of(cb.asc(sortKey.expression()), cb.asc(root.get(CardView_.id))));
+
+        final List<CardTableRowProjection> rows = entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+
+        final String nextCursor = rows.size() == limit ? cursorOf(sortKey, rows.getLast()) : null;
+        return new CardTableSlice(rows, nextCursor);
+    }
+
+    @Override
+    public Stream<String> streamCardIds(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<String> query = cb.createQuery(String.class);
+        final Root<CardView> root = query.from(CardView.class);
+
+        query.select(root.get(CardView_.id));
+        query.where(spec.toPredicate(root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ID_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<String> findSessionCardIds(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<String> query = cb.createQuery(String.class);
+        final Root<StudySessionCard> root = query.from(StudySessionCard.class);
+        final Path<String> cardId = root.get(StudySessionCard_.card).get(Card_.id);
+
+        query.select(cardId).distinct(true);
+        query.where(cardId.in(matchingCardIds(query, cb, spec)));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<String> findReviewedCardIds(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<String> query = cb.createQuery(String.class);
+        final Root<ReviewLog> root = query.from(ReviewLog.class);
+        final Path<String> cardId = root.get(ReviewLog_.card).get(Card_.id);
+
+        query.select(cardId).distinct(true);
+        query.where(cardId.in(matchingCardIds(query, cb, spec)));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<String> findCardIdsWithMedia(PredicateSpecification<CardView> spec, CardMediaKind kind) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<String> query = cb.createQuery(String.class);
+        final Root<CardMedia> root = query.from(CardMedia.class);
+
+        query.select(root.get(CardMedia_.cardId)).distinct(true);
+        query.where(
+                cb.equal(root.get(CardMedia_.kind), kind),
+                root.get(CardMedia_.cardId).in(matchingCardIds(query, cb, spec)));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Selects the ids of the cards matching {@code spec} as a subquery of
+     * {@code query}, so bulk statements filter inside the database instead of
+     * round-tripping the ids.
+     */
+    static Subquery<String> matchingCardIds(CommonAbstractCriteria query, CriteriaBuilder cb,
+            PredicateSpecification<CardView> spec) {
+        final Subquery<String> subquery = query.subquery(String.class);
+        final Root<CardView> root = subquery.from(CardView.class);
+
+        return subquery.select(root.get(CardView_.id)).where(spec.toPredicate(root, cb));
+    }
+
+    private SortKey<?> sortKey(CriteriaBuilder cb, Root<CardView> root, CardTableSortField sortField,
+            Expression<Float> relevance) {
+        return switch (sortField) {
+            case DUE -> new SortKey<>(root.get(CardView_.due), LocalDateTime::parse, CardTableRowProjection::due);
+            case REPS -> new SortKey<>(root.get(CardView_.reps), Integer::valueOf, CardTableRowProjection::reps);
+            case LAPSES -> new SortKey<>(root.get(CardView_.lapses), Integer::valueOf, CardTableRowProjection::lapses);
+            case STABILITY -> new SortKey<>(root.get(CardView_.stability), Float::valueOf,
+                    CardTableRowProjection::stability);
+            case STATE -> new SortKey<>(root.get(CardView_.state), Function.identity(), CardTableRowProjection::state);
+            case READINESS -> new SortKey<>(root.get(CardView_.readiness), CardReadiness::valueOf,
+                    CardTableRowProjection::readiness);
+            case CORRECT_STREAK -> new SortKey<>(cb.coalesce(root.get(CardView_.correctStreak), NULL_NUMBER),
+                    Integer::valueOf, row -> row.correctStreak() != null ? row.correctStreak() : NULL_NUMBER);
+            case REVIEW_SCORE -> new SortKey<>(cb.coalesce(root.get(CardView_.reviewScore), NULL_NUMBER),
+                    Integer::valueOf, row -> row.reviewScore() != null ? row.reviewScore() : NULL_NUMBER);
+            case LAST_REVIEW -> new SortKey<>(cb.coalesce(root.get(CardView_.lastReview), NULL_DATE_TIME),
+                    LocalDateTime::parse, row -> row.lastReview() != null ? row.lastReview() : NULL_DATE_TIME);
+            case RELEVANCE -> new SortKey<>(relevance, Float::valueOf, CardTableRowProjection::relevance);
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate seek(CriteriaBuilder cb, SortKey<Y> sortKey,
+            Path<String> id, String cursor, boolean descending) {
+        final String[] parts = decodeCursor(cursor);
+        final Y value;
+        try {
+            value = sortKey.parser().apply(parts[0]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        final String lastId = parts[1];
+
+        return descending
+                ? cb.or(
+                        cb.lessThan(sortKey.expression(), value),
+                        cb.and(cb.equal(sortKey.expression(), value), cb.lessThan(id, lastId)))
+                : cb.or(
+                        cb.greaterThan(sortKey.expression(), value),
+                        cb.and(cb.equal(sortKey.expression(), value), cb.greaterThan(id, lastId)));
+    }
+
+    private static <Y extends Comparable<? super Y>> String cursorOf(SortKey<Y> sortKey, CardTableRowProjection row) {
+        final Y value = sortKey.extractor().apply(row);
+        final String raw = (value instanceof Enum<?> enumValue ? enumValue.name() : value.toString())
+                + CURSOR_SEPARATOR + row.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(CURSOR_SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
@@ -2,20 +2,23 @@ package io.github.mucsi96.learnlanguage.repository;
 
 import io.github.mucsi96.learnlanguage.entity.Document;
 import io.github.mucsi96.learnlanguage.entity.Source;
-import org.springframework.data.jpa.repository.EntityGraph;
+import io.github.mucsi96.learnlanguage.model.SourceType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Integer> {
-    @EntityGraph(attributePaths = {"source"})
-    @Query("SELECT d FROM Document d")
-    List<Document> findAllWithSource();
-
     List<Document> findBySourceOrderByPageNumberAsc(Source source);
 
     Optional<Document> findBySourceAndPageNumber(Source source, Integer pageNumber);
@@ -26,5 +29,22 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
 
     Optional<Document> findFirstBySourceOrderByPageNumberDesc(Source source);
 
+    @Query("""
+        SELECT d.source.id AS sourceId, MAX(d.pageNumber) AS pageCount
+        FROM Document d
+        WHERE d.source.sourceType = :sourceType
+        GROUP BY d.source.id
+        """)
+    List<SourcePageCountProjection> findPageCountsBySourceType(@Param("sourceType") SourceType sourceType);
+
     void deleteBySource(Source source);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+        SELECT CASE WHEN page_number IS NULL
+                    THEN 'sources/' || file_name
+                    ELSE 'sources/' || source_id || '/' || file_name END
+        FROM learn_language.documents
+        """, nativeQuery = true)
+    Stream<String> streamStoragePaths();
 }
@@ -0,0 +1,10 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.MediaGcProgress;
+
+@Repository
+public interface MediaGcProgressRepository extends JpaRepository<MediaGcProgress, String> {
+}
@@ -6,6 +6,8 @@ import java.util.UUID;
 public interface PendingPhotoMetaProjection {
   UUID getId();
 
+  String getFilePath();
+
   Instant getCreatedAt();
 
   Instant getExpiresAt();
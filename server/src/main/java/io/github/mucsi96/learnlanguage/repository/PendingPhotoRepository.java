@@ -1,6 +1,7 @@
 package io.github.mucsi96.learnlanguage.repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,12 +16,18 @@ import io.github.mucsi96.learnlanguage.entity.Source;
 public interface PendingPhotoRepository extends JpaRepository<PendingPhoto, UUID> {
   Optional<PendingPhoto> findByUserIdAndSource(String userId, Source source);
 
-  @Query("select p.id as id, p.createdAt as createdAt, p.expiresAt as expiresAt "
+  @Query("select p.id as id, p.filePath as filePath, p.createdAt as createdAt, p.expiresAt as expiresAt "
       + "from PendingPhoto p where p.userId = :userId and p.source = :source")
   Optional<PendingPhotoMetaProjection> findMetaByUserIdAndSource(
       @Param("userId") String userId,
       @Param("source") Source source);
 
+  @Query("select p.filePath from PendingPhoto p where p.expiresAt < :cutoff")
+  List<String> findFilePathsByExpiresAtBefore(@Param("cutoff") Instant cutoff);
+
+  @Query("select p.filePath from PendingPhoto p")
+  List<String> findAllFilePaths();
+
   @Modifying
   @Query("delete from PendingPhoto p where p.userId = :userId and p.source = :source")
   void deleteByUserIdAndSource(@Param("userId") String userId, @Param("source") Source source);
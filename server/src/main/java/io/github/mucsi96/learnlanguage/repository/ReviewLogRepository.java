@@ -8,55 +8,35 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface ReviewLogRepository
-        extends JpaRepository<ReviewLog, Integer>, JpaSpecificationExecutor<ReviewLog> {
+        extends JpaRepository<ReviewLog, Integer>, JpaSpecificationExecutor<ReviewLog>, ReviewLogRepositoryCustom {
     List<ReviewLog> findByCardId(String cardId);
 
-    @Modifying
-    void deleteByCardIdIn(List<String> cardIds);
+    @Query("SELECT rl.clientReviewId FROM ReviewLog rl WHERE rl.clientReviewId IN :clientReviewIds")
+    List<UUID> findExistingClientReviewIds(@Param("clientReviewIds") Collection<UUID> clientReviewIds);
 
-    @Query(value = """
-        SELECT card_id,
-               (4.0 - rating) * GREATEST(EXTRACT(EPOCH FROM NOW() - review) / 86400, 1) as complexity
-        FROM (
-            SELECT DISTINCT ON (rl.card_id) rl.card_id, rl.rating, rl.review
-            FROM learn_language.review_logs rl
-            INNER JOIN (
-                SELECT card_id, MAX(review::date) as last_review_date
-                FROM learn_language.review_logs
-                WHERE card_id IN :cardIds AND learning_partner_id IS NULL
-                GROUP BY card_id
-            ) latest ON rl.card_id = latest.card_id AND rl.review::date = latest.last_review_date
-            WHERE rl.learning_partner_id IS NULL
-            ORDER BY rl.card_id, rl.review ASC
-        ) first_review_on_last_day
-        """, nativeQuery = true)
-    List<Object[]> findCardComplexitiesWithoutPartner(@Param("cardIds") List<String> cardIds);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ReviewLog rl WHERE rl.card.id IN :cardIds")
+    int deleteByCardIdIn(@Param("cardIds") List<String> cardIds);
 
     @Query(value = """
         SELECT card_id,
+               learning_partner_id IS NOT NULL as with_partner,
                (4.0 - rating) * GREATEST(EXTRACT(EPOCH FROM NOW() - review) / 86400, 1) as complexity
-        FROM (
-            SELECT DISTINCT ON (rl.card_id) rl.card_id, rl.rating, rl.review
-            FROM learn_language.review_logs rl
-            INNER JOIN (
-                SELECT card_id, MAX(review::date) as last_review_date
-                FROM learn_language.review_logs
-                WHERE card_id IN :cardIds AND learning_partner_id = :learningPartnerId
-                GROUP BY card_id
-            ) latest ON rl.card_id = latest.card_id AND rl.review::date = latest.last_review_date
-            WHERE rl.learning_partner_id = :learningPartnerId
-            ORDER BY rl.card_id, rl.review ASC
-        ) first_review_on_last_day
+        FROM learn_language.card_partner_complexity
+        WHERE card_id IN :cardIds
+          AND (learning_partner_id IS NULL OR learning_partner_id = :learningPartnerId)
         """, nativeQuery = true)
-    List<Object[]> findCardComplexitiesWithPartner(
+    List<Object[]> findCardComplexities(
         @Param("cardIds") List<String> cardIds,
         @Param("learningPartnerId") Integer learningPartnerId);
 
-    List<ReviewLog> findByCardIdInAndReviewGreaterThanEqualOrderByIdAsc(
-            List<String> cardIds, LocalDateTime since);
+    @Modifying
+    @Query(value = "DELETE FROM learn_language.card_partner_complexity WHERE card_id IN :cardIds", nativeQuery = true)
+    void deleteCardComplexitiesByCardIdIn(@Param("cardIds") List<String> cardIds);
 }
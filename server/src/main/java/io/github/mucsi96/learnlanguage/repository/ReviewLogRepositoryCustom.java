@@ -0,0 +1,13 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import io.github.mucsi96.learnlanguage.entity.CardView;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import java.util.List;
+
+public interface ReviewLogRepositoryCustom {
+    void insertAll(List<ReviewLog> reviewLogs);
+
+    int deleteByCardFilter(PredicateSpecification<CardView> spec);
+}
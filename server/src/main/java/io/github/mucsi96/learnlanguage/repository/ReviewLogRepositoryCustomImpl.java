@@ -0,0 +1,71 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import io.github.mucsi96.learnlanguage.entity.CardView;
+import io.github.mucsi96.learnlanguage.entity.Card_;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import static io.github.mucsi96.learnlanguage.repository.CardViewRepositoryCustomImpl.matchingCardIds;
+
+@RequiredArgsConstructor
+public class ReviewLogRepositoryCustomImpl implements ReviewLogRepositoryCustom {
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO learn_language.review_logs (
+            card_id, learning_partner_id, rating, state, due, stability, difficulty,
+            elapsed_days, last_elapsed_days, scheduled_days, learning_steps, review,
+            review_duration, client_review_id
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (client_review_id) DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<ReviewLog> reviewLogs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, reviewLogs, BATCH_SIZE, (ps, reviewLog) -> {
+            ps.setString(1, reviewLog.getCard().getId());
+            ps.setObject(2, reviewLog.getLearningPartner() != null ? reviewLog.getLearningPartner().getId() : null,
+                    Types.INTEGER);
+            ps.setInt(3, reviewLog.getRating());
+            ps.setString(4, reviewLog.getState());
+            ps.setTimestamp(5, Timestamp.valueOf(reviewLog.getDue()));
+            ps.setDouble(6, reviewLog.getStability());
+            ps.setDouble(7, reviewLog.getDifficulty());
+            ps.setDouble(8, reviewLog.getElapsedDays());
+            ps.setObject(9, reviewLog.getLastElapsedDays(), Types.DOUBLE);
+            ps.setDouble(10, reviewLog.getScheduledDays());
+            ps.setObject(11, reviewLog.getLearningSteps(), Types.INTEGER);
+            ps.setTimestamp(12, Timestamp.valueOf(reviewLog.getReview()));
+            ps.setObject(13, reviewLog.getReviewDuration(), Types.BIGINT);
+            ps.setObject(14, reviewLog.getClientReviewId(), Types.OTHER);
+        });
+    }
+
+    @Override
+    public int deleteByCardFilter(PredicateSpecification<CardView> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaDelete<ReviewLog> delete = cb.createCriteriaDelete(ReviewLog.class);
+        final Root<ReviewLog> root = delete.from(ReviewLog.class);
+
+        delete.where(root.get(ReviewLog_.card).get(Card_.id).in(matchingCardIds(delete, cb, spec)));
+
+        entityManager.flush();
+        final int deleted = entityManager.createQuery(delete).executeUpdate();
+        entityManager.clear();
+        return deleted;
+    }
+}
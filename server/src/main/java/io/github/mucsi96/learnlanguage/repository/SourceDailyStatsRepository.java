@@ -0,0 +1,104 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.SourceDailyStats;
+
+@Repository
+public interface SourceDailyStatsRepository extends JpaRepository<SourceDailyStats, Integer> {
+
+    @Query("""
+        SELECT s FROM SourceDailyStats s
+        WHERE s.source.id = :sourceId AND s.statsDate BETWEEN :from AND :to
+        ORDER BY s.statsDate ASC
+        """)
+    List<SourceDailyStats> findSeries(
+            @Param("sourceId") String sourceId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Query("""
+        SELECT s FROM SourceDailyStats s
+        WHERE s.statsDate BETWEEN :from AND :to
+        ORDER BY s.source.id ASC, s.statsDate ASC
+        """)
+    List<SourceDailyStats> findAllSeries(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+        WITH card_groups AS MATERIALIZED (
+            SELECT source_id, state, readiness, COUNT(*) AS count
+            FROM learn_language.cards
+            WHERE CAST(:current AS boolean)
+            GROUP BY source_id, state, readiness
+        ),
+        card_counts AS (
+            SELECT source_id, SUM(count) AS card_count
+            FROM card_groups
+            GROUP BY source_id
+        ),
+        state_counts AS (
+            SELECT source_id, jsonb_object_agg(state, count) AS counts
+            FROM (
+                SELECT source_id, state, SUM(count) AS count
+                FROM card_groups
+                GROUP BY source_id, state
+            ) grouped
+            GROUP BY source_id
+        ),
+        readiness_counts AS (
+            SELECT source_id, jsonb_object_agg(readiness, count) AS counts
+            FROM (
+                SELECT source_id, readiness, SUM(count) AS count
+                FROM card_groups
+                GROUP BY source_id, readiness
+            ) grouped
+            GROUP BY source_id
+        ),
+        review_stats AS (
+            SELECT c.source_id,
+                   COUNT(*) AS review_count,
+                   AVG(CASE WHEN rl.rating > 1 THEN 1.0 ELSE 0.0 END) AS retention_rate,
+                   ROUND(AVG(rl.review_duration))::bigint AS average_review_duration_ms
+            FROM learn_language.review_logs rl
+            JOIN learn_language.cards c ON c.id = rl.card_id
+            WHERE rl.review >= :from AND rl.review < :to
+            GROUP BY c.source_id
+        )
+        INSERT INTO learn_language.source_daily_stats
+            (source_id, stats_date, card_count, state_counts, readiness_counts,
+             review_count, retention_rate, average_review_duration_ms)
+        SELECT s.id, CAST(:statsDate AS date),
+               CASE WHEN CAST(:current AS boolean) THEN COALESCE(cc.card_count, 0) END,
+               CASE WHEN CAST(:current AS boolean) THEN COALESCE(sc.counts, '{}'::jsonb) END,
+               CASE WHEN CAST(:current AS boolean) THEN COALESCE(rc.counts, '{}'::jsonb) END,
+               COALESCE(rs.review_count, 0),
+               rs.retention_rate,
+               rs.average_review_duration_ms
+        FROM learn_language.sources s
+        LEFT JOIN card_counts cc ON cc.source_id = s.id
+        LEFT JOIN state_counts sc ON sc.source_id = s.id
+        LEFT JOIN readiness_counts rc ON rc.source_id = s.id
+        LEFT JOIN review_stats rs ON rs.source_id = s.id
+        ON CONFLICT (source_id, stats_date) DO UPDATE SET
+            card_count = COALESCE(EXCLUDED.card_count, source_daily_stats.card_count),
+            state_counts = COALESCE(EXCLUDED.state_counts, source_daily_stats.state_counts),
+            readiness_counts = COALESCE(EXCLUDED.readiness_counts, source_daily_stats.readiness_counts),
+            review_count = EXCLUDED.review_count,
+            retention_rate = EXCLUDED.retention_rate,
+            average_review_duration_ms = EXCLUDED.average_review_duration_ms
+        """, nativeQuery = true)
+    int upsertSnapshot(
+            @Param("statsDate") LocalDate statsDate,
+            @Param("current") boolean current,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,6 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+public interface SourcePageCountProjection {
+    String getSourceId();
+    Integer getPageCount();
+}
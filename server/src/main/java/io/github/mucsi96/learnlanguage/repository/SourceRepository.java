@@ -25,4 +25,7 @@ public interface SourceRepository extends JpaRepository<Source, String> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Source s LEFT JOIN FETCH s.learningPartner WHERE s.id = :id")
     Optional<Source> findByIdWithLock(@Param("id") String id);
+
+    @Query(value = "SELECT COALESCE(MAX(version), 0) FROM learn_language.sources_overview_version", nativeQuery = true)
+    long getOverviewVersion();
 }
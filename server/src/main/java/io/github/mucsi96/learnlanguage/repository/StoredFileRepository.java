@@ -0,0 +1,48 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.mucsi96.learnlanguage.entity.StoredFile;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    @Query("select f.path from StoredFile f where f.path like concat(:prefix, '%') order by f.path")
+    List<String> findPathsByPrefix(@Param("prefix") String prefix);
+
+    @Query("""
+        select f from StoredFile f
+        where f.path like concat(:prefix, '%') and f.path > :after and f.createdAt < :createdBefore
+        order by f.path
+        """)
+    List<StoredFile> findChunk(
+            @Param("prefix") String prefix,
+            @Param("after") String after,
+            @Param("createdBefore") Instant createdBefore,
+            Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update StoredFile f set f.createdAt = :createdAt where f.path = :path")
+    int updateCreatedAt(@Param("path") String path, @Param("createdAt") Instant createdAt);
+
+    List<StoredFile> findByChecksumAndPathStartingWith(String checksum, String prefix);
+
+    @Query("""
+        select distinct f.checksum from StoredFile f
+        where f.checksum in :checksums and f.path not like concat(:excludedPrefix, '%')
+        """)
+    List<String> findChecksumsOutside(
+            @Param("checksums") Collection<String> checksums,
+            @Param("excludedPrefix") String excludedPrefix);
+}
@@ -0,0 +1,10 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+public interface StudySessionCardQueueProjection {
+    Integer getId();
+    String getCardId();
+    Integer getPosition();
+    Integer getLearningPartnerId();
+    String getLearningPartnerName();
+    Boolean getSwapApplies();
+}
@@ -1,10 +1,50 @@
 package io.github.mucsi96.learnlanguage.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.github.mucsi96.learnlanguage.entity.StudySessionCard;
 
 @Repository
 public interface StudySessionCardRepository extends JpaRepository<StudySessionCard, Integer> {
+
+    @Query("""
+        SELECT sc.id AS id, sc.card.id AS cardId, sc.position AS position,
+               lp.id AS learningPartnerId, lp.name AS learningPartnerName, sc.swapApplies AS swapApplies
+        FROM StudySessionCard sc
+        LEFT JOIN sc.learningPartner lp
+        WHERE sc.session.id = :sessionId
+        """)
+    List<StudySessionCardQueueProjection> findQueueEntriesBySessionId(@Param("sessionId") String sessionId);
+
+    @Query("""
+        SELECT COUNT(sc) FROM StudySessionCard sc
+        WHERE sc.session.id = :sessionId AND sc.card.state = 'NEW'
+        """)
+    long countNewCardsBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("DELETE FROM StudySessionCard sc WHERE sc.card.id IN :cardIds")
+    int deleteByCardIdIn(@Param("cardIds") Collection<String> cardIds);
+
+    @Modifying
+    @Query(value = """
+        UPDATE learn_language.study_session_cards
+        SET position = :position,
+            learning_partner_id = :learningPartnerId,
+            swap_applies = :swapApplies,
+            version = version + 1
+        WHERE id = :id
+        """, nativeQuery = true)
+    void updateQueueEntry(
+            @Param("id") Integer id,
+            @Param("position") Integer position,
+            @Param("learningPartnerId") Integer learningPartnerId,
+            @Param("swapApplies") boolean swapApplies);
 }
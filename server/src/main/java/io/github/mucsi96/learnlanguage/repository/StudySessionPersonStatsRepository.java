@@ -0,0 +1,36 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.StudySessionPersonStats;
+
+@Repository
+public interface StudySessionPersonStatsRepository extends JpaRepository<StudySessionPersonStats, Integer> {
+
+    @EntityGraph(attributePaths = { "learningPartner" })
+    List<StudySessionPersonStats> findBySession_IdOrderByIdAsc(String sessionId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO learn_language.study_session_person_stats
+            (session_id, learning_partner_id, total_duration_ms, review_count, bad_count)
+        VALUES (:sessionId, CAST(:learningPartnerId AS integer), :totalDurationMs, :reviewCount, :badCount)
+        ON CONFLICT (session_id, learning_partner_id) DO UPDATE SET
+            total_duration_ms = study_session_person_stats.total_duration_ms + EXCLUDED.total_duration_ms,
+            review_count = study_session_person_stats.review_count + EXCLUDED.review_count,
+            bad_count = study_session_person_stats.bad_count + EXCLUDED.bad_count
+        """, nativeQuery = true)
+    void addTotals(
+            @Param("sessionId") String sessionId,
+            @Param("learningPartnerId") Integer learningPartnerId,
+            @Param("totalDurationMs") long totalDurationMs,
+            @Param("reviewCount") int reviewCount,
+            @Param("badCount") int badCount);
+}
@@ -1,11 +1,13 @@
 package io.github.mucsi96.learnlanguage.repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.github.mucsi96.learnlanguage.entity.StudySession;
@@ -15,6 +17,13 @@ public interface StudySessionRepository
         extends JpaRepository<StudySession, String>, JpaSpecificationExecutor<StudySession> {
     Optional<StudySession> findBySource_IdAndCreatedAtGreaterThanEqual(String sourceId, LocalDateTime since);
 
-    @EntityGraph(attributePaths = {"cards", "cards.learningPartner", "cards.card", "cards.card.source"})
-    Optional<StudySession> findWithCardsById(String id);
+    @Query("SELECT s.id FROM StudySession s WHERE s.source.id = :sourceId AND s.createdAt >= :since")
+    Optional<String> findIdBySourceIdAndCreatedAtGreaterThanEqual(
+            @Param("sourceId") String sourceId,
+            @Param("since") LocalDateTime since);
+
+    @Query("SELECT s.id FROM StudySession s WHERE s.source.id = :sourceId AND s.createdAt < :cutoff")
+    List<String> findIdsBySourceIdAndCreatedAtBefore(
+            @Param("sourceId") String sourceId,
+            @Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,63 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.mucsi96.learnlanguage.entity.StudySessionReviewStats;
+
+@Repository
+public interface StudySessionReviewStatsRepository extends JpaRepository<StudySessionReviewStats, Integer> {
+
+    /**
+     * Inserts the first review of each (card, reviewer) or adds to its review
+     * count. Rows come back flagged whether this call inserted them.
+     */
+    @Query(value = """
+        INSERT INTO learn_language.study_session_review_stats
+            (session_id, card_id, learning_partner_id, first_review_duration, struggled, review_count)
+        SELECT :sessionId, r.card_id, r.learning_partner_id, r.first_review_duration, r.struggled, r.review_count
+        FROM unnest(CAST(:cardIds AS varchar[]), CAST(:learningPartnerIds AS integer[]),
+                    CAST(:firstReviewDurations AS bigint[]), CAST(:struggled AS boolean[]),
+                    CAST(:reviewCounts AS integer[]))
+            AS r(card_id, learning_partner_id, first_review_duration, struggled, review_count)
+        ON CONFLICT (session_id, card_id, learning_partner_id) DO UPDATE
+            SET review_count = study_session_review_stats.review_count + EXCLUDED.review_count
+        RETURNING learning_partner_id AS learningPartnerId, (xmax = 0) AS inserted,
+                  first_review_duration AS firstReviewDuration, struggled AS struggled
+        """, nativeQuery = true)
+    List<StudySessionReviewStatsUpsertProjection> upsertReviews(
+            @Param("sessionId") String sessionId,
+            @Param("cardIds") String[] cardIds,
+            @Param("learningPartnerIds") Integer[] learningPartnerIds,
+            @Param("firstReviewDurations") Long[] firstReviewDurations,
+            @Param("struggled") Boolean[] struggled,
+            @Param("reviewCounts") Integer[] reviewCounts);
+
+    /**
+     * Flags the given (card, reviewer) rows as struggled and returns the
+     * reviewer of each row that was not struggled before.
+     */
+    @Query(value = """
+        UPDATE learn_language.study_session_review_stats s
+        SET struggled = true
+        FROM unnest(CAST(:cardIds AS varchar[]), CAST(:learningPartnerIds AS integer[]))
+            AS r(card_id, learning_partner_id)
+        WHERE s.session_id = :sessionId
+          AND s.card_id = r.card_id
+          AND s.learning_partner_id IS NOT DISTINCT FROM r.learning_partner_id
+          AND NOT s.struggled
+        RETURNING s.learning_partner_id
+        """, nativeQuery = true)
+    List<Integer> markStruggled(
+            @Param("sessionId") String sessionId,
+            @Param("cardIds") String[] cardIds,
+            @Param("learningPartnerIds") Integer[] learningPartnerIds);
+
+    @EntityGraph(attributePaths = { "card", "learningPartner" })
+    List<StudySessionReviewStats> findBySession_IdAndStruggledTrueOrderByIdAsc(String sessionId);
+}
@@ -0,0 +1,8 @@
+package io.github.mucsi96.learnlanguage.repository;
+
+public interface StudySessionReviewStatsUpsertProjection {
+    Integer getLearningPartnerId();
+    Boolean getInserted();
+    Long getFirstReviewDuration();
+    Boolean getStruggled();
+}
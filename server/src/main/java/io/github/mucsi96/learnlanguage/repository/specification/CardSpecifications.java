@@ -7,6 +7,7 @@ import io.github.mucsi96.learnlanguage.model.CardReadiness;
 import org.springframework.data.jpa.domain.PredicateSpecification;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 public class CardSpecifications {
 
@@ -25,6 +26,10 @@ public class CardSpecifications {
         return (root, cb) -> cb.equal(root.get(Card_.source).get(Source_.id), sourceId);
     }
 
+    public static PredicateSpecification<Card> hasIdIn(Collection<String> ids) {
+        return (root, cb) -> root.get(Card_.id).in(ids);
+    }
+
     public static PredicateSpecification<Card> isDueForSource(String sourceId, LocalDateTime cutoff) {
         return hasReadiness(CardReadiness.READY)
                 .and(isDueBefore(cutoff))
@@ -8,6 +8,9 @@ import org.springframework.data.jpa.domain.PredicateSpecification;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static io.github.mucsi96.learnlanguage.util.LikeUtils.ESCAPE_CHAR;
+import static io.github.mucsi96.learnlanguage.util.LikeUtils.escapeLike;
+
 public class CardViewSpecifications {
 
     private CardViewSpecifications() {
@@ -50,8 +53,8 @@ public class CardViewSpecifications {
 
     public static PredicateSpecification<CardView> hasCardFilter(String search) {
         return (root, cb) -> {
-            final String pattern = "%" + search.toLowerCase() + "%";
-            return cb.like(cb.lower(root.get("id")), pattern);
+            final String pattern = "%" + escapeLike(search.toLowerCase()) + "%";
+            return cb.like(root.get(CardView_.searchText), pattern, ESCAPE_CHAR);
         };
     }
 
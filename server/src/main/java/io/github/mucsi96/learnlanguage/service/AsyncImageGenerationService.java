@@ -21,6 +21,7 @@ public class AsyncImageGenerationService {
   private final FfmpegService ffmpegService;
   private final FileStorageService fileStorageService;
   private final ImageGenerationJobService imageGenerationJobService;
+  private final ImageDerivativeService imageDerivativeService;
 
   @Async("imageGenerationExecutor")
   public void generate(UUID id, String input, String context, ImageGenerationModel model) {
@@ -30,10 +31,21 @@ public class AsyncImageGenerationService {
       ffmpegService.resizeImage(
           generatedImage.getData(), MAX_IMAGE_DIMENSION, MAX_IMAGE_DIMENSION,
           fileStorageService.resolveFilePath(filePath));
+      fileStorageService.registerFile(filePath);
       imageGenerationJobService.markCompleted(id);
+      createDerivatives(filePath);
     } catch (Exception e) {
       log.error("Image generation job {} failed", id, e);
       imageGenerationJobService.markFailed(id, "Image generation failed");
     }
   }
+
+  private void createDerivatives(String filePath) {
+    try {
+      imageDerivativeService.createAll(filePath);
+    } catch (Exception e) {
+      // Missing derivatives are created on first request
+      log.warn("Failed to create derivatives of {}", filePath, e);
+    }
+  }
 }
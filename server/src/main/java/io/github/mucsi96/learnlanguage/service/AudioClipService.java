@@ -0,0 +1,202 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.mucsi96.learnlanguage.model.AudioSourceRequest;
+import io.github.mucsi96.learnlanguage.repository.AudioClipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AudioClipService {
+
+  private final AudioService audioService;
+  private final FfmpegService ffmpegService;
+  private final FileStorageService fileStorageService;
+  private final AudioClipRepository audioClipRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<String, CompletableFuture<Void>> generations = new ConcurrentHashMap<>();
+
+  public static String filePath(String id) {
+    return "audio/%s.mp3".formatted(id);
+  }
+
+  public String clipId(AudioSourceRequest request) {
+    final String key = String.join("\u0000",
+        request.getInput(),
+        request.getVoice(),
+        request.getModel(),
+        Optional.ofNullable(request.getLanguage()).orElse(""),
+        String.valueOf(Boolean.TRUE.equals(request.getSingleWord())));
+
+    try {
+      return HexFormat.of().formatHex(
+          MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  @Transactional
+  public Optional<String> acquireCached(AudioSourceRequest request) {
+    final String id = clipId(request);
+
+    if (!fileStorageService.exists(filePath(id)) || audioClipRepository.incrementReference(id) == 0) {
+      return Optional.empty();
+    }
+
+    fileStorageService.touch(filePath(id));
+    log.debug("Reusing cached audio clip {}", id);
+    return Optional.of(id);
+  }
+
+  /**
+   * Returns the id of an already stored clip without taking a reference, so
+   * voice previews leave the clip to the garbage collector.
+   */
+  public Optional<String> findCached(AudioSourceRequest request) {
+    final String id = clipId(request);
+
+    if (!fileStorageService.exists(filePath(id)) || !audioClipRepository.existsById(id)) {
+      return Optional.empty();
+    }
+
+    fileStorageService.touch(filePath(id));
+    return Optional.of(id);
+  }
+
+  public String generate(AudioSourceRequest request) throws IOException {
+    final String id = clipId(request);
+
+    generateOnce(id, request);
+
+    transactionTemplate.executeWithoutResult(status -> {
+      if (Boolean.TRUE.equals(request.getPreview())) {
+        audioClipRepository.insertUnreferenced(id, request.getInput(), request.getVoice(), request.getModel(),
+            request.getLanguage(), Boolean.TRUE.equals(request.getSingleWord()));
+      } else {
+        audioClipRepository.insertOrIncrementReference(id, request.getInput(), request.getVoice(), request.getModel(),
+            request.getLanguage(), Boolean.TRUE.equals(request.getSingleWord()));
+      }
+    });
+
+    return id;
+  }
+
+  /**
+   * Synthesizes the clip unless a concurrent request for the same clip id is
+   * already doing so, in which case it waits for that file instead of paying
+   * for the speech a second time.
+   */
+  private void generateOnce(String id, AudioSourceRequest request) throws IOException {
+    final CompletableFuture<Void> generation = new CompletableFuture<>();
+    final CompletableFuture<Void> running = generations.putIfAbsent(id, generation);
+
+    if (running != null) {
+      try {
+        running.join();
+        return;
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof IOException cause) {
+          throw cause;
+        }
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+
+    try {
+      store(id, request);
+      generation.complete(null);
+    } catch (IOException | RuntimeException e) {
+      generation.completeExceptionally(e);
+      throw e;
+    } finally {
+      generations.remove(id, generation);
+    }
+  }
+
+  private void store(String id, AudioSourceRequest request) throws IOException {
+    final Path target = fileStorageService.resolveFilePath(filePath(id));
+
+    final byte[] data = audioService.generateAudio(request.getInput(), request.getVoice(), request.getModel(),
+        request.getLanguage(), request.getContext(), Boolean.TRUE.equals(request.getSingleWord()));
+
+    Files.createDirectories(target.getParent());
+    final Path staging = Files.createTempFile(target.getParent(), "audio-", ".tmp");
+    try {
+      ffmpegService.trimSilence(data, staging);
+      Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(staging);
+    }
+
+    fileStorageService.registerFile(filePath(id));
+  }
+
+  @Transactional
+  public void releaseAll(Collection<String> ids) {
+    ids.forEach(this::release);
+  }
+
+  @Transactional
+  public void release(String id) {
+    if (audioClipRepository.decrementSharedReference(id) > 0) {
+      return;
+    }
+
+    audioClipRepository.deleteById(id);
+    deleteFileAfterCommit(id);
+  }
+
+  /**
+   * Deletes the mp3 once the clip row is gone for good, so a rolled back
+   * release never leaves a clip without its file.
+   */
+  private void deleteFileAfterCommit(String id) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      fileStorageService.deleteFile(filePath(id));
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        deleteFileInNewTransaction(id);
+      }
+    });
+  }
+
+  // Runs after the release committed, so it needs its own transaction; a clip
+  // generated again in the meantime has a row again and keeps its file
+  private void deleteFileInNewTransaction(String id) {
+    final TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    requiresNew.executeWithoutResult(status -> {
+      if (!audioClipRepository.existsById(id)) {
+        fileStorageService.deleteFile(filePath(id));
+      }
+    });
+  }
+}
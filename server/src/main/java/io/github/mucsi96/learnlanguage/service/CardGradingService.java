@@ -0,0 +1,201 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.mucsi96.learnlanguage.entity.Card;
+import io.github.mucsi96.learnlanguage.entity.LearningPartner;
+import io.github.mucsi96.learnlanguage.entity.ReviewLog;
+import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
+import io.github.mucsi96.learnlanguage.model.CardGradeRequest;
+import io.github.mucsi96.learnlanguage.model.CardReviewBatchResponse;
+import io.github.mucsi96.learnlanguage.model.CardReviewRequest;
+import io.github.mucsi96.learnlanguage.repository.CardRepository;
+import io.github.mucsi96.learnlanguage.repository.LearningPartnerRepository;
+import io.github.mucsi96.learnlanguage.repository.ReviewLogRepository;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CardGradingService {
+
+    private final FsrsScheduler fsrsScheduler;
+    private final CardRepository cardRepository;
+    private final ReviewLogRepository reviewLogRepository;
+    private final LearningPartnerService learningPartnerService;
+    private final LearningPartnerRepository learningPartnerRepository;
+    private final StudySessionService studySessionService;
+    private final CardStatsService cardStatsService;
+
+    @Transactional
+    public Card grade(CardGradeRequest request, LocalDateTime startOfDay) {
+        final Card card = cardRepository.findById(request.getCardId())
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + request.getCardId()));
+
+        final LearningPartner partner = request.getLearningPartnerId() != null
+                ? learningPartnerService.getLearningPartnerById(request.getLearningPartnerId())
+                : null;
+
+        final ReviewLog reviewLog = applyGrade(card, request.getRating(), request.getReviewDuration(), partner,
+                LocalDateTime.now(ZoneOffset.UTC));
+
+        cardRepository.save(card);
+        reviewLogRepository.save(reviewLog);
+        cardStatsService.markDirty(List.of(card.getId()));
+        studySessionService.recordReview(card.getSource().getId(), startOfDay, reviewLog);
+
+        return card;
+    }
+
+    @Transactional
+    public CardReviewBatchResponse submitReviews(List<CardReviewRequest> reviews, LocalDateTime startOfDay) {
+        if (reviews.stream().anyMatch(review -> review.getReviewId() == null)) {
+            throw new IllegalArgumentException("reviewId is required for every review");
+        }
+
+        // Locking the cards first serializes concurrent retries of the same
+        // batch, so the second one sees the first one's review logs below
+        final Map<String, Card> cards = cardRepository.findByIdInWithLock(reviews.stream()
+                .map(CardReviewRequest::getCardId)
+                .distinct()
+                .toList())
+                .stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+
+        final Set<UUID> seenReviewIds = new HashSet<>(reviewLogRepository.findExistingClientReviewIds(
+                reviews.stream().map(CardReviewRequest::getReviewId).toList()));
+        final List<CardReviewRequest> pendingReviews = reviews.stream()
+                .filter(review -> seenReviewIds.add(review.getReviewId()))
+                .toList();
+
+        if (pendingReviews.isEmpty()) {
+            return CardReviewBatchResponse.builder()
+                    .appliedCount(0)
+                    .duplicateCount(reviews.size())
+                    .build();
+        }
+
+        final Map<Integer, LearningPartner> partners = learningPartnerRepository.findAllById(pendingReviews.stream()
+                .map(CardReviewRequest::getLearningPartnerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList())
+                .stream()
+                .collect(Collectors.toMap(LearningPartner::getId, Function.identity()));
+
+        final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        final List<ReviewLog> reviewLogs = new ArrayList<>(pendingReviews.size());
+        final Map<String, List<StudySessionService.CardMove>> movesBySource = new LinkedHashMap<>();
+
+        for (final CardReviewRequest review : pendingReviews) {
+            final Card card = cards.get(review.getCardId());
+            if (card == null) {
+                throw new ResourceNotFoundException("Card not found with id: " + review.getCardId());
+            }
+
+            final ReviewLog reviewLog = applyGrade(card, review.getRating(), review.getReviewDuration(),
+                    review.getLearningPartnerId() != null ? partners.get(review.getLearningPartnerId()) : null,
+                    resolveReviewTime(review.getReviewedAt(), card.getLastReview(), now));
+            reviewLog.setClientReviewId(review.getReviewId());
+            reviewLogs.add(reviewLog);
+
+            movesBySource.computeIfAbsent(card.getSource().getId(), sourceId -> new ArrayList<>())
+                    .add(StudySessionService.CardMove.from(reviewLog));
+        }
+
+        reviewLogRepository.insertAll(reviewLogs);
+        cardStatsService.markDirty(pendingReviews.stream().map(CardReviewRequest::getCardId).distinct().toList());
+        movesBySource.forEach((sourceId, moves) -> studySessionService.moveCardsToBack(sourceId, startOfDay, moves));
+
+        return CardReviewBatchResponse.builder()
+                .appliedCount(pendingReviews.size())
+                .duplicateCount(reviews.size() - pendingReviews.size())
+                .build();
+    }
+
+    private LocalDateTime resolveReviewTime(LocalDateTime reviewedAt, LocalDateTime lastReview, LocalDateTime now) {
+        if (reviewedAt == null || reviewedAt.isAfter(now)) {
+            return now;
+        }
+        if (lastReview != null && reviewedAt.isBefore(lastReview)) {
+            return lastReview;
+        }
+        return reviewedAt;
+    }
+
+    ReviewLog applyGrade(Card card, Integer rating, Long reviewDuration, LearningPartner partner,
+            LocalDateTime reviewedAt) {
+        if (rating == null) {
+            throw new IllegalArgumentException("rating is required for grading");
+        }
+
+        final FsrsScheduler.CardState state = toCardState(card);
+        fsrsScheduler.repeat(state, rating, toEpochMilli(reviewedAt));
+
+        card.setState(FsrsScheduler.stateName(state.getState()));
+        card.setStability((float) state.getStability());
+        card.setDifficulty((float) state.getDifficulty());
+        card.setElapsedDays((float) state.getElapsedDays());
+        card.setScheduledDays((float) state.getScheduledDays());
+        card.setLearningSteps(state.getLearningSteps());
+        card.setReps(state.getReps());
+        card.setLapses(state.getLapses());
+        card.setLastReview(reviewedAt);
+        card.setDue(toLocalDateTime(state.getDue()));
+
+        return ReviewLog.builder()
+                .card(card)
+                .learningPartner(partner)
+                .rating(rating)
+                .state(card.getState())
+                .due(card.getDue())
+                .stability(state.getStability())
+                .difficulty(state.getDifficulty())
+                .elapsedDays((double) state.getElapsedDays())
+                .lastElapsedDays((double) state.getLastElapsedDays())
+                .scheduledDays((double) state.getScheduledDays())
+                .learningSteps(state.getLearningSteps())
+                .review(reviewedAt)
+                .reviewDuration(reviewDuration)
+                .build();
+    }
+
+    private FsrsScheduler.CardState toCardState(Card card) {
+        final FsrsScheduler.CardState state = new FsrsScheduler.CardState();
+        state.setState(FsrsScheduler.stateOf(card.getState()));
+        state.setStability(card.getStability());
+        state.setDifficulty(card.getDifficulty());
+        state.setElapsedDays(Math.round(card.getElapsedDays()));
+        state.setScheduledDays(Math.round(card.getScheduledDays()));
+        state.setLearningSteps(card.getLearningSteps());
+        state.setReps(card.getReps());
+        state.setLapses(card.getLapses());
+        state.setLastReview(card.getLastReview() != null
+                ? toEpochMilli(card.getLastReview())
+                : FsrsScheduler.NO_REVIEW);
+        state.setDue(toEpochMilli(card.getDue()));
+        return state;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+}
@@ -1,26 +1,24 @@
 package io.github.mucsi96.learnlanguage.service;
 
-import static io.github.mucsi96.learnlanguage.repository.specification.StudySessionSpecifications.createdOnOrAfter;
-
 import io.github.mucsi96.learnlanguage.entity.Card;
 import io.github.mucsi96.learnlanguage.entity.CardView;
-import io.github.mucsi96.learnlanguage.entity.StudySession;
-import io.github.mucsi96.learnlanguage.entity.StudySessionCard;
 import io.github.mucsi96.learnlanguage.model.CardTableResponse;
 import io.github.mucsi96.learnlanguage.model.CardTableRow;
-import io.github.mucsi96.learnlanguage.model.AudioData;
+import io.github.mucsi96.learnlanguage.model.CardFilterParams;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
 import io.github.mucsi96.learnlanguage.model.CardReadiness;
+import io.github.mucsi96.learnlanguage.model.CardSearchResult;
 import io.github.mucsi96.learnlanguage.model.SourceDueCardCountResponse;
+import io.github.mucsi96.learnlanguage.repository.CardMediaRepository;
 import io.github.mucsi96.learnlanguage.repository.CardRepository;
 import io.github.mucsi96.learnlanguage.repository.CardViewRepository;
 import io.github.mucsi96.learnlanguage.repository.ReviewLogRepository;
+import io.github.mucsi96.learnlanguage.repository.CardTableRowProjection;
+import io.github.mucsi96.learnlanguage.repository.CardTableSlice;
+import io.github.mucsi96.learnlanguage.repository.CardTableSortField;
 import io.github.mucsi96.learnlanguage.repository.SourceCardStatsProjection;
-import io.github.mucsi96.learnlanguage.repository.StudySessionRepository;
-import io.github.mucsi96.learnlanguage.service.cardtype.CardTypeStrategyFactory;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.PredicateSpecification;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -34,20 +32,24 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import lombok.Builder;
 import lombok.Value;
 
 import static io.github.mucsi96.learnlanguage.repository.specification.CardViewSpecifications.*;
+import static io.github.mucsi96.learnlanguage.util.LikeUtils.escapeLike;
 
 @Service
 @RequiredArgsConstructor
 public class CardService {
 
+  private static final int BULK_CHUNK_SIZE = 1000;
+
   @Builder
   @Value
   public static class SourceStats {
@@ -62,10 +64,12 @@ public class CardService {
 
   private final CardRepository cardRepository;
   private final CardViewRepository cardViewRepository;
+  private final CardStatsService cardStatsService;
   private final ReviewLogRepository reviewLogRepository;
-  private final StudySessionRepository studySessionRepository;
-  private final CardTypeStrategyFactory cardTypeStrategyFactory;
-  private final FileStorageService fileStorageService;
+  private final CardMediaRepository cardMediaRepository;
+  private final AudioClipService audioClipService;
+  private final StudySessionService studySessionService;
+  private final RequiredAudioService requiredAudioService;
 
   public Optional<Card> getCardById(String id) {
     return cardRepository.findById(id);
@@ -77,46 +81,20 @@ public class CardService {
 
   @Transactional
   public void deleteCardById(String id) {
+    audioClipService.releaseAll(cardMediaRepository.findMediaIdsByCardIds(CardMediaKind.AUDIO, List.of(id)));
+    studySessionService.removeCardsFromSessions(List.of(id));
     cardRepository.deleteById(id);
   }
 
   public List<SourceDueCardCountResponse> getDueCardCountsBySource(LocalDateTime startOfDay,
       LocalDateTime startOfNextDay) {
-    final List<StudySession> activeSessions = studySessionRepository.findAll(createdOnOrAfter(startOfDay));
-
-    final Set<String> sessionSourceIds = activeSessions.stream()
-        .map(session -> session.getSource().getId())
-        .collect(Collectors.toSet());
-
-    final Stream<SourceDueCardCountResponse> sessionCounts = activeSessions.stream()
-        .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()).stream())
-        .flatMap(loaded -> buildCountResponses(
-            loaded.getSource().getId(),
-            loaded.getCards().stream()
-                .map(StudySessionCard::getCard)
-                .filter(Card::isReady)
-                .filter(card -> card.getDue().isBefore(startOfNextDay))
-                .collect(Collectors.groupingBy(Card::getState, Collectors.counting()))));
-
-    final Stream<SourceDueCardCountResponse> nonSessionCounts = cardRepository
-        .findDueCardCountsGroupedByStateAndSource(startOfNextDay).stream()
-        .filter(row -> !sessionSourceIds.contains(row.getSourceId()))
+    return cardRepository.findDueCardCountsBySource(startOfDay, startOfNextDay).stream()
         .map(row -> SourceDueCardCountResponse.builder()
             .sourceId(row.getSourceId())
             .state(row.getState())
             .count(row.getCount())
-            .build());
-
-    return Stream.concat(sessionCounts, nonSessionCounts).toList();
-  }
-
-  private Stream<SourceDueCardCountResponse> buildCountResponses(String sourceId, Map<String, Long> countsByState) {
-    return countsByState.entrySet().stream()
-        .map(entry -> SourceDueCardCountResponse.builder()
-            .sourceId(sourceId)
-            .state(entry.getKey())
-            .count(entry.getValue())
-            .build());
+            .build())
+        .toList();
   }
 
   public List<Card> getCardsByReadiness(CardReadiness readiness) {
@@ -124,11 +102,12 @@ public class CardService {
   }
 
   public List<Card> getCardsMissingAudio(boolean frontAudioDisabled) {
-    return cardRepository.findByReadinessIn(List.of(CardReadiness.REVIEWED, CardReadiness.READY))
-        .stream()
-        .filter(card -> cardTypeStrategyFactory.getStrategy(card.getSource().getCardType())
-            .isMissingAudio(card.getData(), frontAudioDisabled))
-        .toList();
+    requiredAudioService.refresh();
+    return cardRepository.findCardsMissingAudio(
+        List.of(CardReadiness.REVIEWED, CardReadiness.READY),
+        frontAudioDisabled,
+        CardMediaKind.REQUIRED_AUDIO,
+        CardMediaKind.AUDIO);
   }
 
   public List<Card> getRecentlyReviewedCards(int limit) {
@@ -136,8 +115,6 @@ public class CardService {
   }
 
   public Map<String, SourceStats> getSourceStats() {
-    refreshCardView();
-
     return cardRepository.getSourceCardStats().stream()
         .collect(Collectors.groupingBy(
             SourceCardStatsProjection::getSourceId,
@@ -201,34 +178,39 @@ public class CardService {
   }
 
   @Transactional
-  public void markCardsAsDraft(List<String> cardIds) {
+  public int markCardsAsDraft(List<String> cardIds) {
+    studySessionService.removeCardsFromSessions(cardIds);
     reviewLogRepository.deleteByCardIdIn(cardIds);
-    cardRepository.resetFsrsAndMarkDraftByIds(cardIds);
+    reviewLogRepository.deleteCardComplexitiesByCardIdIn(cardIds);
+    cardStatsService.markDirty(cardIds);
+    return cardRepository.resetFsrsAndMarkDraftByIds(cardIds);
   }
 
-  public List<String> getFilteredCardIds(
+  @Transactional(readOnly = true)
+  public void streamFilteredCardIds(
       String sourceId,
       String readiness, String state,
       Integer minReps, Integer maxReps,
       Integer lastReviewDaysAgo,
       Integer minReviewScore, Integer maxReviewScore,
       String cardFilter, Boolean flagged, Boolean unhealthy, Boolean suggestedKnown,
-      LocalDateTime startOfDayUtc) {
+      LocalDateTime startOfDayUtc,
+      Consumer<String> consumer) {
 
-    refreshCardView();
+    cardStatsService.awaitFreshness();
 
     final PredicateSpecification<CardView> spec = buildCardTableSpec(
         sourceId, readiness, state, minReps, maxReps,
         lastReviewDaysAgo,
         minReviewScore, maxReviewScore, cardFilter, flagged, unhealthy, suggestedKnown, startOfDayUtc);
 
-    return cardViewRepository.findAll(spec).stream()
-        .map(CardView::getId)
-        .toList();
+    try (Stream<String> ids = cardViewRepository.streamCardIds(spec)) {
+      ids.forEach(consumer);
+    }
   }
 
   public CardTableResponse getCardTable(
-      String sourceId, int startRow, int endRow,
+      String sourceId, int startRow, int endRow, String after,
       String sortField, String sortDirection,
       String readiness, String state,
       Integer minReps, Integer maxReps,
@@ -237,58 +219,127 @@ public class CardService {
       String cardFilter, Boolean flagged, Boolean unhealthy, Boolean suggestedKnown,
       LocalDateTime startOfDayUtc) {
 
-    refreshCardView();
+    cardStatsService.awaitFreshness();
 
     final PredicateSpecification<CardView> spec = buildCardTableSpec(
         sourceId, readiness, state, minReps, maxReps,
         lastReviewDaysAgo,
         minReviewScore, maxReviewScore, cardFilter, flagged, unhealthy, suggestedKnown, startOfDayUtc);
 
-    final int pageSize = Math.max(1, endRow - startRow);
-    final int page = startRow / pageSize;
-    final PageRequest pageRequest = PageRequest.of(page, pageSize, buildSort(sortField, sortDirection));
-
-    final Page<CardView> cardPage = cardViewRepository.findAll(Specification.where(spec), pageRequest);
-
-    final List<CardTableRow> rows = cardPage.getContent().stream()
+    final boolean sortByRelevance = !StringUtils.hasText(sortField) && StringUtils.hasText(cardFilter);
+    final CardTableSlice slice = cardViewRepository.findCardTableSlice(
+        spec,
+        sortByRelevance ? CardTableSortField.RELEVANCE : toSortField(sortField),
+        sortByRelevance || "desc".equalsIgnoreCase(sortDirection),
+        StringUtils.hasText(cardFilter) ? cardFilter : null,
+        after,
+        after != null ? 0 : startRow,
+        Math.max(1, endRow - startRow));
+
+    final List<CardTableRow> rows = slice.rows().stream()
         .map(this::mapToRow)
         .toList();
 
     return CardTableResponse.builder()
         .rows(rows)
-        .totalCount(cardPage.getTotalElements())
+        .totalCount(after == null ? cardViewRepository.count(Specification.where(spec)) : null)
+        .nextCursor(slice.nextCursor())
         .build();
   }
 
+  public List<CardSearchResult> searchCards(String query, int limit) {
+    final String normalized = query.trim().toLowerCase();
+    return cardRepository.searchCards(normalized, escapeLike(normalized), limit).stream()
+        .map(result -> CardSearchResult.builder()
+            .id(result.getId())
+            .sourceId(result.getSourceId())
+            .readiness(CardReadiness.valueOf(result.getReadiness()))
+            .label(result.getLabel())
+            .score(result.getScore())
+            .build())
+        .toList();
+  }
+
   @Transactional
-  public void markCardsAsKnown(List<String> cardIds) {
-    cardRepository.updateReadinessByIds(cardIds, CardReadiness.KNOWN);
+  public int markCardsAsKnown(List<String> cardIds) {
+    studySessionService.removeCardsFromSessions(cardIds);
+    return cardRepository.updateReadinessByIds(cardIds, CardReadiness.KNOWN);
   }
 
   @Transactional
-  public void deleteCardsByIds(List<String> cardIds) {
+  public int deleteCardsByIds(List<String> cardIds) {
+    audioClipService.releaseAll(cardMediaRepository.findMediaIdsByCardIds(CardMediaKind.AUDIO, cardIds));
+    studySessionService.removeCardsFromSessions(cardIds);
     reviewLogRepository.deleteByCardIdIn(cardIds);
-    cardRepository.deleteAllById(cardIds);
+    return cardRepository.deleteByIdIn(cardIds);
   }
 
   @Transactional
-  public void deleteAudioForCards(List<String> cardIds) {
-    final List<Card> cards = cardRepository.findByIdInOrderByIdAsc(cardIds);
-
-    cards.stream()
-        .filter(card -> card.getData() != null && card.getData().getAudio() != null)
-        .forEach(card -> {
-          card.getData().getAudio().stream()
-              .map(AudioData::getId)
-              .forEach(audioId -> fileStorageService.deleteFile("audio/%s.mp3".formatted(audioId)));
-          card.getData().setAudio(null);
-        });
-
-    cardRepository.saveAll(cards);
+  public int deleteAudioForCards(List<String> cardIds) {
+    audioClipService.releaseAll(cardMediaRepository.findMediaIdsByCardIds(CardMediaKind.AUDIO, cardIds));
+    return cardRepository.removeAudioByIdIn(cardIds);
   }
 
-  public void refreshCardView() {
-    cardViewRepository.refresh();
+  @Transactional
+  public int markCardsAsKnownByFilter(String sourceId, CardFilterParams filter, LocalDateTime startOfDayUtc) {
+    final PredicateSpecification<CardView> spec = buildBulkSpec(sourceId, filter, startOfDayUtc);
+
+    studySessionService.removeCardsFromSessions(cardViewRepository.findSessionCardIds(spec));
+    return cardRepository.updateReadinessByFilter(spec, CardReadiness.KNOWN);
+  }
+
+  @Transactional
+  public int markCardsAsDraftByFilter(String sourceId, CardFilterParams filter, LocalDateTime startOfDayUtc) {
+    final PredicateSpecification<CardView> spec = buildBulkSpec(sourceId, filter, startOfDayUtc);
+    // Only cards with a review history carry stats and complexities to reset
+    final List<String> reviewedCardIds = cardViewRepository.findReviewedCardIds(spec);
+
+    studySessionService.removeCardsFromSessions(cardViewRepository.findSessionCardIds(spec));
+    reviewLogRepository.deleteByCardFilter(spec);
+    final int affectedCount = cardRepository.resetFsrsAndMarkDraftByFilter(spec);
+
+    chunked(reviewedCardIds).forEach(reviewLogRepository::deleteCardComplexitiesByCardIdIn);
+    cardStatsService.markDirty(reviewedCardIds);
+    return affectedCount;
+  }
+
+  @Transactional
+  public int deleteCardsByFilter(String sourceId, CardFilterParams filter, LocalDateTime startOfDayUtc) {
+    final PredicateSpecification<CardView> spec = buildBulkSpec(sourceId, filter, startOfDayUtc);
+
+    chunked(cardViewRepository.findCardIdsWithMedia(spec, CardMediaKind.AUDIO)).forEach(chunk ->
+        audioClipService.releaseAll(cardMediaRepository.findMediaIdsByCardIds(CardMediaKind.AUDIO, chunk)));
+    studySessionService.removeCardsFromSessions(cardViewRepository.findSessionCardIds(spec));
+    reviewLogRepository.deleteByCardFilter(spec);
+    return cardRepository.deleteByFilter(spec);
+  }
+
+  @Transactional
+  public int deleteAudioForCardsByFilter(String sourceId, CardFilterParams filter, LocalDateTime startOfDayUtc) {
+    final PredicateSpecification<CardView> spec = buildBulkSpec(sourceId, filter, startOfDayUtc);
+
+    // The jsonb rewrite of the audio key has no criteria form, so it runs on
+    // the ids of the matching cards that actually have audio
+    return chunked(cardViewRepository.findCardIdsWithMedia(spec, CardMediaKind.AUDIO)).stream()
+        .mapToInt(this::deleteAudioForCards)
+        .sum();
+  }
+
+  private PredicateSpecification<CardView> buildBulkSpec(String sourceId, CardFilterParams filter,
+      LocalDateTime startOfDayUtc) {
+    cardStatsService.awaitFreshness();
+
+    return buildCardTableSpec(
+        sourceId, filter.getReadiness(), filter.getState(), filter.getMinReps(), filter.getMaxReps(),
+        filter.getLastReviewDaysAgo(),
+        filter.getMinReviewScore(), filter.getMaxReviewScore(), filter.getCardFilter(),
+        filter.getFlagged(), filter.getUnhealthy(), filter.getSuggestedKnown(), startOfDayUtc);
+  }
+
+  private static List<List<String>> chunked(List<String> ids) {
+    return IntStream.range(0, (ids.size() + BULK_CHUNK_SIZE - 1) / BULK_CHUNK_SIZE)
+        .mapToObj(chunk -> ids.subList(chunk * BULK_CHUNK_SIZE, Math.min(ids.size(), (chunk + 1) * BULK_CHUNK_SIZE)))
+        .toList();
   }
 
   private PredicateSpecification<CardView> buildCardTableSpec(
@@ -341,46 +392,40 @@ public class CardService {
     return spec;
   }
 
-  private Sort buildSort(String sortField, String sortDirection) {
+  private CardTableSortField toSortField(String sortField) {
     if (!StringUtils.hasText(sortField)) {
-      return Sort.by(Sort.Direction.ASC, "due");
+      return CardTableSortField.DUE;
     }
 
-    final Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection)
-        ? Sort.Direction.DESC
-        : Sort.Direction.ASC;
-
-    final String mappedField = switch (sortField) {
-      case "reps" -> "reps";
-      case "lapses" -> "lapses";
-      case "stability" -> "stability";
-      case "correctStreak" -> "correctStreak";
-      case "lastReviewDaysAgo" -> "lastReview";
-      case "state" -> "state";
-      case "readiness" -> "readiness";
-      case "reviewScore" -> "reviewScore";
-      default -> "due";
+    return switch (sortField) {
+      case "reps" -> CardTableSortField.REPS;
+      case "lapses" -> CardTableSortField.LAPSES;
+      case "stability" -> CardTableSortField.STABILITY;
+      case "correctStreak" -> CardTableSortField.CORRECT_STREAK;
+      case "lastReviewDaysAgo" -> CardTableSortField.LAST_REVIEW;
+      case "state" -> CardTableSortField.STATE;
+      case "readiness" -> CardTableSortField.READINESS;
+      case "reviewScore" -> CardTableSortField.REVIEW_SCORE;
+      default -> CardTableSortField.DUE;
     };
-
-    return Sort.by(direction, mappedField);
   }
 
-  private CardTableRow mapToRow(CardView view) {
-    final Integer reviewDaysAgo = view.getLastReview() != null
-        ? (int) ChronoUnit.DAYS.between(view.getLastReview().toLocalDate(), LocalDate.now())
+  private CardTableRow mapToRow(CardTableRowProjection row) {
+    final Integer reviewDaysAgo = row.lastReview() != null
+        ? (int) ChronoUnit.DAYS.between(row.lastReview().toLocalDate(), LocalDate.now())
         : null;
 
     return CardTableRow.builder()
-        .id(view.getId())
-        .readiness(view.getReadiness())
-        .state(view.getState())
-        .reps(view.getReps())
-        .lapses(view.getLapses())
-        .stability(view.getStability())
+        .id(row.id())
+        .readiness(row.readiness())
+        .state(row.state())
+        .reps(row.reps())
+        .lapses(row.lapses())
+        .stability(row.stability())
         .lastReviewDaysAgo(reviewDaysAgo)
-        .correctStreak(view.getCorrectStreak())
-        .reviewScore(view.getReviewScore())
-        .sourcePageNumber(view.getSourcePageNumber())
+        .correctStreak(row.correctStreak())
+        .reviewScore(row.reviewScore())
+        .sourcePageNumber(row.sourcePageNumber())
         .build();
   }
 }
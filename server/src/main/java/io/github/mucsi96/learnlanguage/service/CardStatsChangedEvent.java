@@ -0,0 +1,6 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.util.Collection;
+
+public record CardStatsChangedEvent(Collection<String> cardIds) {
+}
@@ -0,0 +1,180 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.mucsi96.learnlanguage.repository.CardStatsDirtyRepository;
+import io.github.mucsi96.learnlanguage.repository.CardViewRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class CardStatsService {
+
+    private final CardViewRepository cardViewRepository;
+    private final CardStatsDirtyRepository cardStatsDirtyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor cardStatsExecutor;
+    private final Duration stalenessBudget;
+    private final Timer refreshTimer;
+    private final Timer readerWaitTimer;
+
+    private final Set<String> dirtyCardIds = ConcurrentHashMap.newKeySet();
+    private Instant dirtySince;
+    private Instant refreshingSince;
+    private CompletableFuture<Void> inFlightRefresh;
+
+    public CardStatsService(
+            CardViewRepository cardViewRepository,
+            CardStatsDirtyRepository cardStatsDirtyRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("cardStatsExecutor") Executor cardStatsExecutor,
+            @Value("${card-stats.staleness-budget:0s}") Duration stalenessBudget,
+            MeterRegistry meterRegistry) {
+        this.cardViewRepository = cardViewRepository;
+        this.cardStatsDirtyRepository = cardStatsDirtyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.cardStatsExecutor = cardStatsExecutor;
+        this.stalenessBudget = stalenessBudget;
+        this.refreshTimer = meterRegistry.timer("card.stats.refresh");
+        this.readerWaitTimer = meterRegistry.timer("card.stats.reader.wait");
+        meterRegistry.gaugeCollectionSize("card.stats.dirty.cards", Tags.empty(), dirtyCardIds);
+    }
+
+    /**
+     * Records the cards as dirty in the caller's transaction, so a crash
+     * before the refresh leaves the marker for the next startup.
+     */
+    public void markDirty(Collection<String> cardIds) {
+        if (!cardIds.isEmpty()) {
+            cardStatsDirtyRepository.markDirty(cardIds.toArray(String[]::new));
+            eventPublisher.publishEvent(new CardStatsChangedEvent(List.copyOf(cardIds)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardStatsChanged(CardStatsChangedEvent event) {
+        synchronized (this) {
+            dirtyCardIds.addAll(event.cardIds());
+            if (dirtySince == null) {
+                dirtySince = Instant.now();
+            }
+        }
+        scheduleRefresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverDirtyCards() {
+        final List<String> cardIds = cardStatsDirtyRepository.findAllCardIds();
+        if (!cardIds.isEmpty()) {
+            log.info("Refreshing stats of {} cards left dirty by a previous run", cardIds.size());
+            onCardStatsChanged(new CardStatsChangedEvent(cardIds));
+        }
+    }
+
+    public void awaitFreshness() {
+        final long startedAt = System.nanoTime();
+        CompletableFuture<Void> refresh;
+        while ((refresh = staleRefresh()) != null) {
+            try {
+                refresh.join();
+            } catch (CompletionException e) {
+                log.warn("Serving stale card stats after failed refresh", e.getCause());
+                break;
+            }
+        }
+        readerWaitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized CompletableFuture<Void> staleRefresh() {
+        final Instant oldest = refreshingSince != null ? refreshingSince : dirtySince;
+        if (oldest == null || oldest.plus(stalenessBudget).isAfter(Instant.now())) {
+            return null;
+        }
+        return scheduleRefresh();
+    }
+
+    private synchronized CompletableFuture<Void> scheduleRefresh() {
+        if (inFlightRefresh == null) {
+            final CompletableFuture<Void> refresh = new CompletableFuture<>();
+            inFlightRefresh = refresh;
+            cardStatsExecutor.execute(() -> runRefresh(refresh));
+        }
+        return inFlightRefresh;
+    }
+
+    private void runRefresh(CompletableFuture<Void> refresh) {
+        final List<String> cardIds = drainDirtyCardIds();
+        try {
+            if (!cardIds.isEmpty()) {
+                final String[] ids = cardIds.toArray(String[]::new);
+                // Markers are cleared before the refresh reads the cards, so a
+                // change committed after that read keeps its marker
+                refreshTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    cardStatsDirtyRepository.clearDirty(ids);
+                    cardViewRepository.refreshCardStats(ids);
+                }));
+            }
+            finishRefresh(refresh, null);
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh stats for {} cards", cardIds.size(), e);
+            dirtyCardIds.addAll(cardIds);
+            finishRefresh(refresh, e);
+        }
+    }
+
+    private synchronized List<String> drainDirtyCardIds() {
+        final List<String> cardIds = List.copyOf(dirtyCardIds);
+        dirtyCardIds.removeAll(cardIds);
+        refreshingSince = dirtySince;
+        dirtySince = null;
+        return cardIds;
+    }
+
+    private void finishRefresh(CompletableFuture<Void> refresh, RuntimeException error) {
+        final boolean hasPendingCards;
+        synchronized (this) {
+            inFlightRefresh = null;
+            if (error != null && refreshingSince != null
+                    && (dirtySince == null || refreshingSince.isBefore(dirtySince))) {
+                dirtySince = refreshingSince;
+            }
+            refreshingSince = null;
+            hasPendingCards = error == null && !dirtyCardIds.isEmpty();
+        }
+
+        if (error != null) {
+            refresh.completeExceptionally(error);
+        } else {
+            refresh.complete(null);
+        }
+
+        if (hasPendingCards) {
+            scheduleRefresh();
+        }
+    }
+}
@@ -13,8 +13,6 @@ import java.util.stream.Collectors;
 
 import javax.imageio.ImageIO;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.stereotype.Service;
 
@@ -33,6 +31,7 @@ public class DocumentProcessorService {
 
   private final FileStorageService fileStorageService;
   private final DocumentRepository documentRepository;
+  private final PdfDocumentCache pdfDocumentCache;
 
   public PageResponse processDocument(Source source, int pageNumber, Document pdfDocument) throws IOException {
     if (source.getSourceType() == SourceType.IMAGES) {
@@ -78,15 +77,13 @@ public class DocumentProcessorService {
   }
 
   private PageResponse processPdfDocument(Document pdfDocument, Source source, int pageNumber) throws IOException {
-    final byte[] bytes = fileStorageService.fetchFile("sources/" + pdfDocument.getFileName()).toBytes();
-
-    try (PDDocument document = Loader.loadPDF(bytes)) {
+    return pdfDocumentCache.withDocument("sources/" + pdfDocument.getFileName(), document -> {
       final int pageCount = document.getNumberOfPages();
       final int clampedPageNumber = Math.max(1, Math.min(pageNumber, pageCount));
       var mediaBox = document.getPage(clampedPageNumber - 1).getMediaBox();
       var width = mediaBox.getWidth();
       var height = mediaBox.getHeight();
-      var spans = new SpanExtractor().extractSpans(bytes, clampedPageNumber).stream()
+      var spans = new SpanExtractor().extractSpans(document, clampedPageNumber).stream()
           .map((SpanExtractor.Span span) -> {
             String searchTerm = Pattern.compile("\\s?[,/(-]").split(span.getText())[0].strip();
             return PageResponse.Span.builder()
@@ -115,7 +112,7 @@ public class DocumentProcessorService {
           .pageCount(pageCount)
           .spans(spans)
           .build();
-    }
+    });
   }
 
   public byte[] getPageArea(Source source, int pageNumber, double x, double y, double width, double height)
@@ -151,9 +148,7 @@ public class DocumentProcessorService {
 
   private byte[] getPdfPageArea(Document pdfDocument, int pageNumber, double x, double y, double width, double height)
       throws IOException {
-    final byte[] bytes = fileStorageService.fetchFile("sources/" + pdfDocument.getFileName()).toBytes();
-
-    try (PDDocument document = Loader.loadPDF(bytes)) {
+    return pdfDocumentCache.withDocument("sources/" + pdfDocument.getFileName(), document -> {
       var mediaBox = document.getPage(pageNumber - 1).getMediaBox();
       var pageWidth = mediaBox.getWidth();
       var pageHeight = mediaBox.getHeight();
@@ -170,7 +165,7 @@ public class DocumentProcessorService {
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
       ImageIO.write(croppedImage, "png", outputStream);
       return outputStream.toByteArray();
-    }
+    });
   }
 
   public byte[] combinePageAreas(Source source, List<RegionRequest> regions) throws IOException {
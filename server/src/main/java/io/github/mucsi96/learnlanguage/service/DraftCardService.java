@@ -31,7 +31,7 @@ public class DraftCardService {
     private final SourceService sourceService;
     private final WordIdService wordIdService;
 
-    @Async
+    @Async("imageGenerationExecutor")
     @Transactional
     public void createDraftCard(String bookTitle, String targetLanguage, LookupResult lookupResult) {
         try {
@@ -30,6 +30,18 @@ public class FfmpegService {
                 outputFile.toString());
     }
 
+    public void resizeImageToWidth(Path imageFile, int width, Path outputFile) throws IOException {
+        Files.createDirectories(outputFile.getParent());
+        run(imageFile,
+                "ffmpeg", "-y", "-loglevel", "error",
+                "-i", INPUT,
+                "-filter:v", "scale='min(%d,iw)':-2".formatted(width),
+                "-codec:v", "libwebp", "-quality", "75",
+                "-frames:v", "1",
+                "-f", "webp",
+                outputFile.toString());
+    }
+
     public void trimSilence(byte[] audioData, Path outputFile) throws IOException {
         Files.createDirectories(outputFile.getParent());
         run(audioData,
@@ -46,35 +58,39 @@ public class FfmpegService {
         final Path inputFile = Files.createTempFile("ffmpeg-in-", ".tmp");
         try {
             Files.write(inputFile, input);
-            final ProcessBuilder pb = new ProcessBuilder(
-                    Arrays.stream(args)
-                            .map(a -> a.equals(INPUT) ? inputFile.toString() : a)
-                            .toList());
-            pb.redirectErrorStream(true);
-            log.debug("Running ffmpeg: {}", String.join(" ", pb.command()));
-            final Process process = pb.start();
-
-            try {
-                final boolean finished = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            run(inputFile, args);
+        } finally {
+            Files.deleteIfExists(inputFile);
+        }
+    }
 
-                if (!finished) {
-                    process.destroyForcibly();
-                    throw new IOException("ffmpeg timed out after %d seconds".formatted(TIMEOUT_SECONDS));
-                }
+    private void run(Path inputFile, String... args) throws IOException {
+        final ProcessBuilder pb = new ProcessBuilder(
+                Arrays.stream(args)
+                        .map(a -> a.equals(INPUT) ? inputFile.toString() : a)
+                        .toList());
+        pb.redirectErrorStream(true);
+        log.debug("Running ffmpeg: {}", String.join(" ", pb.command()));
+        final Process process = pb.start();
 
-                final byte[] output = process.getInputStream().readAllBytes();
+        try {
+            final boolean finished = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
-                if (process.exitValue() != 0) {
-                    throw new IOException("ffmpeg exited with code %d: %s".formatted(
-                            process.exitValue(), new String(output, StandardCharsets.UTF_8)));
-                }
-            } catch (InterruptedException e) {
+            if (!finished) {
                 process.destroyForcibly();
-                Thread.currentThread().interrupt();
-                throw new IOException("ffmpeg process interrupted", e);
+                throw new IOException("ffmpeg timed out after %d seconds".formatted(TIMEOUT_SECONDS));
             }
-        } finally {
-            Files.deleteIfExists(inputFile);
+
+            final byte[] output = process.getInputStream().readAllBytes();
+
+            if (process.exitValue() != 0) {
+                throw new IOException("ffmpeg exited with code %d: %s".formatted(
+                        process.exitValue(), new String(output, StandardCharsets.UTF_8)));
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("ffmpeg process interrupted", e);
         }
     }
 }
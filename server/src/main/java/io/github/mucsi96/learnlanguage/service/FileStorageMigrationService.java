@@ -0,0 +1,50 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves media written before sharding into the sharded layout and indexes
+ * files the metadata index does not know yet. Runs at the start of every
+ * {@link MediaGarbageCollectorService} pass, which lists files from the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileStorageMigrationService {
+
+  private static final List<String> INDEXED_DIRECTORIES = List.of("audio", "images", "sources");
+
+  private final FileStorageService fileStorageService;
+
+  public void migrate() {
+    INDEXED_DIRECTORIES.forEach(this::migrateDirectory);
+  }
+
+  private void migrateDirectory(String directory) {
+    int moved = 0;
+    int indexed = 0;
+
+    for (final String file : fileStorageService.listLegacyFiles(directory)) {
+      try {
+        if (fileStorageService.migrateLegacyFile(file)) {
+          moved++;
+        } else if (!fileStorageService.isRegistered(file)) {
+          fileStorageService.registerFile(file);
+          indexed++;
+        }
+      } catch (IOException | RuntimeException e) {
+        log.warn("Failed to migrate stored file {}", file, e);
+      }
+    }
+
+    if (moved > 0 || indexed > 0) {
+      log.info("Migrated {} file(s) into sharded layout and indexed {} file(s) in {}", moved, indexed, directory);
+    }
+  }
+}
@@ -1,35 +1,80 @@
 package io.github.mucsi96.learnlanguage.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 
 import com.azure.core.util.BinaryData;
 
+import io.github.mucsi96.learnlanguage.entity.StoredFile;
+import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
+import io.github.mucsi96.learnlanguage.repository.StoredFileRepository;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
+  static final Set<String> SHARDED_DIRECTORIES = Set.of("audio", "images", "derivatives");
+  private static final int CHECKSUM_PREFIX_LENGTH = 12;
+
+  private final StoredFileRepository storedFileRepository;
+
   @Value("${storage.directory}")
   private String storageDirectory;
 
   private Path storagePath;
+  private Path uploadPath;
 
   @PostConstruct
   public void init() throws IOException {
     storagePath = Paths.get(storageDirectory).toAbsolutePath().normalize();
     Files.createDirectories(storagePath);
+    // Uploads are staged on the same file system so the final move is atomic
+    uploadPath = Files.createDirectories(storagePath.resolve(".uploads"));
   }
 
+  /**
+   * Maps a logical path such as {@code audio/<id>.mp3} to its location on disk.
+   * Files in {@link #SHARDED_DIRECTORIES} live two levels deeper, under
+   * directories named after the first bytes of the file name's SHA-256, so no
+   * single directory grows with the media library.
+   */
   public Path resolveFilePath(String fileName) throws IOException {
+    return resolveWithinStorage(shardedPath(fileName));
+  }
+
+  Path resolveLegacyFilePath(String fileName) throws IOException {
+    return resolveWithinStorage(fileName);
+  }
+
+  private Path resolveWithinStorage(String fileName) throws IOException {
     Path filePath = storagePath.resolve(fileName).normalize();
 
     // Security check: ensure the resolved path is within the storage directory
@@ -40,16 +85,66 @@ public class FileStorageService {
     return filePath;
   }
 
+  private static String shardedPath(String fileName) {
+    final int separator = fileName.indexOf('/');
+    if (separator < 0 || !SHARDED_DIRECTORIES.contains(fileName.substring(0, separator))) {
+      return fileName;
+    }
+
+    final int nameStart = fileName.lastIndexOf('/') + 1;
+    final String name = fileName.substring(nameStart);
+    final String hash = HexFormat.of().formatHex(sha256().digest(name.getBytes(StandardCharsets.UTF_8)));
+    return "%s%s/%s/%s".formatted(fileName.substring(0, nameStart), hash.substring(0, 2), hash.substring(2, 4), name);
+  }
+
+  private Path resolveExistingPath(String fileName) throws IOException {
+    final Path resolvedPath = resolveFilePath(fileName);
+    if (Files.isRegularFile(resolvedPath)) {
+      return resolvedPath;
+    }
+
+    final Path legacyPath = resolveLegacyFilePath(fileName);
+    if (Files.isRegularFile(legacyPath)) {
+      return legacyPath;
+    }
+
+    throw new ResourceNotFoundException("File not found: " + fileName);
+  }
+
+  public boolean exists(String filePath) {
+    try {
+      resolveExistingPath(filePath);
+      return true;
+    } catch (ResourceNotFoundException e) {
+      return false;
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to check file: " + filePath, e);
+    }
+  }
+
   public BinaryData fetchFile(String filePath) {
     try {
-      Path resolvedPath = resolveFilePath(filePath);
+      return BinaryData.fromBytes(Files.readAllBytes(resolveExistingPath(filePath)));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to fetch file: " + filePath, e);
+    }
+  }
 
-      if (!Files.exists(resolvedPath)) {
-        throw new RuntimeException("File not found: " + filePath);
-      }
+  /**
+   * Returns where {@code filePath} currently lives on disk, for readers that
+   * need random access instead of a stream.
+   */
+  public Path locateFile(String filePath) {
+    try {
+      return resolveExistingPath(filePath);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to fetch file: " + filePath, e);
+    }
+  }
 
-      byte[] fileContent = Files.readAllBytes(resolvedPath);
-      return BinaryData.fromBytes(fileContent);
+  public Resource fetchResource(String filePath) {
+    try {
+      return new FileSystemResource(resolveExistingPath(filePath));
     } catch (IOException e) {
       throw new RuntimeException("Failed to fetch file: " + filePath, e);
     }
@@ -72,26 +167,217 @@ public class FileStorageService {
     } catch (IOException e) {
       throw new RuntimeException("Failed to save file: " + filePath, e);
     }
+
+    registerFile(filePath);
+  }
+
+  /**
+   * Streams {@code data} into storage at {@code filePath}, hashing it on the
+   * way, so uploads of any size use constant memory. When the stored file
+   * already has the same content it is left untouched.
+   */
+  public StoredFile saveStream(InputStream data, String filePath) {
+    final MessageDigest digest = sha256();
+    final Path stagedPath = stage(data, digest, filePath);
+    try {
+      return commit(stagedPath, filePath, HexFormat.of().formatHex(digest.digest()));
+    } finally {
+      deleteStaged(stagedPath);
+    }
+  }
+
+  /**
+   * Like {@link #saveStream(InputStream, String)}, but when a file with the
+   * same content already sits directly in {@code directory} the upload is
+   * dropped and the path of that file is returned instead. A different file
+   * already stored under {@code fileName} is kept, and the upload goes to a
+   * name prefixed with its checksum.
+   */
+  public String saveDeduplicated(InputStream data, String directory, String fileName) {
+    final MessageDigest digest = sha256();
+    final Path stagedPath = stage(data, digest, directory + "/" + fileName);
+    try {
+      final String checksum = HexFormat.of().formatHex(digest.digest());
+      final String prefix = directory + "/";
+      final StoredFile duplicate = storedFileRepository.findByChecksumAndPathStartingWith(checksum, prefix).stream()
+          .filter(file -> file.getPath().indexOf('/', prefix.length()) < 0)
+          .filter(file -> exists(file.getPath()))
+          .findFirst()
+          .orElse(null);
+
+      if (duplicate != null) {
+        log.info("Upload {} has the same content as {}, reusing it", fileName, duplicate.getPath());
+        touch(duplicate.getPath());
+        return duplicate.getPath();
+      }
+
+      final String filePath = isTaken(prefix + fileName)
+          ? prefix + checksum.substring(0, CHECKSUM_PREFIX_LENGTH) + "-" + fileName
+          : prefix + fileName;
+      return commit(stagedPath, filePath, checksum).getPath();
+    } finally {
+      deleteStaged(stagedPath);
+    }
+  }
+
+  private boolean isTaken(String filePath) {
+    return storedFileRepository.existsById(filePath) || exists(filePath);
+  }
+
+  /**
+   * Restarts the garbage collector grace period of a file that is about to
+   * be referenced again, e.g. a cache hit handed out before the card is saved.
+   */
+  public void touch(String filePath) {
+    storedFileRepository.updateCreatedAt(filePath, Instant.now());
+  }
+
+  private Path stage(InputStream data, MessageDigest digest, String filePath) {
+    try {
+      final Path stagedPath = Files.createTempFile(uploadPath, "upload-", ".tmp");
+      try (InputStream in = new DigestInputStream(data, digest)) {
+        Files.copy(in, stagedPath, StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        deleteStaged(stagedPath);
+        throw e;
+      }
+      return stagedPath;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to save file: " + filePath, e);
+    }
+  }
+
+  private StoredFile commit(Path stagedPath, String filePath, String checksum) {
+    try {
+      final StoredFile existing = storedFileRepository.findById(filePath).orElse(null);
+      if (existing != null && existing.getChecksum().equals(checksum) && exists(filePath)) {
+        return existing;
+      }
+
+      final Path resolvedPath = resolveFilePath(filePath);
+      Files.createDirectories(resolvedPath.getParent());
+      Files.move(stagedPath, resolvedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return index(filePath, Files.size(resolvedPath), checksum);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to save file: " + filePath, e);
+    }
+  }
+
+  private void deleteStaged(Path stagedPath) {
+    try {
+      Files.deleteIfExists(stagedPath);
+    } catch (IOException e) {
+      log.warn("Failed to delete staged upload {}", stagedPath, e);
+    }
+  }
+
+  /**
+   * Records size, checksum and content type of a file already written to
+   * {@link #resolveFilePath(String)}, e.g. by ffmpeg.
+   */
+  public void registerFile(String filePath) {
+    try {
+      final Path resolvedPath = resolveFilePath(filePath);
+      final MessageDigest digest = sha256();
+      try (InputStream in = new DigestInputStream(Files.newInputStream(resolvedPath), digest)) {
+        in.transferTo(OutputStream.nullOutputStream());
+      }
+
+      index(filePath, Files.size(resolvedPath), HexFormat.of().formatHex(digest.digest()));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to register file: " + filePath, e);
+    }
+  }
+
+  private StoredFile index(String filePath, long size, String checksum) {
+    return storedFileRepository.save(StoredFile.builder()
+        .path(filePath)
+        .size(size)
+        .checksum(checksum)
+        .contentType(MediaTypeFactory.getMediaType(filePath)
+            .orElse(MediaType.APPLICATION_OCTET_STREAM)
+            .toString())
+        .createdAt(Instant.now())
+        .build());
+  }
+
+  /**
+   * Moves a file left at its pre-sharding location into the sharded layout and
+   * indexes it. Returns false when there was nothing to move.
+   */
+  boolean migrateLegacyFile(String filePath) throws IOException {
+    final Path legacyPath = resolveLegacyFilePath(filePath);
+    final Path resolvedPath = resolveFilePath(filePath);
+
+    if (legacyPath.equals(resolvedPath) || !Files.isRegularFile(legacyPath)) {
+      return false;
+    }
+
+    Files.createDirectories(resolvedPath.getParent());
+    Files.move(legacyPath, resolvedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    registerFile(filePath);
+    return true;
+  }
+
+  boolean isRegistered(String filePath) {
+    return storedFileRepository.existsById(filePath);
+  }
+
+  /**
+   * Returns the index entry of {@code filePath}, indexing the file first when
+   * it is on disk but was never registered, e.g. a legacy file the startup
+   * migration has not reached.
+   */
+  public Optional<StoredFile> findOrRegister(String filePath) {
+    final Optional<StoredFile> stored = storedFileRepository.findById(filePath);
+    if (stored.isPresent() || !exists(filePath)) {
+      return stored;
+    }
+
+    try {
+      if (!migrateLegacyFile(filePath)) {
+        registerFile(filePath);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to register file: " + filePath, e);
+    }
+
+    return storedFileRepository.findById(filePath);
   }
 
   public void deleteFile(String filePath) {
     try {
-      Path resolvedPath = resolveFilePath(filePath);
-      Files.deleteIfExists(resolvedPath);
+      Files.deleteIfExists(resolveFilePath(filePath));
+      Files.deleteIfExists(resolveLegacyFilePath(filePath));
     } catch (IOException e) {
       throw new RuntimeException("Failed to delete file: " + filePath, e);
     }
+
+    storedFileRepository.deleteById(filePath);
   }
 
+  /**
+   * Lists logical paths below {@code directory} from the metadata index, so
+   * sharded directories are never walked.
+   */
   public List<String> listFiles(String directory) {
+    return storedFileRepository.findPathsByPrefix(directory + "/");
+  }
+
+  /**
+   * Lists logical paths of files stored directly in {@code directory} on disk,
+   * without descending into shard directories.
+   */
+  List<String> listLegacyFiles(String directory) {
     try {
-      final Path dirPath = resolveFilePath(directory);
+      final Path dirPath = resolveLegacyFilePath(directory);
 
-      if (!Files.exists(dirPath) || !Files.isDirectory(dirPath)) {
+      if (!Files.isDirectory(dirPath)) {
         return List.of();
       }
 
-      try (Stream<Path> stream = Files.walk(dirPath)) {
+      final boolean sharded = SHARDED_DIRECTORIES.contains(directory);
+      try (Stream<Path> stream = sharded ? Files.list(dirPath) : Files.walk(dirPath)) {
         return stream
             .filter(Files::isRegularFile)
             .map(storagePath::relativize)
@@ -102,4 +388,12 @@ public class FileStorageService {
       throw new RuntimeException("Failed to list files in directory: " + directory, e);
     }
   }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
 }
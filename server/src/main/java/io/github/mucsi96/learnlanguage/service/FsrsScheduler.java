@@ -0,0 +1,276 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.util.Arrays;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// FSRS-6 scheduler mirroring ts-fsrs 5.x with short-term learning steps and fuzz disabled.
+// See https://github.com/open-spaced-repetition/fsrs4anki/wiki/The-Algorithm#fsrs-6
+public class FsrsScheduler {
+
+    public static final int AGAIN = 1;
+    public static final int HARD = 2;
+    public static final int GOOD = 3;
+    public static final int EASY = 4;
+
+    public static final int NEW = 0;
+    public static final int LEARNING = 1;
+    public static final int REVIEW = 2;
+    public static final int RELEARNING = 3;
+
+    public static final long NO_REVIEW = Long.MIN_VALUE;
+
+    public static final double[] DEFAULT_WEIGHTS = {
+            0.212, 1.2931, 2.3065, 8.2956, 6.4133, 0.8334, 3.0194, 0.001, 1.8722, 0.1666, 0.796,
+            1.4835, 0.0614, 0.2629, 1.6483, 0.6014, 1.8729, 0.5425, 0.0912, 0.0658, 0.1542 };
+    public static final int[] DEFAULT_LEARNING_STEPS_MINUTES = { 1, 10 };
+    public static final int[] DEFAULT_RELEARNING_STEPS_MINUTES = { 10 };
+
+    private static final String[] STATE_NAMES = { "NEW", "LEARNING", "REVIEW", "RELEARNING" };
+    private static final double S_MIN = 0.001;
+    private static final double S_MAX = 36500.0;
+    private static final long MINUTE_MS = 60_000L;
+    private static final long DAY_MS = 86_400_000L;
+    private static final int DAY_MINUTES = 1440;
+
+    @Data
+    @NoArgsConstructor
+    public static class CardState {
+        private int state;
+        private double stability;
+        private double difficulty;
+        private int elapsedDays;
+        private int lastElapsedDays;
+        private int scheduledDays;
+        private int learningSteps;
+        private int reps;
+        private int lapses;
+        private long lastReview = NO_REVIEW;
+        private long due;
+    }
+
+    private final double[] w;
+    private final int maximumInterval;
+    private final int[] learningSteps;
+    private final int[] relearningSteps;
+    private final double decay;
+    private final double factor;
+    private final double intervalModifier;
+    private final double initDifficultyEasy;
+    private final double shortTermAgainDivisor;
+
+    public FsrsScheduler(double[] weights, double requestRetention, int maximumInterval,
+            int[] learningStepsMinutes, int[] relearningStepsMinutes) {
+        if (weights.length != DEFAULT_WEIGHTS.length) {
+            throw new IllegalArgumentException("FSRS-6 requires " + DEFAULT_WEIGHTS.length + " weights");
+        }
+        if (requestRetention <= 0 || requestRetention >= 1) {
+            throw new IllegalArgumentException("requestRetention must be between 0 and 1");
+        }
+
+        this.w = Arrays.copyOf(weights, weights.length);
+        this.maximumInterval = maximumInterval;
+        this.learningSteps = Arrays.copyOf(learningStepsMinutes, learningStepsMinutes.length);
+        this.relearningSteps = Arrays.copyOf(relearningStepsMinutes, relearningStepsMinutes.length);
+        this.decay = -w[20];
+        this.factor = Math.pow(0.9, 1 / decay) - 1;
+        this.intervalModifier = roundTo8((Math.pow(requestRetention, 1 / decay) - 1) / factor);
+        this.initDifficultyEasy = initDifficulty(EASY);
+        this.shortTermAgainDivisor = Math.exp(w[17] * w[18]);
+    }
+
+    public static FsrsScheduler withDefaults() {
+        return new FsrsScheduler(DEFAULT_WEIGHTS, 0.9, 36500,
+                DEFAULT_LEARNING_STEPS_MINUTES, DEFAULT_RELEARNING_STEPS_MINUTES);
+    }
+
+    public static int stateOf(String name) {
+        for (int i = 0; i < STATE_NAMES.length; i++) {
+            if (STATE_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown card state: " + name);
+    }
+
+    public static String stateName(int state) {
+        return STATE_NAMES[state];
+    }
+
+    public void repeat(CardState card, int rating, long now) {
+        if (rating < AGAIN || rating > EASY) {
+            throw new IllegalArgumentException(
+                    String.format("rating must be between %d and %d", AGAIN, EASY));
+        }
+
+        final int previousState = card.state;
+        final int currentStep = card.learningSteps;
+        final double stability = card.stability;
+        final double difficulty = card.difficulty;
+        final int elapsedDays = card.lastReview == NO_REVIEW
+                ? 0
+                : (int) (Math.floorDiv(now, DAY_MS) - Math.floorDiv(card.lastReview, DAY_MS));
+
+        card.lastElapsedDays = card.elapsedDays;
+        card.elapsedDays = elapsedDays;
+        card.lastReview = now;
+        card.reps++;
+
+        switch (previousState) {
+            case NEW -> {
+                card.difficulty = clamp(initDifficulty(rating), 1, 10);
+                card.stability = initStability(rating);
+                applyLearningSteps(card, rating, previousState, currentStep, LEARNING, now);
+            }
+            case LEARNING, RELEARNING -> {
+                card.difficulty = nextDifficulty(difficulty, rating);
+                card.stability = nextStability(difficulty, stability, elapsedDays, rating);
+                applyLearningSteps(card, rating, previousState, currentStep, previousState, now);
+            }
+            case REVIEW -> {
+                card.difficulty = nextDifficulty(difficulty, rating);
+                card.stability = nextStability(difficulty, stability, elapsedDays, rating);
+                if (rating == AGAIN) {
+                    card.lapses++;
+                    applyLearningSteps(card, rating, previousState, currentStep, RELEARNING, now);
+                } else {
+                    scheduleReview(card, rating, difficulty, stability, elapsedDays, now);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown card state: " + previousState);
+        }
+    }
+
+    private void scheduleReview(CardState card, int rating, double difficulty, double stability,
+            int elapsedDays, long now) {
+        int hardInterval = nextInterval(nextStability(difficulty, stability, elapsedDays, HARD));
+        int goodInterval = nextInterval(nextStability(difficulty, stability, elapsedDays, GOOD));
+        int easyInterval = nextInterval(nextStability(difficulty, stability, elapsedDays, EASY));
+        hardInterval = Math.min(hardInterval, goodInterval);
+        goodInterval = Math.max(goodInterval, hardInterval + 1);
+        easyInterval = Math.max(easyInterval, goodInterval + 1);
+
+        final int interval = switch (rating) {
+            case HARD -> hardInterval;
+            case GOOD -> goodInterval;
+            default -> easyInterval;
+        };
+
+        card.state = REVIEW;
+        card.learningSteps = 0;
+        card.scheduledDays = interval;
+        card.due = now + interval * DAY_MS;
+    }
+
+    private void applyLearningSteps(CardState card, int rating, int previousState, int currentStep,
+            int targetState, long now) {
+        final int[] steps = previousState == REVIEW || previousState == RELEARNING
+                ? relearningSteps
+                : learningSteps;
+        final int step = previousState == REVIEW ? 0 : currentStep;
+
+        int minutes = 0;
+        int nextStep = 0;
+        if (steps.length > 0 && step < steps.length) {
+            if (rating == AGAIN) {
+                minutes = steps[0];
+            } else if (previousState != REVIEW && rating == HARD) {
+                minutes = steps.length == 1
+                        ? (int) Math.round(steps[0] * 1.5)
+                        : (int) Math.round((steps[0] + steps[1]) / 2.0);
+                nextStep = step;
+            } else if (previousState != REVIEW && rating == GOOD && step + 1 < steps.length) {
+                minutes = steps[step + 1];
+                nextStep = step + 1;
+            }
+        }
+
+        if (minutes > 0 && minutes < DAY_MINUTES) {
+            card.state = targetState;
+            card.learningSteps = nextStep;
+            card.scheduledDays = 0;
+            card.due = now + minutes * MINUTE_MS;
+            return;
+        }
+
+        card.state = REVIEW;
+        if (minutes >= DAY_MINUTES) {
+            card.learningSteps = nextStep;
+            card.scheduledDays = minutes / DAY_MINUTES;
+            card.due = now + minutes * MINUTE_MS;
+        } else {
+            final int interval = nextInterval(card.stability);
+            card.learningSteps = 0;
+            card.scheduledDays = interval;
+            card.due = now + interval * DAY_MS;
+        }
+    }
+
+    double forgettingCurve(double elapsedDays, double stability) {
+        return roundTo8(Math.pow(1 + factor * elapsedDays / stability, decay));
+    }
+
+    int nextInterval(double stability) {
+        return (int) Math.min(Math.max(1, Math.round(stability * intervalModifier)), maximumInterval);
+    }
+
+    private double nextStability(double difficulty, double stability, int elapsedDays, int rating) {
+        if (elapsedDays == 0) {
+            return nextShortTermStability(stability, rating);
+        }
+
+        final double retrievability = forgettingCurve(elapsedDays, stability);
+        if (rating == AGAIN) {
+            final double afterFail = nextForgetStability(difficulty, stability, retrievability);
+            return clamp(roundTo8(stability / shortTermAgainDivisor), S_MIN, afterFail);
+        }
+        return nextRecallStability(difficulty, stability, retrievability, rating);
+    }
+
+    private double initStability(int rating) {
+        return Math.max(w[rating - 1], 0.1);
+    }
+
+    private double initDifficulty(int rating) {
+        return roundTo8(w[4] - Math.exp((rating - 1) * w[5]) + 1);
+    }
+
+    private double nextDifficulty(double difficulty, int rating) {
+        final double delta = -w[6] * (rating - 3);
+        final double damped = difficulty + roundTo8(delta * (10 - difficulty) / 9);
+        return clamp(roundTo8(w[7] * initDifficultyEasy + (1 - w[7]) * damped), 1, 10);
+    }
+
+    private double nextRecallStability(double difficulty, double stability, double retrievability, int rating) {
+        final double hardPenalty = rating == HARD ? w[15] : 1;
+        final double easyBonus = rating == EASY ? w[16] : 1;
+        return roundTo8(clamp(stability * (1 + Math.exp(w[8])
+                * (11 - difficulty)
+                * Math.pow(stability, -w[9])
+                * (Math.exp((1 - retrievability) * w[10]) - 1)
+                * hardPenalty
+                * easyBonus), S_MIN, S_MAX));
+    }
+
+    private double nextForgetStability(double difficulty, double stability, double retrievability) {
+        return roundTo8(clamp(w[11]
+                * Math.pow(difficulty, -w[12])
+                * (Math.pow(stability + 1, w[13]) - 1)
+                * Math.exp((1 - retrievability) * w[14]), S_MIN, S_MAX));
+    }
+
+    private double nextShortTermStability(double stability, int rating) {
+        final double increase = Math.pow(stability, -w[19]) * Math.exp(w[17] * (rating - 3 + w[18]));
+        final double masked = rating >= GOOD ? Math.max(increase, 1.0) : increase;
+        return roundTo8(clamp(stability * masked, S_MIN, S_MAX));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    private static double roundTo8(double value) {
+        return Math.round(value * 1e8) / 1e8;
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import io.github.mucsi96.learnlanguage.entity.StoredFile;
+import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
+import io.github.mucsi96.learnlanguage.repository.StoredFileRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves downscaled webp copies of stored images so clients download no more
+ * pixels than they display. Derivatives are keyed by the content of their
+ * original: the 640px derivative of a file with checksum {@code <sha>} lives
+ * at {@code derivatives/640/<sha>.webp}, so overwriting an original never
+ * serves the old picture. Derivatives are created on first request, or up
+ * front for generated card images, and are garbage once no stored file has
+ * their original's content.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageDerivativeService {
+
+  public static final List<Integer> WIDTHS = List.of(320, 640, 1200);
+  public static final MediaType IMAGE_WEBP = MediaType.parseMediaType("image/webp");
+
+  static final String DIRECTORY = "derivatives";
+
+  private final FileStorageService fileStorageService;
+  private final FfmpegService ffmpegService;
+  private final StoredFileRepository storedFileRepository;
+  private final Map<String, CompletableFuture<Void>> creations = new ConcurrentHashMap<>();
+
+  /**
+   * Picks the smallest derivative width covering {@code requestedWidth}, or
+   * null when the original should be served.
+   */
+  public Integer variantWidth(Integer requestedWidth) {
+    if (requestedWidth == null || requestedWidth <= 0) {
+      return null;
+    }
+
+    return WIDTHS.stream()
+        .filter(width -> width >= requestedWidth)
+        .findFirst()
+        .orElse(null);
+  }
+
+  public Resource fetch(String filePath, int width) {
+    final String derivativePath = derivativePath(checksum(filePath), width);
+
+    if (!fileStorageService.exists(derivativePath)) {
+      createOnce(filePath, derivativePath, width);
+    }
+
+    return fileStorageService.fetchResource(derivativePath);
+  }
+
+  /**
+   * Creates every derivative of a freshly stored image, so the first reader
+   * does not wait for ffmpeg.
+   */
+  public void createAll(String filePath) {
+    final String checksum = checksum(filePath);
+    WIDTHS.forEach(width -> createOnce(filePath, derivativePath(checksum, width), width));
+  }
+
+  /**
+   * Returns the derivative paths among {@code paths} whose original content is
+   * still stored under some path.
+   */
+  public Set<String> withExistingOriginal(Collection<String> paths) {
+    final Set<String> checksums = Set.copyOf(storedFileRepository.findChecksumsOutside(paths.stream()
+        .map(ImageDerivativeService::originalChecksum)
+        .toList(), DIRECTORY + "/"));
+
+    return paths.stream()
+        .filter(path -> checksums.contains(originalChecksum(path)))
+        .collect(Collectors.toSet());
+  }
+
+  private String checksum(String filePath) {
+    return fileStorageService.findOrRegister(filePath)
+        .map(StoredFile::getChecksum)
+        .orElseThrow(() -> new ResourceNotFoundException("File not found: " + filePath));
+  }
+
+  /**
+   * Runs ffmpeg at most once per derivative at a time. Concurrent first views
+   * wait for the running creation instead of starting their own.
+   */
+  private void createOnce(String filePath, String derivativePath, int width) {
+    final CompletableFuture<Void> creation = new CompletableFuture<>();
+    final CompletableFuture<Void> running = creations.putIfAbsent(derivativePath, creation);
+
+    if (running != null) {
+      try {
+        running.join();
+        return;
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+
+    try {
+      if (!fileStorageService.exists(derivativePath)) {
+        create(filePath, derivativePath, width);
+      }
+      creation.complete(null);
+    } catch (RuntimeException e) {
+      creation.completeExceptionally(e);
+      throw e;
+    } finally {
+      creations.remove(derivativePath, creation);
+    }
+  }
+
+  private void create(String filePath, String derivativePath, int width) {
+    try {
+      final Path output = Files.createTempFile("derivative-", ".webp");
+      try {
+        ffmpegService.resizeImageToWidth(fileStorageService.locateFile(filePath), width, output);
+        try (InputStream data = Files.newInputStream(output)) {
+          fileStorageService.saveStream(data, derivativePath);
+        }
+      } finally {
+        Files.deleteIfExists(output);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create %dpx derivative of %s".formatted(width, filePath), e);
+    }
+  }
+
+  static String derivativePath(String checksum, int width) {
+    return "%s/%d/%s.webp".formatted(DIRECTORY, width, checksum);
+  }
+
+  /**
+   * Derivatives written before they were keyed by content have no checksum
+   * in their name, so they never match an original and get collected.
+   */
+  private static String originalChecksum(String derivativePath) {
+    final String name = derivativePath.substring(derivativePath.lastIndexOf('/') + 1);
+    return name.endsWith(".webp") ? name.substring(0, name.length() - ".webp".length()) : name;
+  }
+}
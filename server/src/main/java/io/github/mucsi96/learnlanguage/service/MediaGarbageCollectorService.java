@@ -0,0 +1,324 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.mucsi96.learnlanguage.entity.MediaGcProgress;
+import io.github.mucsi96.learnlanguage.entity.StoredFile;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+import io.github.mucsi96.learnlanguage.model.MediaGcDirectoryReport;
+import io.github.mucsi96.learnlanguage.model.MediaGcReport;
+import io.github.mucsi96.learnlanguage.repository.AudioClipRepository;
+import io.github.mucsi96.learnlanguage.repository.CardMediaRepository;
+import io.github.mucsi96.learnlanguage.repository.CardRepository;
+import io.github.mucsi96.learnlanguage.repository.DocumentRepository;
+import io.github.mucsi96.learnlanguage.repository.MediaGcProgressRepository;
+import io.github.mucsi96.learnlanguage.repository.StoredFileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes stored media no card, document or pending photo references any
+ * more. Runs in the background, walks the stored file index in chunks and
+ * remembers its position per directory, so an interrupted run resumes where
+ * it stopped.
+ * Files younger than the grace period are skipped because clients create
+ * audio and images before saving the card that references them.
+ */
+@Slf4j
+@Service
+public class MediaGarbageCollectorService {
+
+  private static final int SAMPLE_SIZE = 20;
+
+  private final CardRepository cardRepository;
+  private final CardMediaRepository cardMediaRepository;
+  private final DocumentRepository documentRepository;
+  private final StoredFileRepository storedFileRepository;
+  private final AudioClipRepository audioClipRepository;
+  private final MediaGcProgressRepository mediaGcProgressRepository;
+  private final FileStorageService fileStorageService;
+  private final FileStorageMigrationService fileStorageMigrationService;
+  private final PendingPhotoService pendingPhotoService;
+  private final ImageDerivativeService imageDerivativeService;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor mediaGcExecutor;
+  private final Duration gracePeriod;
+  private final int chunkSize;
+  private final int maxDeletesPerSecond;
+  private final MeterRegistry meterRegistry;
+  private final Timer runTimer;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  public MediaGarbageCollectorService(
+      CardRepository cardRepository,
+      CardMediaRepository cardMediaRepository,
+      DocumentRepository documentRepository,
+      StoredFileRepository storedFileRepository,
+      AudioClipRepository audioClipRepository,
+      MediaGcProgressRepository mediaGcProgressRepository,
+      FileStorageService fileStorageService,
+      FileStorageMigrationService fileStorageMigrationService,
+      PendingPhotoService pendingPhotoService,
+      ImageDerivativeService imageDerivativeService,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("mediaGcExecutor") Executor mediaGcExecutor,
+      @Value("${media-gc.grace-period:24h}") Duration gracePeriod,
+      @Value("${media-gc.chunk-size:500}") int chunkSize,
+      @Value("${media-gc.max-deletes-per-second:50}") int maxDeletesPerSecond,
+      MeterRegistry meterRegistry) {
+    this.cardRepository = cardRepository;
+    this.cardMediaRepository = cardMediaRepository;
+    this.documentRepository = documentRepository;
+    this.storedFileRepository = storedFileRepository;
+    this.audioClipRepository = audioClipRepository;
+    this.mediaGcProgressRepository = mediaGcProgressRepository;
+    this.fileStorageService = fileStorageService;
+    this.fileStorageMigrationService = fileStorageMigrationService;
+    this.pendingPhotoService = pendingPhotoService;
+    this.imageDerivativeService = imageDerivativeService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.mediaGcExecutor = mediaGcExecutor;
+    this.gracePeriod = gracePeriod;
+    this.chunkSize = chunkSize;
+    this.maxDeletesPerSecond = maxDeletesPerSecond;
+    this.meterRegistry = meterRegistry;
+    this.runTimer = meterRegistry.timer("media.gc.run");
+    meterRegistry.gauge("media.gc.running", running, flag -> flag.get() ? 1 : 0);
+  }
+
+  @Scheduled(fixedRate = 3_600_000L, initialDelay = 600_000L)
+  public void collectScheduled() {
+    try {
+      mediaGcExecutor.execute(() -> collect(gracePeriod));
+    } catch (TaskRejectedException e) {
+      log.debug("Media GC already queued, skipping scheduled run");
+    }
+  }
+
+  public MediaGcReport collect(Duration gracePeriod) {
+    if (!running.compareAndSet(false, true)) {
+      log.info("Media GC already running, skipping");
+      return null;
+    }
+
+    try {
+      return runTimer.record(() -> {
+        fileStorageMigrationService.migrate();
+        stripUnusedImageReferences();
+        return scan(Instant.now().minus(gracePeriod), false);
+      });
+    } finally {
+      running.set(false);
+    }
+  }
+
+  public MediaGcReport report() {
+    return scan(Instant.now().minus(gracePeriod), true);
+  }
+
+  private MediaGcReport scan(Instant createdBefore, boolean dryRun) {
+    final Set<String> documentPaths = transactionTemplate.execute(status -> {
+      try (Stream<String> stream = documentRepository.streamStoragePaths()) {
+        return stream.collect(Collectors.toCollection(HashSet::new));
+      }
+    });
+    final Set<String> pendingPhotoPaths = new HashSet<>(pendingPhotoService.listFilePaths());
+
+    final List<MediaGcDirectoryReport> directories = List.of(
+        scanDirectory("audio", createdBefore, dryRun,
+            cardMediaRepository.existsByKind(CardMediaKind.AUDIO),
+            this::referencedAudioPaths),
+        scanDirectory("images", createdBefore, dryRun,
+            cardMediaRepository.existsByKind(CardMediaKind.IMAGE),
+            paths -> referencedMediaPaths(CardMediaKind.IMAGE, paths)),
+        scanDirectory("sources", createdBefore, dryRun,
+            !documentPaths.isEmpty(),
+            paths -> paths.stream().filter(documentPaths::contains).collect(Collectors.toSet())),
+        // Pending photos are disposable, so an empty table is no reason to stop
+        scanDirectory("pending-photos", createdBefore, dryRun,
+            true,
+            paths -> paths.stream().filter(pendingPhotoPaths::contains).collect(Collectors.toSet())),
+        // Derivatives can be recreated at any time, they only need their original
+        scanDirectory("derivatives", createdBefore, dryRun,
+            true,
+            imageDerivativeService::withExistingOriginal));
+
+    return MediaGcReport.builder()
+        .dryRun(dryRun)
+        .createdBefore(createdBefore)
+        .directories(directories)
+        .build();
+  }
+
+  private void stripUnusedImageReferences() {
+    int known = 0;
+    int updated;
+    while ((updated = transactionTemplate.execute(
+        status -> cardRepository.stripImagesFromKnownCards(chunkSize))) > 0) {
+      known += updated;
+    }
+
+    int reviewed = 0;
+    while ((updated = transactionTemplate.execute(
+        status -> cardRepository.stripNonFavoriteImagesFromReviewedCards(chunkSize))) > 0) {
+      reviewed += updated;
+    }
+
+    log.info("Stripped all images from {} known cards and non-favorite images from {} cards", known, reviewed);
+  }
+
+  private Set<String> referencedMediaPaths(CardMediaKind kind, List<String> paths) {
+    final Map<String, String> pathsByMediaId = paths.stream()
+        .collect(Collectors.toMap(MediaGarbageCollectorService::mediaId, Function.identity(), (a, b) -> a));
+
+    return cardMediaRepository.findReferencedMediaIds(kind, pathsByMediaId.keySet()).stream()
+        .map(pathsByMediaId::get)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Audio is also kept while a clip holds references, e.g. a cached clip
+   * handed out to a card that has not been saved yet.
+   */
+  private Set<String> referencedAudioPaths(List<String> paths) {
+    final Set<String> referenced = new HashSet<>(referencedMediaPaths(CardMediaKind.AUDIO, paths));
+    final Set<String> clipIds = Set.copyOf(audioClipRepository.findReferencedIds(paths.stream()
+        .map(MediaGarbageCollectorService::mediaId)
+        .toList()));
+    paths.stream()
+        .filter(path -> clipIds.contains(mediaId(path)))
+        .forEach(referenced::add);
+    return referenced;
+  }
+
+  private static String mediaId(String path) {
+    final String fileName = path.substring(path.lastIndexOf('/') + 1);
+    final int extension = fileName.lastIndexOf('.');
+    return extension < 0 ? fileName : fileName.substring(0, extension);
+  }
+
+  private MediaGcDirectoryReport scanDirectory(
+      String directory,
+      Instant createdBefore,
+      boolean dryRun,
+      boolean hasReferences,
+      Function<List<String>, Set<String>> referencedAmong) {
+    final MediaGcDirectoryReport report = MediaGcDirectoryReport.builder()
+        .directory(directory)
+        .samplePaths(new ArrayList<>())
+        .build();
+
+    String cursor = dryRun ? "" : loadCursor(directory);
+    List<StoredFile> chunk;
+
+    while (!(chunk = storedFileRepository.findChunk(directory + "/", cursor, createdBefore, Limit.of(chunkSize)))
+        .isEmpty()) {
+      if (!hasReferences) {
+        log.warn("Skipping {} garbage collection: stored files exist but nothing references any", directory);
+        report.setSkipped(true);
+        return report;
+      }
+
+      final Set<String> referencedPaths = referencedAmong.apply(chunk.stream().map(StoredFile::getPath).toList());
+      final List<StoredFile> unreferenced = chunk.stream()
+          .filter(file -> !referencedPaths.contains(file.getPath()))
+          .toList();
+
+      report.setScannedCount(report.getScannedCount() + chunk.size());
+      report.setUnreferencedCount(report.getUnreferencedCount() + unreferenced.size());
+      report.setUnreferencedBytes(report.getUnreferencedBytes()
+          + unreferenced.stream().mapToLong(StoredFile::getSize).sum());
+      unreferenced.stream()
+          .limit(SAMPLE_SIZE - report.getSamplePaths().size())
+          .map(StoredFile::getPath)
+          .forEach(report.getSamplePaths()::add);
+      meterRegistry.counter("media.gc.scanned", "directory", directory).increment(chunk.size());
+
+      cursor = chunk.getLast().getPath();
+
+      if (!dryRun) {
+        delete(directory, unreferenced.stream().map(StoredFile::getPath).toList());
+        report.setDeletedCount(report.getDeletedCount() + unreferenced.size());
+        saveCursor(directory, cursor);
+        if (!throttle(unreferenced.size())) {
+          return report;
+        }
+      }
+    }
+
+    if (!dryRun) {
+      saveCursor(directory, "");
+      if (report.getDeletedCount() > 0) {
+        log.info("Media GC deleted {} unreferenced file(s) from {}", report.getDeletedCount(), directory);
+      }
+    }
+
+    return report;
+  }
+
+  private void delete(String directory, List<String> paths) {
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    paths.forEach(fileStorageService::deleteFile);
+
+    if ("audio".equals(directory)) {
+      audioClipRepository.deleteByIdIn(paths.stream()
+          .map(MediaGarbageCollectorService::mediaId)
+          .toList());
+    }
+
+    meterRegistry.counter("media.gc.deleted", "directory", directory).increment(paths.size());
+  }
+
+  private boolean throttle(int deleted) {
+    if (deleted == 0 || maxDeletesPerSecond <= 0) {
+      return true;
+    }
+
+    try {
+      Thread.sleep(deleted * 1000L / maxDeletesPerSecond);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private String loadCursor(String directory) {
+    return mediaGcProgressRepository.findById(directory)
+        .map(MediaGcProgress::getCursor)
+        .orElse("");
+  }
+
+  private void saveCursor(String directory, String cursor) {
+    mediaGcProgressRepository.save(MediaGcProgress.builder()
+        .directory(directory)
+        .cursor(cursor)
+        .updatedAt(Instant.now())
+        .build());
+  }
+}
@@ -0,0 +1,192 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps recently used PDFs open, so page, span and region requests on the
+ * same book do not parse the whole file again. Documents are read from disk
+ * through a buffered random access file instead of a heap copy. The least
+ * recently used documents are closed once the summed file size exceeds
+ * {@code pdf-cache.max-weight}. A {@link PDDocument} is not thread safe, so
+ * each one is used by a single caller at a time.
+ */
+@Slf4j
+@Component
+public class PdfDocumentCache {
+
+  @FunctionalInterface
+  public interface DocumentCallback<T> {
+    T apply(PDDocument document) throws IOException;
+  }
+
+  private final FileStorageService fileStorageService;
+  private final long maxWeight;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long weight;
+
+  public PdfDocumentCache(
+      FileStorageService fileStorageService,
+      @Value("${pdf-cache.max-weight:256MB}") DataSize maxWeight,
+      MeterRegistry meterRegistry) {
+    this.fileStorageService = fileStorageService;
+    this.maxWeight = maxWeight.toBytes();
+    this.hits = meterRegistry.counter("pdf.cache.gets", "result", "hit");
+    this.misses = meterRegistry.counter("pdf.cache.gets", "result", "miss");
+    this.evictions = meterRegistry.counter("pdf.cache.evictions");
+    meterRegistry.gauge("pdf.cache.size", this, PdfDocumentCache::size);
+    meterRegistry.gauge("pdf.cache.weight", this, PdfDocumentCache::weight);
+  }
+
+  /**
+   * Runs {@code callback} with the parsed document stored at {@code filePath}.
+   * The callback must not open other documents through this cache.
+   */
+  public <T> T withDocument(String filePath, DocumentCallback<T> callback) throws IOException {
+    final Path path = fileStorageService.locateFile(filePath);
+    final FileTime modified = Files.getLastModifiedTime(path);
+    final long size = Files.size(path);
+
+    while (true) {
+      final Entry entry = entry(filePath, modified, size);
+      entry.lock.lock();
+      try {
+        if (entry.closed) {
+          continue;
+        }
+
+        if (entry.document == null) {
+          try {
+            entry.document = Loader.loadPDF(new RandomAccessReadBufferedFile(path.toFile()));
+          } catch (IOException e) {
+            entry.closed = true;
+            remove(filePath, entry);
+            throw e;
+          }
+        }
+
+        return callback.apply(entry.document);
+      } finally {
+        entry.lock.unlock();
+      }
+    }
+  }
+
+  private Entry entry(String filePath, FileTime modified, long size) {
+    final List<Entry> evicted = new ArrayList<>();
+    final Entry entry;
+
+    synchronized (entries) {
+      final Entry cached = entries.get(filePath);
+      if (cached != null && cached.modified.equals(modified)) {
+        hits.increment();
+        return cached;
+      }
+
+      misses.increment();
+      if (cached != null) {
+        entries.remove(filePath);
+        weight -= cached.weight;
+        evicted.add(cached);
+      }
+
+      entry = new Entry(modified, size);
+      entries.put(filePath, entry);
+      weight += size;
+
+      // The newest entry stays even when it alone exceeds the budget
+      final Iterator<Entry> eldest = entries.values().iterator();
+      while (weight > maxWeight && entries.size() > 1) {
+        final Entry victim = eldest.next();
+        eldest.remove();
+        weight -= victim.weight;
+        evicted.add(victim);
+        evictions.increment();
+      }
+    }
+
+    evicted.forEach(this::close);
+    return entry;
+  }
+
+  private void remove(String filePath, Entry entry) {
+    synchronized (entries) {
+      if (entries.remove(filePath, entry)) {
+        weight -= entry.weight;
+      }
+    }
+  }
+
+  private void close(Entry entry) {
+    entry.lock.lock();
+    try {
+      entry.closed = true;
+      if (entry.document != null) {
+        entry.document.close();
+      }
+    } catch (IOException e) {
+      log.warn("Failed to close cached PDF document", e);
+    } finally {
+      entry.lock.unlock();
+    }
+  }
+
+  private double size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private double weight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    final List<Entry> closing;
+    synchronized (entries) {
+      closing = new ArrayList<>(entries.values());
+      entries.clear();
+      weight = 0;
+    }
+    closing.forEach(this::close);
+  }
+
+  private static class Entry {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FileTime modified;
+    private final long weight;
+    private PDDocument document;
+    private boolean closed;
+
+    private Entry(FileTime modified, long weight) {
+      this.modified = modified;
+      this.weight = weight;
+    }
+  }
+}
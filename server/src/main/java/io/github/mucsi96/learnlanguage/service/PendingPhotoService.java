@@ -1,39 +1,64 @@
 package io.github.mucsi96.learnlanguage.service;
 
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
+import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.github.mucsi96.learnlanguage.entity.PendingPhoto;
 import io.github.mucsi96.learnlanguage.entity.Source;
+import io.github.mucsi96.learnlanguage.entity.StoredFile;
 import io.github.mucsi96.learnlanguage.repository.PendingPhotoMetaProjection;
 import io.github.mucsi96.learnlanguage.repository.PendingPhotoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Keeps at most one photo per user and source between upload and card
+ * generation. Image bytes live in file storage under
+ * {@value #DIRECTORY}, the table only holds metadata.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PendingPhotoService {
 
   static final Duration TTL = Duration.ofHours(24);
+  static final String DIRECTORY = "pending-photos";
+  static final Set<String> EXTENSIONS = Set.of(".png", ".jpg", ".jpeg", ".gif", ".webp");
 
   private final PendingPhotoRepository pendingPhotoRepository;
+  private final FileStorageService fileStorageService;
+  private final TransactionTemplate transactionTemplate;
 
   @Transactional
-  public PendingPhoto upsert(String userId, Source source, byte[] bytes, String contentType) {
-    pendingPhotoRepository.deleteByUserIdAndSource(userId, source);
+  public PendingPhoto upsert(String userId, Source source, InputStream data, String fileName, String contentType) {
+    discard(userId, source);
     pendingPhotoRepository.flush();
 
+    final StoredFile file = fileStorageService.saveStream(data,
+        DIRECTORY + "/" + UUID.randomUUID() + extension(fileName));
+    deleteFileAfterRollback(file.getPath());
+
     final Instant now = Instant.now();
     return pendingPhotoRepository.save(PendingPhoto.builder()
         .userId(userId)
         .source(source)
-        .imageData(bytes)
+        .filePath(file.getPath())
+        .size(file.getSize())
         .contentType(contentType)
         .createdAt(now)
         .expiresAt(now.plus(TTL))
@@ -46,6 +71,7 @@ public class PendingPhotoService {
         .flatMap(meta -> {
           if (meta.getExpiresAt().isBefore(Instant.now())) {
             pendingPhotoRepository.deleteByIdSkippingLoad(meta.getId());
+            deleteFileAfterCommit(meta.getFilePath());
             return Optional.empty();
           }
           return Optional.of(meta);
@@ -57,29 +83,98 @@ public class PendingPhotoService {
     return pendingPhotoRepository.findByUserIdAndSource(userId, source)
         .flatMap(photo -> {
           if (photo.getExpiresAt().isBefore(Instant.now())) {
-            pendingPhotoRepository.delete(photo);
+            delete(photo);
             return Optional.empty();
           }
           return Optional.of(photo);
         });
   }
 
+  public Resource fetchImage(PendingPhoto photo) {
+    return fileStorageService.fetchResource(photo.getFilePath());
+  }
+
+  public byte[] fetchImageData(PendingPhoto photo) {
+    return fileStorageService.fetchFile(photo.getFilePath()).toBytes();
+  }
+
   @Transactional
   public void discard(String userId, Source source) {
+    pendingPhotoRepository.findMetaByUserIdAndSource(userId, source)
+        .ifPresent(meta -> deleteFileAfterCommit(meta.getFilePath()));
     pendingPhotoRepository.deleteByUserIdAndSource(userId, source);
   }
 
   @Transactional
   public void delete(PendingPhoto photo) {
     pendingPhotoRepository.delete(photo);
+    deleteFileAfterCommit(photo.getFilePath());
+  }
+
+  /**
+   * Lists the files of all pending photos, expired or not, so the media
+   * garbage collector can tell orphaned uploads apart.
+   */
+  public List<String> listFilePaths() {
+    return pendingPhotoRepository.findAllFilePaths();
   }
 
   @Scheduled(fixedRate = 3_600_000L)
   @Transactional
   public void cleanupExpired() {
-    final int removed = pendingPhotoRepository.deleteByExpiresAtBefore(Instant.now());
+    final Instant cutoff = Instant.now();
+    final List<String> filePaths = pendingPhotoRepository.findFilePathsByExpiresAtBefore(cutoff);
+    final int removed = pendingPhotoRepository.deleteByExpiresAtBefore(cutoff);
+    filePaths.forEach(this::deleteFileAfterCommit);
     if (removed > 0) {
       log.info("Cleaned up {} expired pending photo(s)", removed);
     }
   }
+
+  /**
+   * Deletes the file once the row pointing at it is gone for good, so a
+   * rolled back delete never leaves a photo without its image.
+   */
+  private void deleteFileAfterCommit(String filePath) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      fileStorageService.deleteFile(filePath);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        deleteFileInNewTransaction(filePath);
+      }
+    });
+  }
+
+  private void deleteFileAfterRollback(String filePath) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          deleteFileInNewTransaction(filePath);
+        }
+      }
+    });
+  }
+
+  // The finished transaction is still bound here, so the index row is
+  // removed in a transaction of its own
+  private void deleteFileInNewTransaction(String filePath) {
+    final TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    requiresNew.executeWithoutResult(status -> fileStorageService.deleteFile(filePath));
+  }
+
+  private static String extension(String fileName) {
+    final int dot = fileName.lastIndexOf('.');
+    final String extension = dot < 0 ? "" : fileName.substring(dot).toLowerCase(Locale.ROOT);
+    return EXTENSIONS.contains(extension) ? extension : "";
+  }
 }
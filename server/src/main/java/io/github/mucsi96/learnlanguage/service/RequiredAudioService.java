@@ -0,0 +1,83 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.mucsi96.learnlanguage.entity.Card;
+import io.github.mucsi96.learnlanguage.repository.CardMediaDirtyRepository;
+import io.github.mucsi96.learnlanguage.repository.CardMediaRepository;
+import io.github.mucsi96.learnlanguage.repository.CardRepository;
+import io.github.mucsi96.learnlanguage.service.cardtype.CardTypeStrategy.AudioTextItem;
+import io.github.mucsi96.learnlanguage.service.cardtype.CardTypeStrategyFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@code REQUIRED_AUDIO} rows of {@code card_media} in line with
+ * {@link io.github.mucsi96.learnlanguage.service.cardtype.CardTypeStrategy#getRequiredAudioTexts}.
+ * The card media trigger only marks written cards in {@code card_media_dirty};
+ * readers call {@link #refresh()} first, so the strategies stay the single
+ * definition of which audio a card needs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RequiredAudioService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final CardRepository cardRepository;
+    private final CardMediaRepository cardMediaRepository;
+    private final CardMediaDirtyRepository cardMediaDirtyRepository;
+    private final CardTypeStrategyFactory cardTypeStrategyFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    public synchronized void refresh() {
+        int refreshed;
+        do {
+            refreshed = transactionTemplate.execute(status -> refreshChunk());
+        } while (refreshed == CHUNK_SIZE);
+    }
+
+    private int refreshChunk() {
+        final List<String> cardIds = cardMediaDirtyRepository.findCardIds(CHUNK_SIZE);
+        if (cardIds.isEmpty()) {
+            return 0;
+        }
+
+        final String[] ids = cardIds.toArray(String[]::new);
+        // Markers are cleared before the cards are read, so a change committed
+        // after that read marks its card again
+        cardMediaDirtyRepository.clearDirty(ids);
+
+        final List<String> rowCardIds = new ArrayList<>();
+        final List<String> texts = new ArrayList<>();
+        final List<String> languages = new ArrayList<>();
+        final List<Boolean> fronts = new ArrayList<>();
+        for (final Card card : cardRepository.findByIdInOrderByIdAsc(cardIds)) {
+            final List<AudioTextItem> items = cardTypeStrategyFactory.getStrategy(card.getSource().getCardType())
+                    .getRequiredAudioTexts(card.getData());
+            items.forEach(item -> {
+                rowCardIds.add(card.getId());
+                texts.add(item.text());
+                languages.add(item.language());
+                fronts.add(item.isFront());
+            });
+        }
+
+        cardMediaRepository.deleteRequiredAudio(ids);
+        if (!rowCardIds.isEmpty()) {
+            cardMediaRepository.insertRequiredAudio(
+                    rowCardIds.toArray(String[]::new),
+                    texts.toArray(String[]::new),
+                    languages.toArray(String[]::new),
+                    fronts.toArray(Boolean[]::new));
+        }
+
+        log.debug("Refreshed required audio of {} cards", cardIds.size());
+        return cardIds.size();
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.mucsi96.learnlanguage.model.SourceDailyStatsResponse;
+import io.github.mucsi96.learnlanguage.repository.SourceDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records per source figures for each day. Days are UTC calendar days, the
+ * same convention review timestamps are stored in, so a day's reviews are
+ * the ones between two consecutive UTC midnights whatever the user's zone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SourceDailyStatsService {
+
+    private final SourceDailyStatsRepository sourceDailyStatsRepository;
+
+    /**
+     * Closes the day that just ended. Run right after UTC midnight, the card
+     * counts taken now are the counts that day ended with.
+     */
+    @Scheduled(cron = "0 5 0 * * *", zone = "UTC")
+    @Transactional
+    public void snapshotScheduled() {
+        snapshot(LocalDate.now(ZoneOffset.UTC).minusDays(1), true);
+    }
+
+    /**
+     * Writes the review figures of {@code date}. Card counts only reflect the
+     * present, so they are recorded for today and otherwise left as the last
+     * snapshot taken for that day stored them, or null.
+     */
+    @Transactional
+    public int snapshot(LocalDate date) {
+        return snapshot(date, date.equals(LocalDate.now(ZoneOffset.UTC)));
+    }
+
+    private int snapshot(LocalDate date, boolean withCardCounts) {
+        final int written = sourceDailyStatsRepository.upsertSnapshot(
+                date,
+                withCardCounts,
+                date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay());
+        log.info("Wrote {} source daily stats snapshot(s) for {}", written, date);
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SourceDailyStatsResponse> getSeries(String sourceId, LocalDate from, LocalDate to) {
+        return sourceDailyStatsRepository.findSeries(sourceId, from, to).stream()
+                .map(SourceDailyStatsResponse::from)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SourceDailyStatsResponse> getAllSeries(LocalDate from, LocalDate to) {
+        return sourceDailyStatsRepository.findAllSeries(from, to).stream()
+                .map(SourceDailyStatsResponse::from)
+                .toList();
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import io.github.mucsi96.learnlanguage.entity.Source;
 import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
+import io.github.mucsi96.learnlanguage.model.CardMediaKind;
+import io.github.mucsi96.learnlanguage.repository.CardMediaRepository;
 import io.github.mucsi96.learnlanguage.repository.CardRepository;
 import io.github.mucsi96.learnlanguage.repository.SourceRepository;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +23,8 @@ public class SourceService {
 
     private final SourceRepository sourceRepository;
     private final CardRepository cardRepository;
+    private final CardMediaRepository cardMediaRepository;
+    private final AudioClipService audioClipService;
 
     public List<Source> getAllSources() {
         return sourceRepository.findAllByOrderByIdAsc();
@@ -46,6 +50,7 @@ public class SourceService {
 
     @Transactional
     public void deleteSource(Source source) {
+        audioClipService.releaseAll(cardMediaRepository.findMediaIdsBySource(CardMediaKind.AUDIO, source));
         cardRepository.deleteBySource(source);
         sourceRepository.delete(source);
     }
@@ -0,0 +1,92 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import io.github.mucsi96.learnlanguage.entity.Source;
+import io.github.mucsi96.learnlanguage.model.SourceResponse;
+import io.github.mucsi96.learnlanguage.model.SourceType;
+import io.github.mucsi96.learnlanguage.repository.DocumentRepository;
+import io.github.mucsi96.learnlanguage.repository.SourcePageCountProjection;
+import io.github.mucsi96.learnlanguage.repository.SourceRepository;
+import io.github.mucsi96.learnlanguage.service.CardService.SourceStats;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+@RequiredArgsConstructor
+public class SourcesOverviewService {
+
+    public record SourcesOverview(long version, List<SourceResponse> sources, String etag) {
+    }
+
+    private static final SourceStats EMPTY_STATS = SourceStats.builder()
+            .cardCount(0).draftCardCount(0).flaggedCardCount(0).unhealthyCardCount(0).suggestedKnownCardCount(0)
+            .stateCounts(Map.of()).readinessCounts(Map.of())
+            .build();
+
+    private final SourceRepository sourceRepository;
+    private final DocumentRepository documentRepository;
+    private final CardService cardService;
+    private final JsonMapper jsonMapper;
+
+    private final AtomicReference<SourcesOverview> snapshot = new AtomicReference<>();
+
+    @Transactional(readOnly = true)
+    public SourcesOverview getOverview() {
+        final long version = sourceRepository.getOverviewVersion();
+        final SourcesOverview current = snapshot.get();
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        final List<SourceResponse> sources = buildSources();
+        final SourcesOverview overview = new SourcesOverview(version, sources,
+                "\"" + DigestUtils.md5DigestAsHex(jsonMapper.writeValueAsBytes(sources)) + "\"");
+        snapshot.set(overview);
+        return overview;
+    }
+
+    private List<SourceResponse> buildSources() {
+        final Map<String, SourceStats> statsMap = cardService.getSourceStats();
+        final Map<String, Integer> pageCounts = documentRepository.findPageCountsBySourceType(SourceType.IMAGES)
+                .stream()
+                .collect(Collectors.toMap(SourcePageCountProjection::getSourceId,
+                        SourcePageCountProjection::getPageCount));
+
+        return sourceRepository.findAllByOrderByIdAsc().stream().map(source -> {
+            final SourceStats stats = statsMap.getOrDefault(source.getId(), EMPTY_STATS);
+
+            return SourceResponse.builder()
+                    .id(source.getId())
+                    .name(source.getName())
+                    .sourceType(source.getSourceType())
+                    .cardType(source.getCardType())
+                    .startPage(source.getBookmarkedPage() != null ? source.getBookmarkedPage() : source.getStartPage())
+                    .pageCount(source.getSourceType() == SourceType.IMAGES
+                            ? pageCounts.getOrDefault(source.getId(), 0)
+                            : null)
+                    .cardCount(stats.getCardCount())
+                    .draftCardCount(stats.getDraftCardCount())
+                    .flaggedCardCount(stats.getFlaggedCardCount())
+                    .unhealthyCardCount(stats.getUnhealthyCardCount())
+                    .suggestedKnownCardCount(stats.getSuggestedKnownCardCount())
+                    .stateCounts(stats.getStateCounts())
+                    .readinessCounts(stats.getReadinessCounts())
+                    .languageLevel(source.getLanguageLevel())
+                    .formatType(source.getFormatType())
+                    .cardLimit(source.getCardLimit())
+                    .newCardLimit(source.getNewCardLimit())
+                    .learningPartnerId(source.getLearningPartner() != null ? source.getLearningPartner().getId() : null)
+                    .detectionSourceIds(source.getDetectionSources().stream().map(Source::getId).sorted().toList())
+                    .prompt(source.getPrompt())
+                    .build();
+        }).toList();
+    }
+}
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.fontbox.util.BoundingBox;
-import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
@@ -122,42 +121,40 @@ public class SpanExtractor extends PDFTextStripper {
     return new double[] { Xstart, Ystart, Xend, height };
   }
 
-  public List<Span> extractSpans(byte[] bytes, int pageNumber) throws IOException {
-    try (PDDocument document = Loader.loadPDF(bytes)) {
-      if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
-        throw new IllegalArgumentException("Invalid page number");
-      }
-
-      this.setStartPage(pageNumber);
-      this.setEndPage(pageNumber);
-      PDPage pdPage = document.getPage(pageNumber - 1);
-      PDRectangle cropBox = pdPage.getCropBox();
-
-      // flip y-axis
-      flipAT = new AffineTransform();
-      flipAT.translate(0, pdPage.getBBox().getHeight());
-      flipAT.scale(1, -1);
-
-      // page may be rotated
-      rotateAT = new AffineTransform();
-      int rotation = pdPage.getRotation();
-      switch (rotation) {
-        case 90:
-          rotateAT.translate(cropBox.getHeight(), 0);
-          break;
-        case 270:
-          rotateAT.translate(0, cropBox.getWidth());
-          break;
-        case 180:
-          rotateAT.translate(cropBox.getWidth(), cropBox.getHeight());
-          break;
-        default:
-          break;
-      }
-      rotateAT.rotate(Math.toRadians(rotation));
+  public List<Span> extractSpans(PDDocument document, int pageNumber) throws IOException {
+    if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
+      throw new IllegalArgumentException("Invalid page number");
+    }
 
-      this.getText(document);
-      return spans;
+    this.setStartPage(pageNumber);
+    this.setEndPage(pageNumber);
+    PDPage pdPage = document.getPage(pageNumber - 1);
+    PDRectangle cropBox = pdPage.getCropBox();
+
+    // flip y-axis
+    flipAT = new AffineTransform();
+    flipAT.translate(0, pdPage.getBBox().getHeight());
+    flipAT.scale(1, -1);
+
+    // page may be rotated
+    rotateAT = new AffineTransform();
+    int rotation = pdPage.getRotation();
+    switch (rotation) {
+      case 90:
+        rotateAT.translate(cropBox.getHeight(), 0);
+        break;
+      case 270:
+        rotateAT.translate(0, cropBox.getWidth());
+        break;
+      case 180:
+        rotateAT.translate(cropBox.getWidth(), cropBox.getHeight());
+        break;
+      default:
+        break;
     }
+    rotateAT.rotate(Math.toRadians(rotation));
+
+    this.getText(document);
+    return spans;
   }
 }
@@ -0,0 +1,4 @@
+package io.github.mucsi96.learnlanguage.service;
+
+public record StudySessionChangedEvent(String sourceId) {
+}
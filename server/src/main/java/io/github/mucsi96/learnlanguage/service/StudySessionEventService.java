@@ -0,0 +1,150 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfDayUtc;
+import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfNextDayUtc;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.github.mucsi96.learnlanguage.model.SessionStatsResponse;
+import io.github.mucsi96.learnlanguage.model.SourceDueCardCountResponse;
+import io.github.mucsi96.learnlanguage.model.StudySessionCardResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudySessionEventService {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60_000L;
+
+    private record Subscriber(SseEmitter emitter, ZoneId timezone, SecurityContext securityContext) {
+    }
+
+    private final StudySessionService studySessionService;
+    private final CardService cardService;
+
+    private final Map<String, Set<Subscriber>> sessionSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> dueCountSubscribers = ConcurrentHashMap.newKeySet();
+
+    public SseEmitter subscribeToSession(String sourceId, ZoneId timezone) {
+        final Subscriber subscriber = newSubscriber(timezone);
+        sessionSubscribers.compute(sourceId, (key, subscribers) -> {
+            final Set<Subscriber> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        registerCleanup(subscriber, () -> sessionSubscribers.computeIfPresent(sourceId, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        }));
+
+        sendSessionState(sourceId, subscriber);
+        return subscriber.emitter();
+    }
+
+    public SseEmitter subscribeToDueCounts(ZoneId timezone) {
+        final Subscriber subscriber = newSubscriber(timezone);
+        dueCountSubscribers.add(subscriber);
+        registerCleanup(subscriber, () -> dueCountSubscribers.remove(subscriber));
+
+        sendDueCounts(timezone, Set.of(subscriber));
+        return subscriber.emitter();
+    }
+
+    @Async("studySessionEventExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudySessionChanged(StudySessionChangedEvent event) {
+        sessionSubscribers.getOrDefault(event.sourceId(), Set.of())
+                .forEach(subscriber -> sendSessionState(event.sourceId(), subscriber));
+        groupByTimezone(dueCountSubscribers).forEach(this::sendDueCounts);
+    }
+
+    @Scheduled(fixedRate = 30_000L)
+    public void sendHeartbeat() {
+        sessionSubscribers.values().forEach(subscribers -> subscribers.forEach(this::sendHeartbeat));
+        dueCountSubscribers.forEach(this::sendHeartbeat);
+    }
+
+    private void sendSessionState(String sourceId, Subscriber subscriber) {
+        final SecurityContext previousContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(subscriber.securityContext());
+        try {
+            final StudySessionCardResponse currentCard = studySessionService
+                    .getCurrentCardBySourceId(sourceId, startOfDayUtc(subscriber.timezone()),
+                            startOfNextDayUtc(subscriber.timezone()))
+                    .orElse(null);
+            final SessionStatsResponse stats = studySessionService
+                    .getSessionStats(sourceId, startOfDayUtc(subscriber.timezone()))
+                    .orElse(null);
+
+            send(subscriber, currentCard != null
+                    ? SseEmitter.event().name("current-card").data(currentCard)
+                    : SseEmitter.event().name("session-complete").data(""));
+            if (stats != null) {
+                send(subscriber, SseEmitter.event().name("stats").data(stats));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish study session state for source {}", sourceId, e);
+        } finally {
+            SecurityContextHolder.setContext(previousContext);
+        }
+    }
+
+    private void sendDueCounts(ZoneId timezone, Set<Subscriber> subscribers) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        try {
+            final List<SourceDueCardCountResponse> dueCounts = cardService
+                    .getDueCardCountsBySource(startOfDayUtc(timezone), startOfNextDayUtc(timezone));
+            subscribers.forEach(subscriber -> send(subscriber, SseEmitter.event().name("due-counts").data(dueCounts)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish due card counts", e);
+        }
+    }
+
+    private void sendHeartbeat(Subscriber subscriber) {
+        send(subscriber, SseEmitter.event().comment("heartbeat"));
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscriber.emitter().completeWithError(e);
+        }
+    }
+
+    private Subscriber newSubscriber(ZoneId timezone) {
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        return new Subscriber(new SseEmitter(EMITTER_TIMEOUT_MS), timezone, securityContext);
+    }
+
+    private void registerCleanup(Subscriber subscriber, Runnable cleanup) {
+        subscriber.emitter().onCompletion(cleanup);
+        subscriber.emitter().onTimeout(cleanup);
+        subscriber.emitter().onError(error -> cleanup.run());
+    }
+
+    private Map<ZoneId, Set<Subscriber>> groupByTimezone(Set<Subscriber> subscribers) {
+        return subscribers.stream()
+                .collect(Collectors.groupingBy(Subscriber::timezone, Collectors.toSet()));
+    }
+}
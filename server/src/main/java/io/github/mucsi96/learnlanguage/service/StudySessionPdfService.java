@@ -6,7 +6,6 @@ import java.io.InputStream;
 import java.util.Arrays;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,13 +28,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.github.mucsi96.learnlanguage.entity.Card;
-import io.github.mucsi96.learnlanguage.entity.ReviewLog;
 import io.github.mucsi96.learnlanguage.entity.StudySession;
+import io.github.mucsi96.learnlanguage.entity.StudySessionReviewStats;
 import io.github.mucsi96.learnlanguage.model.CardData;
 import io.github.mucsi96.learnlanguage.model.CardType;
 import io.github.mucsi96.learnlanguage.model.ExampleData;
-import io.github.mucsi96.learnlanguage.repository.ReviewLogRepository;
 import io.github.mucsi96.learnlanguage.repository.StudySessionRepository;
+import io.github.mucsi96.learnlanguage.repository.StudySessionReviewStatsRepository;
 import lombok.RequiredArgsConstructor;
 
 import static io.github.mucsi96.learnlanguage.repository.specification.StudySessionSpecifications.createdOnOrAfter;
@@ -56,33 +55,17 @@ public class StudySessionPdfService {
     private static final Pattern GRAMMAR_GAP_PATTERN = Pattern.compile("\\[([^\\]]+)\\]");
 
     private final StudySessionRepository studySessionRepository;
-    private final ReviewLogRepository reviewLogRepository;
+    private final StudySessionReviewStatsRepository studySessionReviewStatsRepository;
 
     @Transactional(readOnly = true)
     public Optional<byte[]> generateStruggledCardsPdf(String sourceId, LocalDateTime startOfDay) {
         return studySessionRepository.findOne(hasSourceId(sourceId).and(createdOnOrAfter(startOfDay)))
-                .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()))
                 .flatMap(session -> Optional.ofNullable(buildPdf(session, startOfDay)));
     }
 
     private byte[] buildPdf(StudySession session, LocalDateTime startOfDay) {
-        final List<String> cardIds = session.getCards().stream()
-                .map(sc -> sc.getCard().getId())
-                .toList();
-
-        final List<ReviewLog> allReviews = reviewLogRepository
-                .findByCardIdInAndReviewGreaterThanEqualOrderByIdAsc(cardIds, startOfDay);
-
-        final Map<String, List<ReviewLog>> reviewsPerCard = allReviews.stream()
-                .collect(Collectors.groupingBy(
-                        rl -> rl.getCard().getId() + ":" + (rl.getLearningPartner() != null ? rl.getLearningPartner().getId() : "self"),
-                        LinkedHashMap::new,
-                        Collectors.toList()));
-
-        final List<ReviewLog> struggledReviews = reviewsPerCard.values().stream()
-                .filter(reviews -> reviews.stream().anyMatch(rl -> rl.getRating() < 3))
-                .map(reviews -> reviews.getFirst())
-                .toList();
+        final List<StudySessionReviewStats> struggledReviews = studySessionReviewStatsRepository
+                .findBySession_IdAndStruggledTrueOrderByIdAsc(session.getId());
 
         if (struggledReviews.isEmpty()) {
             return null;
@@ -97,20 +80,20 @@ public class StudySessionPdfService {
         }
 
         final List<Card> struggledCards = struggledReviews.stream()
-                .map(ReviewLog::getCard)
+                .map(StudySessionReviewStats::getCard)
                 .distinct()
                 .toList();
 
         return buildSinglePagePdf(struggledCards, sourceName, cardType, dateStr, null);
     }
 
-    private byte[] buildPartnerModePdf(List<ReviewLog> struggledReviews, String sourceName,
+    private byte[] buildPartnerModePdf(List<StudySessionReviewStats> struggledReviews, String sourceName,
             CardType cardType, String dateStr) {
         final String userName = getCurrentUserFirstName();
 
-        final Map<String, List<ReviewLog>> byPerson = struggledReviews.stream()
+        final Map<String, List<StudySessionReviewStats>> byPerson = struggledReviews.stream()
                 .collect(Collectors.groupingBy(
-                        rl -> rl.getLearningPartner() != null ? rl.getLearningPartner().getName() : userName));
+                        stats -> stats.getLearningPartner() != null ? stats.getLearningPartner().getName() : userName));
 
         try (final PDDocument document = new PDDocument()) {
             final PDFont regularFont = loadFont(document, "fonts/DejaVuSans.ttf");
@@ -118,7 +101,7 @@ public class StudySessionPdfService {
 
             byPerson.forEach((personName, reviews) -> {
                 final List<Card> cards = reviews.stream()
-                        .map(ReviewLog::getCard)
+                        .map(StudySessionReviewStats::getCard)
                         .distinct()
                         .toList();
                 addCardsPages(document, cards, sourceName, cardType, dateStr, personName, regularFont, boldFont);
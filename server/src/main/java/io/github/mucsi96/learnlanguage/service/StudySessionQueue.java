@@ -0,0 +1,112 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+@RequiredArgsConstructor
+public class StudySessionQueue {
+
+    @Value
+    @Builder(toBuilder = true)
+    public static class Entry {
+        Integer id;
+        String cardId;
+        int position;
+        Integer learningPartnerId;
+        String learningPartnerName;
+        boolean swapApplies;
+    }
+
+    private static final Comparator<Entry> BY_POSITION = Comparator
+            .comparingInt(Entry::getPosition)
+            .thenComparing(Entry::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Getter
+    private final String sessionId;
+
+    @Getter
+    private final String sourceId;
+
+    @Getter
+    private final String studyMode;
+
+    @Getter
+    private final LocalDateTime createdAt;
+
+    private final NavigableSet<Entry> byPosition = new TreeSet<>(BY_POSITION);
+    private final Map<String, Entry> byCardId = new HashMap<>();
+
+    public synchronized void add(Entry entry) {
+        final Entry previous = byCardId.put(entry.getCardId(), entry);
+        if (previous != null) {
+            byPosition.remove(previous);
+        }
+        byPosition.add(entry);
+    }
+
+    public synchronized boolean remove(String cardId) {
+        final Entry removed = byCardId.remove(cardId);
+        if (removed == null) {
+            return false;
+        }
+        byPosition.remove(removed);
+        return true;
+    }
+
+    public synchronized boolean removeAll(Collection<String> cardIds) {
+        boolean changed = false;
+        for (final String cardId : cardIds) {
+            changed |= remove(cardId);
+        }
+        return changed;
+    }
+
+    public synchronized Entry moveToBack(Entry entry) {
+        final Entry moved = entry.toBuilder()
+                .position(nextPosition())
+                .build();
+        add(moved);
+        return moved;
+    }
+
+    public synchronized Optional<Entry> head() {
+        return byPosition.isEmpty() ? Optional.empty() : Optional.of(byPosition.first());
+    }
+
+    public synchronized Optional<Entry> findByCardId(String cardId) {
+        return Optional.ofNullable(byCardId.get(cardId));
+    }
+
+    public synchronized int nextPosition() {
+        return byPosition.isEmpty() ? 0 : byPosition.last().getPosition() + 1;
+    }
+
+    public synchronized List<Entry> entries() {
+        return List.copyOf(byPosition);
+    }
+
+    public synchronized Set<String> cardIds() {
+        return Set.copyOf(byCardId.keySet());
+    }
+
+    public synchronized int size() {
+        return byCardId.size();
+    }
+
+    public boolean isWithPartner() {
+        return "WITH_PARTNER".equals(studyMode);
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.github.mucsi96.learnlanguage.entity.StudySession;
+import io.github.mucsi96.learnlanguage.entity.StudySessionCard;
+import io.github.mucsi96.learnlanguage.repository.StudySessionCardQueueProjection;
+import io.github.mucsi96.learnlanguage.repository.StudySessionCardRepository;
+import io.github.mucsi96.learnlanguage.repository.StudySessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Keeps the queues of today's sessions in memory. A session is only current
+ * for a day in any timezone, so queues older than {@link #MAX_AGE} are
+ * dropped, and at most {@code study-session.queue-cache.max-size} queues are
+ * kept, oldest first out. Evicted queues are reloaded from the database.
+ */
+@Component
+public class StudySessionQueueCache {
+
+    static final Duration MAX_AGE = Duration.ofDays(2);
+
+    private final StudySessionRepository studySessionRepository;
+    private final StudySessionCardRepository studySessionCardRepository;
+    private final int maxSize;
+
+    private final Map<String, StudySessionQueue> queues = new ConcurrentHashMap<>();
+
+    public StudySessionQueueCache(
+            StudySessionRepository studySessionRepository,
+            StudySessionCardRepository studySessionCardRepository,
+            @Value("${study-session.queue-cache.max-size:500}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this.studySessionRepository = studySessionRepository;
+        this.studySessionCardRepository = studySessionCardRepository;
+        this.maxSize = maxSize;
+        meterRegistry.gaugeMapSize("study.session.queue.cache.size", Tags.empty(), queues);
+    }
+
+    public Optional<StudySessionQueue> findBySourceId(String sourceId, LocalDateTime startOfDay) {
+        return studySessionRepository.findIdBySourceIdAndCreatedAtGreaterThanEqual(sourceId, startOfDay)
+                .flatMap(this::findBySessionId);
+    }
+
+    public Optional<StudySessionQueue> findBySessionId(String sessionId) {
+        final StudySessionQueue cached = queues.get(sessionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return studySessionRepository.findById(sessionId)
+                .map(session -> {
+                    final StudySessionQueue queue = new StudySessionQueue(session.getId(),
+                            session.getSource().getId(), session.getStudyMode(), session.getCreatedAt());
+                    studySessionCardRepository.findQueueEntriesBySessionId(sessionId)
+                            .forEach(row -> queue.add(toEntry(row)));
+                    evictOnRollback(sessionId);
+                    final StudySessionQueue existing = queues.putIfAbsent(sessionId, queue);
+                    if (existing != null) {
+                        return existing;
+                    }
+                    evictOverflow();
+                    return queue;
+                });
+    }
+
+    public StudySessionQueue prime(StudySession session, List<StudySessionCard> sessionCards) {
+        final StudySessionQueue queue = new StudySessionQueue(session.getId(),
+                session.getSource().getId(), session.getStudyMode(), session.getCreatedAt());
+        sessionCards.forEach(sessionCard -> queue.add(toEntry(sessionCard)));
+        queues.put(session.getId(), queue);
+        evictOnRollback(session.getId());
+        evictOverflow();
+        return queue;
+    }
+
+    public void evictOnRollback(String sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    queues.remove(sessionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the cards from every cached queue and returns the sources whose
+     * queue held any of them.
+     */
+    public Set<String> removeCards(Collection<String> cardIds) {
+        return queues.values().stream()
+                .filter(queue -> queue.removeAll(cardIds))
+                .map(StudySessionQueue::getSourceId)
+                .collect(Collectors.toSet());
+    }
+
+    public void evict(String sessionId) {
+        queues.remove(sessionId);
+    }
+
+    public void evictCreatedBefore(LocalDateTime cutoff) {
+        queues.values().removeIf(queue -> queue.getCreatedAt().isBefore(cutoff));
+    }
+
+    public void evictAll() {
+        queues.clear();
+    }
+
+    @Scheduled(fixedRate = 3_600_000L)
+    public void evictExpired() {
+        evictCreatedBefore(LocalDateTime.now().minus(MAX_AGE));
+    }
+
+    private void evictOverflow() {
+        while (queues.size() > maxSize) {
+            queues.values().stream()
+                    .min(Comparator.comparing(StudySessionQueue::getCreatedAt))
+                    .ifPresent(oldest -> queues.remove(oldest.getSessionId(), oldest));
+        }
+    }
+
+    static StudySessionQueue.Entry toEntry(StudySessionCard sessionCard) {
+        return StudySessionQueue.Entry.builder()
+                .id(sessionCard.getId())
+                .cardId(sessionCard.getCard().getId())
+                .position(sessionCard.getPosition())
+                .learningPartnerId(sessionCard.getLearningPartner() != null
+                        ? sessionCard.getLearningPartner().getId()
+                        : null)
+                .learningPartnerName(sessionCard.getLearningPartner() != null
+                        ? sessionCard.getLearningPartner().getName()
+                        : null)
+                .swapApplies(sessionCard.isSwapApplies())
+                .build();
+    }
+
+    private static StudySessionQueue.Entry toEntry(StudySessionCardQueueProjection row) {
+        return StudySessionQueue.Entry.builder()
+                .id(row.getId())
+                .cardId(row.getCardId())
+                .position(row.getPosition())
+                .learningPartnerId(row.getLearningPartnerId())
+                .learningPartnerName(row.getLearningPartnerName())
+                .swapApplies(Boolean.TRUE.equals(row.getSwapApplies()))
+                .build();
+    }
+}
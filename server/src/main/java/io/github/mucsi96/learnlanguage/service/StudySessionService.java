@@ -2,17 +2,22 @@ package io.github.mucsi96.learnlanguage.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -21,14 +26,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import io.github.mucsi96.learnlanguage.entity.Card;
 import io.github.mucsi96.learnlanguage.entity.LearningPartner;
 import io.github.mucsi96.learnlanguage.entity.Source;
 import io.github.mucsi96.learnlanguage.entity.StudySession;
 import io.github.mucsi96.learnlanguage.entity.StudySessionCard;
+import io.github.mucsi96.learnlanguage.entity.StudySessionPersonStats;
 import io.github.mucsi96.learnlanguage.entity.ReviewLog;
 import io.github.mucsi96.learnlanguage.exception.ResourceNotFoundException;
+import io.github.mucsi96.learnlanguage.model.CardReadiness;
 import io.github.mucsi96.learnlanguage.model.CardResponse;
 import io.github.mucsi96.learnlanguage.model.SessionStatsResponse;
 import io.github.mucsi96.learnlanguage.model.StudySessionCardResponse;
@@ -37,12 +46,17 @@ import io.github.mucsi96.learnlanguage.repository.CardRepository;
 import io.github.mucsi96.learnlanguage.repository.ReviewLogRepository;
 import io.github.mucsi96.learnlanguage.repository.SourceRepository;
 import io.github.mucsi96.learnlanguage.repository.StudySessionCardRepository;
+import io.github.mucsi96.learnlanguage.repository.StudySessionPersonStatsRepository;
 import io.github.mucsi96.learnlanguage.repository.StudySessionRepository;
+import io.github.mucsi96.learnlanguage.repository.StudySessionReviewStatsRepository;
+import io.github.mucsi96.learnlanguage.repository.StudySessionReviewStatsUpsertProjection;
 import lombok.RequiredArgsConstructor;
 
+import static io.github.mucsi96.learnlanguage.repository.specification.CardSpecifications.hasIdIn;
+import static io.github.mucsi96.learnlanguage.repository.specification.CardSpecifications.hasReadiness;
+import static io.github.mucsi96.learnlanguage.repository.specification.CardSpecifications.isDueBefore;
 import static io.github.mucsi96.learnlanguage.repository.specification.CardSpecifications.isDueForSource;
 import static io.github.mucsi96.learnlanguage.repository.specification.StudySessionSpecifications.createdBefore;
-import static io.github.mucsi96.learnlanguage.repository.specification.StudySessionSpecifications.createdOnOrAfter;
 import static io.github.mucsi96.learnlanguage.repository.specification.StudySessionSpecifications.hasSourceId;
 
 @Service
@@ -54,6 +68,10 @@ public class StudySessionService {
     private final StudySessionRepository studySessionRepository;
     private final StudySessionCardRepository studySessionCardRepository;
     private final ReviewLogRepository reviewLogRepository;
+    private final StudySessionQueueCache studySessionQueueCache;
+    private final StudySessionReviewStatsRepository studySessionReviewStatsRepository;
+    private final StudySessionPersonStatsRepository studySessionPersonStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Optional<StudySessionResponse> getExistingSession(String sourceId, LocalDateTime startOfDay) {
@@ -65,10 +83,19 @@ public class StudySessionService {
 
     @Transactional
     public StudySessionResponse createSession(String sourceId, LocalDateTime startOfDay, LocalDateTime startOfNextDay) {
+        final Optional<String> preparedSessionId = studySessionRepository
+                .findIdBySourceIdAndCreatedAtGreaterThanEqual(sourceId, startOfDay);
+        if (preparedSessionId.isPresent()) {
+            return StudySessionResponse.builder()
+                    .sessionId(preparedSessionId.get())
+                    .build();
+        }
+
         final Source source = sourceRepository.findByIdWithLock(sourceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Source not found: " + sourceId));
 
         studySessionRepository.delete(createdBefore(startOfDay));
+        studySessionQueueCache.evictCreatedBefore(startOfDay);
 
         final Optional<StudySession> existingSession = studySessionRepository
                 .findBySource_IdAndCreatedAtGreaterThanEqual(sourceId, startOfDay);
@@ -78,6 +105,37 @@ public class StudySessionService {
                     .build();
         }
 
+        return buildSession(source, startOfNextDay);
+    }
+
+    /**
+     * Builds the day's session ahead of the first request. Unlike
+     * {@link #createSession}, it only replaces sessions of this source created
+     * before {@code staleBefore}, the start of the day in the earliest
+     * timezone still in use, so a session someone is studying in another
+     * timezone is never deleted. Returns empty when such a session exists.
+     */
+    @Transactional
+    public Optional<StudySessionResponse> prepareSession(String sourceId, LocalDateTime staleBefore,
+            LocalDateTime startOfNextDay) {
+        final Source source = sourceRepository.findByIdWithLock(sourceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Source not found: " + sourceId));
+
+        if (studySessionRepository.findIdBySourceIdAndCreatedAtGreaterThanEqual(sourceId, staleBefore).isPresent()) {
+            return Optional.empty();
+        }
+
+        final List<String> staleSessionIds = studySessionRepository
+                .findIdsBySourceIdAndCreatedAtBefore(sourceId, staleBefore);
+        if (!staleSessionIds.isEmpty()) {
+            studySessionRepository.delete(hasSourceId(sourceId).and(createdBefore(staleBefore)));
+            staleSessionIds.forEach(studySessionQueueCache::evict);
+        }
+
+        return Optional.of(buildSession(source, startOfNextDay));
+    }
+
+    private StudySessionResponse buildSession(Source source, LocalDateTime startOfNextDay) {
         final List<Card> dueCards = resolveSessionDueCards(source, startOfNextDay);
         final Optional<LearningPartner> activePartner = Optional.ofNullable(source.getLearningPartner());
 
@@ -100,7 +158,8 @@ public class StudySessionService {
                 .cards(new ArrayList<>(sessionCards))
                 .build();
 
-        studySessionRepository.save(sessionWithCards);
+        final StudySession savedSession = studySessionRepository.saveAndFlush(sessionWithCards);
+        studySessionQueueCache.prime(savedSession, savedSession.getCards());
 
         return StudySessionResponse.builder()
                 .sessionId(sessionId)
@@ -130,10 +189,10 @@ public class StudySessionService {
 
         final double defaultComplexity = 4 * 30;
         final List<String> cardIds = cards.stream().map(Card::getId).toList();
-        final Map<String, Double> userComplexities = toComplexityMap(
-                reviewLogRepository.findCardComplexitiesWithoutPartner(cardIds));
-        final Map<String, Double> partnerComplexities = toComplexityMap(
-                reviewLogRepository.findCardComplexitiesWithPartner(cardIds, partner.getId()));
+        final Map<Boolean, Map<String, Double>> complexities = toComplexityMaps(
+                reviewLogRepository.findCardComplexities(cardIds, partner.getId()));
+        final Map<String, Double> userComplexities = complexities.get(false);
+        final Map<String, Double> partnerComplexities = complexities.get(true);
 
         final List<Card> mostComplexCards = cards.stream()
                 .sorted(Comparator.comparingDouble(
@@ -202,43 +261,193 @@ public class StudySessionService {
         return Stream.concat(reviewCards.stream(), limitedNewCards.stream()).toList();
     }
 
-    private Map<String, Double> toComplexityMap(List<Object[]> rows) {
+    private Map<Boolean, Map<String, Double>> toComplexityMaps(List<Object[]> rows) {
         return rows.stream()
-                .collect(Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> ((Number) row[1]).doubleValue()));
+                .collect(Collectors.partitioningBy(
+                        row -> (Boolean) row[1],
+                        Collectors.toMap(
+                                row -> (String) row[0],
+                                row -> ((Number) row[2]).doubleValue())));
+    }
+
+    public record CardMove(String cardId, Integer rating, Integer learningPartnerId, Long reviewDuration) {
+
+        public static CardMove from(ReviewLog reviewLog) {
+            return new CardMove(
+                    reviewLog.getCard().getId(),
+                    reviewLog.getRating(),
+                    reviewLog.getLearningPartner() != null ? reviewLog.getLearningPartner().getId() : null,
+                    reviewLog.getReviewDuration());
+        }
+    }
+
+    private record ReviewerKey(String cardId, Integer learningPartnerId) {
     }
 
+    private static final Comparator<ReviewerKey> REVIEWER_ORDER = Comparator.comparing(ReviewerKey::cardId)
+            .thenComparing(ReviewerKey::learningPartnerId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     @Transactional
     public void moveCardToBack(String cardId, String sourceId, LocalDateTime startOfDay, Integer rating) {
-        studySessionRepository.findBySource_IdAndCreatedAtGreaterThanEqual(sourceId, startOfDay)
-                .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()))
-                .ifPresent(session -> session.getCards().stream()
-                        .filter(sc -> sc.getCard().getId().equals(cardId))
-                        .findFirst()
-                        .ifPresent(sessionCard -> {
-                            final int maxPosition = session.getCards().stream()
-                                    .mapToInt(StudySessionCard::getPosition)
-                                    .max()
-                                    .orElse(0);
-                            sessionCard.setPosition(maxPosition + 1);
-
-                            final boolean positiveReview = rating != null && rating >= 3;
-                            if (sessionCard.isSwapApplies() && positiveReview) {
-                                if (sessionCard.getLearningPartner() != null) {
-                                    sessionCard.setLearningPartner(null);
-                                } else {
-                                    Optional.ofNullable(session.getSource().getLearningPartner())
-                                            .ifPresent(sessionCard::setLearningPartner);
-                                }
-                                sessionCard.setSwapApplies(false);
-                            }
-                        }));
+        moveCardsToBack(sourceId, startOfDay, List.of(new CardMove(cardId, rating, null, null)));
+    }
+
+    @Transactional
+    public void recordReview(String sourceId, LocalDateTime startOfDay, ReviewLog reviewLog) {
+        moveCardsToBack(sourceId, startOfDay, List.of(CardMove.from(reviewLog)));
+    }
+
+    @Transactional
+    public void moveCardsToBack(String sourceId, LocalDateTime startOfDay, List<CardMove> moves) {
+        studySessionQueueCache.findBySourceId(sourceId, startOfDay).ifPresent(queue -> {
+            studySessionQueueCache.evictOnRollback(queue.getSessionId());
+
+            final Map<Integer, StudySessionQueue.Entry> movedEntries = new LinkedHashMap<>();
+            final List<CardMove> reviews = new ArrayList<>();
+            LearningPartner sourcePartner = null;
+            boolean sourcePartnerLoaded = false;
+
+            for (final CardMove move : moves) {
+                final Optional<StudySessionQueue.Entry> found = queue.findByCardId(move.cardId());
+                if (found.isEmpty()) {
+                    continue;
+                }
+
+                if (move.rating() != null) {
+                    reviews.add(move);
+                }
+
+                final StudySessionQueue.Entry entry = found.get();
+                final boolean positiveReview = move.rating() != null && move.rating() >= 3;
+                StudySessionQueue.Entry turn = entry;
+                if (entry.isSwapApplies() && positiveReview) {
+                    if (entry.getLearningPartnerId() == null && !sourcePartnerLoaded) {
+                        sourcePartner = sourceRepository.findById(sourceId)
+                                .map(Source::getLearningPartner)
+                                .orElse(null);
+                        sourcePartnerLoaded = true;
+                    }
+                    turn = swapTurn(entry, sourcePartner);
+                }
+
+                final StudySessionQueue.Entry moved = queue.moveToBack(turn);
+                movedEntries.put(moved.getId(), moved);
+            }
+
+            movedEntries.values().forEach(moved -> studySessionCardRepository.updateQueueEntry(
+                    moved.getId(),
+                    moved.getPosition(),
+                    moved.getLearningPartnerId(),
+                    moved.isSwapApplies()));
+
+            if (!reviews.isEmpty()) {
+                recordSessionStats(queue.getSessionId(), reviews);
+            }
+        });
+
+        eventPublisher.publishEvent(new StudySessionChangedEvent(sourceId));
+    }
+
+    private void recordSessionStats(String sessionId, List<CardMove> reviews) {
+        // Sorted, so concurrent batches lock the stats rows in the same order
+        final Map<ReviewerKey, List<CardMove>> reviewsByReviewer = reviews.stream()
+                .collect(Collectors.groupingBy(
+                        review -> new ReviewerKey(review.cardId(), review.learningPartnerId()),
+                        () -> new TreeMap<>(REVIEWER_ORDER),
+                        Collectors.toList()));
+        final List<ReviewerKey> keys = List.copyOf(reviewsByReviewer.keySet());
+        final List<ReviewerKey> struggledKeys = keys.stream()
+                .filter(key -> reviewsByReviewer.get(key).stream().anyMatch(review -> review.rating() < 3))
+                .toList();
+
+        final List<StudySessionReviewStatsUpsertProjection> upserted = studySessionReviewStatsRepository.upsertReviews(
+                sessionId,
+                keys.stream().map(ReviewerKey::cardId).toArray(String[]::new),
+                keys.stream().map(ReviewerKey::learningPartnerId).toArray(Integer[]::new),
+                keys.stream().map(key -> reviewsByReviewer.get(key).getFirst().reviewDuration()).toArray(Long[]::new),
+                keys.stream().map(struggledKeys::contains).toArray(Boolean[]::new),
+                keys.stream().map(key -> reviewsByReviewer.get(key).size()).toArray(Integer[]::new));
+        final List<Integer> newlyStruggled = struggledKeys.isEmpty()
+                ? List.of()
+                : studySessionReviewStatsRepository.markStruggled(
+                        sessionId,
+                        struggledKeys.stream().map(ReviewerKey::cardId).toArray(String[]::new),
+                        struggledKeys.stream().map(ReviewerKey::learningPartnerId).toArray(Integer[]::new));
+
+        final Map<Integer, PersonTotals> totals = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        upserted.stream()
+                .filter(StudySessionReviewStatsUpsertProjection::getInserted)
+                .forEach(row -> totals.merge(row.getLearningPartnerId(), new PersonTotals(
+                        row.getFirstReviewDuration() != null ? row.getFirstReviewDuration() : 0,
+                        1,
+                        row.getStruggled() ? 1 : 0), PersonTotals::plus));
+        newlyStruggled.forEach(learningPartnerId -> totals.merge(learningPartnerId, new PersonTotals(0, 0, 1),
+                PersonTotals::plus));
+
+        totals.forEach((learningPartnerId, personTotals) -> studySessionPersonStatsRepository.addTotals(
+                sessionId,
+                learningPartnerId,
+                personTotals.durationMs(),
+                personTotals.reviewCount(),
+                personTotals.badCount()));
+    }
+
+    private record PersonTotals(long durationMs, int reviewCount, int badCount) {
+
+        private PersonTotals plus(PersonTotals other) {
+            return new PersonTotals(durationMs + other.durationMs, reviewCount + other.reviewCount,
+                    badCount + other.badCount);
+        }
+    }
+
+    private StudySessionQueue.Entry swapTurn(StudySessionQueue.Entry entry, LearningPartner sourcePartner) {
+        if (entry.getLearningPartnerId() != null) {
+            return entry.toBuilder()
+                    .learningPartnerId(null)
+                    .learningPartnerName(null)
+                    .swapApplies(false)
+                    .build();
+        }
+
+        return entry.toBuilder()
+                .learningPartnerId(sourcePartner != null ? sourcePartner.getId() : null)
+                .learningPartnerName(sourcePartner != null ? sourcePartner.getName() : null)
+                .swapApplies(false)
+                .build();
     }
 
     @Transactional
     public void deleteAllSessions() {
         studySessionRepository.deleteAllInBatch();
+        studySessionQueueCache.evictAll();
+    }
+
+    /**
+     * Takes deleted, known and draft cards out of every session. The cached
+     * queues follow once the transaction commits, so a rollback keeps them.
+     */
+    @Transactional
+    public void removeCardsFromSessions(Collection<String> cardIds) {
+        if (cardIds.isEmpty()) {
+            return;
+        }
+
+        studySessionCardRepository.deleteByCardIdIn(cardIds);
+
+        final Set<String> removedCardIds = Set.copyOf(cardIds);
+        final Runnable removeFromQueues = () -> studySessionQueueCache.removeCards(removedCardIds)
+                .forEach(sourceId -> eventPublisher.publishEvent(new StudySessionChangedEvent(sourceId)));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeFromQueues.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeFromQueues.run();
+            }
+        });
     }
 
     @Transactional
@@ -249,17 +458,17 @@ public class StudySessionService {
 
         cards.stream()
                 .collect(Collectors.groupingBy(c -> c.getSource().getId()))
-                .forEach((sourceId, sourceCards) -> addCardsToSourceSession(sourceCards, sourceId, startOfDay));
+                .forEach((sourceId, sourceCards) -> {
+                    addCardsToSourceSession(sourceCards, sourceId, startOfDay);
+                    eventPublisher.publishEvent(new StudySessionChangedEvent(sourceId));
+                });
     }
 
     private void addCardsToSourceSession(List<Card> cards, String sourceId, LocalDateTime startOfDay) {
-        studySessionRepository.findBySource_IdAndCreatedAtGreaterThanEqual(sourceId, startOfDay)
-                .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()))
-                .ifPresent(session -> {
-                    final Source source = session.getSource();
-                    final Set<String> existingCardIds = session.getCards().stream()
-                            .map(sc -> sc.getCard().getId())
-                            .collect(Collectors.toSet());
+        studySessionQueueCache.findBySourceId(sourceId, startOfDay)
+                .ifPresent(queue -> {
+                    final Source source = cards.getFirst().getSource();
+                    final Set<String> existingCardIds = queue.cardIds();
 
                     final List<Card> candidateCards = cards.stream()
                             .filter(c -> !existingCardIds.contains(c.getId()))
@@ -270,7 +479,7 @@ public class StudySessionService {
                     }
 
                     final int remainingSlots = source.getCardLimit() != null
-                            ? source.getCardLimit() - session.getCards().size()
+                            ? source.getCardLimit() - queue.size()
                             : candidateCards.size();
                     if (remainingSlots <= 0) {
                         return;
@@ -281,20 +490,18 @@ public class StudySessionService {
                             .toList();
 
                     final List<Card> limitedCards = source.getNewCardLimit() != null
-                            ? applyNewCardLimitForSession(slotLimitedCards, session, source.getNewCardLimit())
+                            ? applyNewCardLimitForSession(slotLimitedCards, queue, source.getNewCardLimit())
                             : slotLimitedCards;
 
                     if (limitedCards.isEmpty()) {
                         return;
                     }
 
-                    final int positionOffset = session.getCards().stream()
-                            .mapToInt(StudySessionCard::getPosition)
-                            .max()
-                            .orElse(-1) + 1;
+                    final int positionOffset = queue.nextPosition();
+                    final StudySession session = studySessionRepository.getReferenceById(queue.getSessionId());
 
-                    final Optional<LearningPartner> activePartner = "WITH_PARTNER".equals(session.getStudyMode())
-                            ? Optional.ofNullable(session.getSource().getLearningPartner())
+                    final Optional<LearningPartner> activePartner = queue.isWithPartner()
+                            ? Optional.ofNullable(source.getLearningPartner())
                             : Optional.empty();
 
                     final List<StudySessionCard> newSessionCards = activePartner
@@ -302,14 +509,14 @@ public class StudySessionService {
                                     positionOffset))
                             .orElseGet(() -> assignCardsSolo(limitedCards, session, limitedCards.size(), positionOffset));
 
-                    studySessionCardRepository.saveAll(newSessionCards);
+                    studySessionQueueCache.evictOnRollback(queue.getSessionId());
+                    studySessionCardRepository.saveAll(newSessionCards)
+                            .forEach(sessionCard -> queue.add(StudySessionQueueCache.toEntry(sessionCard)));
                 });
     }
 
-    private List<Card> applyNewCardLimitForSession(List<Card> candidates, StudySession session, int newCardLimit) {
-        final long existingNewCardCount = session.getCards().stream()
-                .filter(sc -> "NEW".equals(sc.getCard().getState()))
-                .count();
+    private List<Card> applyNewCardLimitForSession(List<Card> candidates, StudySessionQueue queue, int newCardLimit) {
+        final long existingNewCardCount = studySessionCardRepository.countNewCardsBySessionId(queue.getSessionId());
         final int remainingNewSlots = (int) Math.max(0, newCardLimit - existingNewCardCount);
         return applyNewCardLimit(candidates, remainingNewSlots);
     }
@@ -317,125 +524,94 @@ public class StudySessionService {
     @Transactional
     public Optional<StudySessionCardResponse> getCurrentCardBySourceId(String sourceId, LocalDateTime startOfDay,
             LocalDateTime startOfNextDay) {
-        return studySessionRepository.findOne(hasSourceId(sourceId).and(createdOnOrAfter(startOfDay)))
-                .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()))
-                .flatMap(loaded -> findNextCard(loaded, startOfNextDay));
+        return studySessionQueueCache.findBySourceId(sourceId, startOfDay)
+                .flatMap(queue -> findNextCard(queue, startOfNextDay));
     }
 
-    private Optional<StudySessionCardResponse> findNextCard(StudySession session, LocalDateTime startOfNextDay) {
-        final List<StudySessionCard> eligibleCards = session.getCards().stream()
-                .filter(c -> c.getCard().isReady())
-                .filter(c -> c.getCard().getDue().isBefore(startOfNextDay))
-                .toList();
+    private Optional<StudySessionCardResponse> findNextCard(StudySessionQueue queue, LocalDateTime startOfNextDay) {
+        final Predicate<Card> isEligible = card -> card.isReady() && card.getDue().isBefore(startOfNextDay);
 
-        final Optional<StudySessionCard> nextCard = eligibleCards.stream()
-                .min(Comparator.comparingInt(StudySessionCard::getPosition));
-
-        return nextCard.map(sessionCard -> {
-            final String turnName = sessionCard.getLearningPartner() != null
-                    ? sessionCard.getLearningPartner().getName()
-                    : getCurrentUserFirstName();
-
-            return StudySessionCardResponse.builder()
-                    .card(CardResponse.from(sessionCard.getCard()))
-                    .learningPartnerId(sessionCard.getLearningPartner() != null
-                            ? sessionCard.getLearningPartner().getId()
-                            : null)
-                    .turnName(turnName)
-                    .studyMode(session.getStudyMode())
-                    .build();
-        });
-    }
+        final Optional<StudySessionCardResponse> head = queue.head()
+                .flatMap(entry -> cardRepository.findById(entry.getCardId())
+                        .filter(isEligible)
+                        .map(card -> toCardResponse(queue, entry, card)));
 
-    @Transactional(readOnly = true)
-    public Optional<SessionStatsResponse> getSessionStats(String sourceId, LocalDateTime startOfDay) {
-        return studySessionRepository.findOne(hasSourceId(sourceId).and(createdOnOrAfter(startOfDay)))
-                .flatMap(session -> studySessionRepository.findWithCardsById(session.getId()))
-                .map(session -> buildSessionStats(session, startOfDay));
+        return head.or(() -> findFirstEligibleCard(queue, startOfNextDay));
     }
 
-    private SessionStatsResponse buildSessionStats(StudySession session, LocalDateTime startOfDay) {
-        final List<String> cardIds = session.getCards().stream()
-                .map(sc -> sc.getCard().getId())
-                .toList();
-
-        final List<ReviewLog> allReviews = reviewLogRepository
-                .findByCardIdInAndReviewGreaterThanEqualOrderByIdAsc(cardIds, startOfDay);
-
-        final Map<String, List<ReviewLog>> reviewsPerCard = allReviews.stream()
-                .collect(Collectors.groupingBy(
-                        rl -> rl.getCard().getId() + ":" + (rl.getLearningPartner() != null ? rl.getLearningPartner().getId() : "self"),
-                        LinkedHashMap::new,
-                        Collectors.toList()));
-
-        final Set<String> strugglingKeys = reviewsPerCard.entrySet().stream()
-                .filter(entry -> entry.getValue().stream().anyMatch(rl -> rl.getRating() < 3))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+    private Optional<StudySessionCardResponse> findFirstEligibleCard(StudySessionQueue queue,
+            LocalDateTime startOfNextDay) {
+        final List<StudySessionQueue.Entry> entries = queue.entries();
+        if (entries.isEmpty()) {
+            return Optional.empty();
+        }
 
-        final List<ReviewLog> firstReviews = reviewsPerCard.values().stream()
-                .map(reviews -> reviews.getFirst())
-                .toList();
+        final Map<String, Card> eligibleCards = cardRepository.findAll(Specification.where(
+                hasIdIn(queue.cardIds())
+                        .and(hasReadiness(CardReadiness.READY))
+                        .and(isDueBefore(startOfNextDay))))
+                .stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+
+        return entries.stream()
+                .filter(entry -> eligibleCards.containsKey(entry.getCardId()))
+                .findFirst()
+                .map(entry -> toCardResponse(queue, entry, eligibleCards.get(entry.getCardId())));
+    }
 
-        final long totalDurationMs = firstReviews.stream()
-                .mapToLong(rl -> rl.getReviewDuration() != null ? rl.getReviewDuration() : 0)
-                .sum();
+    private StudySessionCardResponse toCardResponse(StudySessionQueue queue, StudySessionQueue.Entry entry,
+            Card card) {
+        final String turnName = entry.getLearningPartnerId() != null
+                ? entry.getLearningPartnerName()
+                : getCurrentUserFirstName();
+
+        return StudySessionCardResponse.builder()
+                .card(CardResponse.from(card))
+                .learningPartnerId(entry.getLearningPartnerId())
+                .turnName(turnName)
+                .studyMode(queue.getStudyMode())
+                .build();
+    }
 
-        final int reviewCount = firstReviews.size();
-        final long averageDurationMs = reviewCount > 0 ? totalDurationMs / reviewCount : 0;
+    @Transactional(readOnly = true)
+    public Optional<SessionStatsResponse> getSessionStats(String sourceId, LocalDateTime startOfDay) {
+        return studySessionQueueCache.findBySourceId(sourceId, startOfDay)
+                .map(this::buildSessionStats);
+    }
 
-        final int badCount = (int) reviewsPerCard.keySet().stream()
-                .filter(strugglingKeys::contains)
-                .count();
+    private SessionStatsResponse buildSessionStats(StudySessionQueue queue) {
+        final List<StudySessionPersonStats> personStats = studySessionPersonStatsRepository
+                .findBySession_IdOrderByIdAsc(queue.getSessionId());
 
-        final int goodCount = (int) reviewsPerCard.keySet().stream()
-                .filter(key -> !strugglingKeys.contains(key))
-                .count();
+        final long totalDurationMs = personStats.stream().mapToLong(StudySessionPersonStats::getTotalDurationMs).sum();
+        final int reviewCount = personStats.stream().mapToInt(StudySessionPersonStats::getReviewCount).sum();
+        final int badCount = personStats.stream().mapToInt(StudySessionPersonStats::getBadCount).sum();
 
-        final List<SessionStatsResponse.PersonStats> personStats;
-        if ("WITH_PARTNER".equals(session.getStudyMode())) {
+        final List<SessionStatsResponse.PersonStats> personStatsResponse;
+        if (queue.isWithPartner()) {
             final String userName = getCurrentUserFirstName();
-
-            final Map<String, List<Map.Entry<String, List<ReviewLog>>>> byPerson = reviewsPerCard.entrySet().stream()
-                    .collect(Collectors.groupingBy(
-                            entry -> {
-                                final ReviewLog first = entry.getValue().getFirst();
-                                return first.getLearningPartner() != null ? first.getLearningPartner().getName() : userName;
-                            }));
-
-            personStats = byPerson.entrySet().stream()
-                    .map(entry -> {
-                        final List<Map.Entry<String, List<ReviewLog>>> cardEntries = entry.getValue();
-                        final long personTotal = cardEntries.stream()
-                                .mapToLong(ce -> {
-                                    final ReviewLog first = ce.getValue().getFirst();
-                                    return first.getReviewDuration() != null ? first.getReviewDuration() : 0;
-                                })
-                                .sum();
-                        final int personReviewCount = cardEntries.size();
-                        final int personBadCount = (int) cardEntries.stream()
-                                .filter(ce -> strugglingKeys.contains(ce.getKey()))
-                                .count();
-                        return SessionStatsResponse.PersonStats.builder()
-                                .name(entry.getKey())
-                                .totalDurationMs(personTotal)
-                                .averageDurationMs(personReviewCount > 0 ? personTotal / personReviewCount : 0)
-                                .goodCount(personReviewCount - personBadCount)
-                                .badCount(personBadCount)
-                                .build();
-                    })
+            personStatsResponse = personStats.stream()
+                    .map(person -> SessionStatsResponse.PersonStats.builder()
+                            .name(person.getLearningPartner() != null ? person.getLearningPartner().getName() : userName)
+                            .totalDurationMs(person.getTotalDurationMs())
+                            .averageDurationMs(person.getReviewCount() > 0
+                                    ? person.getTotalDurationMs() / person.getReviewCount()
+                                    : 0)
+                            .goodCount(person.getReviewCount() - person.getBadCount())
+                            .badCount(person.getBadCount())
+                            .build())
                     .toList();
         } else {
-            personStats = List.of();
+            personStatsResponse = List.of();
         }
 
         return SessionStatsResponse.builder()
                 .totalDurationMs(totalDurationMs)
-                .averageDurationMs(averageDurationMs)
-                .goodCount(goodCount)
+                .averageDurationMs(reviewCount > 0 ? totalDurationMs / reviewCount : 0)
+                .goodCount(reviewCount - badCount)
                 .badCount(badCount)
-                .studyMode(session.getStudyMode())
-                .personStats(personStats)
+                .studyMode(queue.getStudyMode())
+                .personStats(personStatsResponse)
                 .build();
     }
 
@@ -0,0 +1,93 @@
+package io.github.mucsi96.learnlanguage.service;
+
+import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfDayUtc;
+import static io.github.mucsi96.learnlanguage.util.TimezoneUtils.startOfNextDayUtc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.github.mucsi96.learnlanguage.model.CardReadiness;
+import io.github.mucsi96.learnlanguage.repository.CardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudySessionWarmupService {
+
+    private static final Duration TIMEZONE_RETENTION = Duration.ofDays(7);
+
+    private final CardRepository cardRepository;
+    private final StudySessionService studySessionService;
+
+    private final Map<ZoneId, Instant> recentTimezones = new ConcurrentHashMap<>();
+    private final Map<ZoneId, LocalDate> warmedUpDates = new ConcurrentHashMap<>();
+
+    public void recordTimezone(ZoneId timezone) {
+        recentTimezones.put(timezone, Instant.now());
+    }
+
+    @Scheduled(fixedRate = 300_000L)
+    public void warmUpSessions() {
+        final Instant cutoff = Instant.now().minus(TIMEZONE_RETENTION);
+        recentTimezones.values().removeIf(lastSeen -> lastSeen.isBefore(cutoff));
+        warmedUpDates.keySet().retainAll(recentTimezones.keySet());
+
+        final LocalDateTime staleBefore = recentTimezones.keySet().stream()
+                .map(timezone -> startOfDayUtc(timezone))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        recentTimezones.keySet().forEach(timezone -> {
+            final LocalDate today = LocalDate.now(timezone);
+            if (!today.equals(warmedUpDates.get(timezone))) {
+                warmUp(timezone, staleBefore);
+                warmedUpDates.put(timezone, today);
+            }
+        });
+    }
+
+    /**
+     * Warms up every recently seen timezone right away, including the ones
+     * already warmed up today.
+     */
+    public void rewarmSessions() {
+        warmedUpDates.clear();
+        warmUpSessions();
+    }
+
+    /**
+     * Sessions created after {@code staleBefore} may still be studied in a
+     * timezone whose day has not rolled over yet, so they are left alone.
+     */
+    private void warmUp(ZoneId timezone, LocalDateTime staleBefore) {
+        final LocalDateTime startOfNextDay = startOfNextDayUtc(timezone);
+        final List<String> sourceIds = cardRepository.findSourceIdsWithDueCards(CardReadiness.READY, startOfNextDay);
+
+        int prepared = 0;
+        for (final String sourceId : sourceIds) {
+            try {
+                if (studySessionService.prepareSession(sourceId, staleBefore, startOfNextDay).isPresent()) {
+                    prepared++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to prepare study session for source {} in {}", sourceId, timezone, e);
+            }
+        }
+
+        if (prepared > 0) {
+            log.info("Prepared {} study session(s) for {}", prepared, timezone);
+        }
+    }
+}
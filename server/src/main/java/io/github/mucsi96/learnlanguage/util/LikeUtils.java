@@ -0,0 +1,15 @@
+package io.github.mucsi96.learnlanguage.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class LikeUtils {
+
+    public static final char ESCAPE_CHAR = '\\';
+
+    // Typed % and _ are matched literally by a LIKE declaring ESCAPE_CHAR
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.mucsi96.learnlanguage.util;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MediaResponseUtils {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
+    /**
+     * Serves an immutable media file as a streamed {@link Resource}, so Spring
+     * answers Range requests with 206 partial content. The file is only opened
+     * when the client's If-None-Match does not already match {@code etag}.
+     */
+    public static ResponseEntity<Resource> immutableMedia(
+            WebRequest request,
+            String etag,
+            MediaType mediaType,
+            Supplier<Resource> resource) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .header("Accept-Ranges", "bytes")
+                .body(resource.get());
+    }
+}
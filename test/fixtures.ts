@@ -3,7 +3,10 @@ import { writeFileSync, mkdirSync } from 'fs';
 import { join } from 'path';
 import { cleanupDbRecords, cleanupStorage, populateStorage, setupTestRateLimits } from './utils';
 
-export const test = base.extend<{ triggerCleanup: () => Promise<void> }>({
+export const test = base.extend<{
+  triggerCleanup: () => Promise<void>;
+  triggerWarmUp: () => Promise<void>;
+}>({
   triggerCleanup: async ({ baseURL }, use) => {
     await use(async () => {
       const response = await fetch(`${baseURL}/api/test/cleanup-storage`, {
@@ -14,6 +17,16 @@ export const test = base.extend<{ triggerCleanup: () => Promise<void> }>({
       }
     });
   },
+  triggerWarmUp: async ({ baseURL }, use) => {
+    await use(async () => {
+      const response = await fetch(`${baseURL}/api/test/warm-up-sessions`, {
+        method: 'POST',
+      });
+      if (!response.ok) {
+        throw new Error(`Warm-up trigger failed: ${response.status}`);
+      }
+    });
+  },
   page: async ({ page }, use, testInfo: TestInfo) => {
     await cleanupDbRecords();
     cleanupStorage();
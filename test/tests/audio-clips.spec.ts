@@ -0,0 +1,129 @@
+import { test, expect } from '../fixtures';
+import * as fs from 'fs';
+import {
+  assertAudioExists,
+  createAudio,
+  createCard,
+  getApiHeaders,
+  getModelUsageLogs,
+  storageFilePath,
+  withDbConnection,
+} from '../utils';
+
+const hausAudio = {
+  input: 'Haus',
+  voice: 'test-voice-de',
+  model: 'eleven_v3',
+  language: 'de',
+};
+
+async function getReferenceCount(id: string): Promise<number | undefined> {
+  return await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT reference_count FROM learn_language.audio_clips WHERE id = $1`,
+      [id]
+    );
+    return result.rows[0]?.reference_count;
+  });
+}
+
+async function getAudioGenerationCount(): Promise<number> {
+  return (await getModelUsageLogs()).filter((log) => log.operationType === 'AUDIO_GENERATION').length;
+}
+
+test('reuses the generated clip for the same text and voice', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+
+  const firstId = await createAudio(baseURL, headers, hausAudio);
+  const secondId = await createAudio(baseURL, headers, hausAudio);
+
+  expect(secondId).toBe(firstId);
+  assertAudioExists(firstId);
+  expect(await getAudioGenerationCount()).toBe(1);
+  expect(await getReferenceCount(firstId)).toBe(2);
+
+  const otherVoiceId = await createAudio(baseURL, headers, { ...hausAudio, voice: 'test-voice-hu' });
+  expect(otherVoiceId).not.toBe(firstId);
+  expect(await getAudioGenerationCount()).toBe(2);
+});
+
+test('voice previews do not hold a clip reference', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+
+  const previewId = await createAudio(baseURL, headers, { ...hausAudio, preview: true });
+  expect(await getReferenceCount(previewId)).toBe(0);
+
+  expect(await createAudio(baseURL, headers, { ...hausAudio, preview: true })).toBe(previewId);
+  expect(await getReferenceCount(previewId)).toBe(0);
+
+  expect(await createAudio(baseURL, headers, hausAudio)).toBe(previewId);
+  expect(await getReferenceCount(previewId)).toBe(1);
+  expect(await getAudioGenerationCount()).toBe(1);
+});
+
+test('releasing the last reference deletes the clip', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const id = await createAudio(baseURL, headers, hausAudio);
+  await createAudio(baseURL, headers, hausAudio);
+
+  const release = () => fetch(`${baseURL}/api/audio/${id}`, { method: 'DELETE', headers });
+
+  expect((await release()).status).toBe(204);
+  expect(await getReferenceCount(id)).toBe(1);
+  assertAudioExists(id);
+
+  expect((await release()).status).toBe(204);
+  expect(await getReferenceCount(id)).toBeUndefined();
+  expect(fs.existsSync(storageFilePath(`audio/${id}.mp3`))).toBe(false);
+});
+
+test('deleting a card releases its audio clips', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const id = await createAudio(baseURL, headers, hausAudio);
+
+  await createCard({
+    cardId: 'haus-haz',
+    sourceId: 'goethe-a1',
+    data: {
+      word: 'Haus',
+      type: 'NOUN',
+      translation: { en: 'house', hu: 'ház' },
+      audio: [{ id, text: 'Haus', language: 'de', voice: 'test-voice-de', model: 'eleven_v3' }],
+    },
+  });
+
+  const response = await fetch(`${baseURL}/api/card/haus-haz`, { method: 'DELETE', headers });
+  expect(response.status).toBe(200);
+
+  expect(await getReferenceCount(id)).toBeUndefined();
+  expect(fs.existsSync(storageFilePath(`audio/${id}.mp3`))).toBe(false);
+});
+
+test('deleting cards keeps clips other cards still reference', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const id = await createAudio(baseURL, headers, hausAudio);
+  await createAudio(baseURL, headers, hausAudio);
+
+  for (const cardId of ['haus-a1', 'haus-a2']) {
+    await createCard({
+      cardId,
+      sourceId: 'goethe-a1',
+      data: {
+        word: 'Haus',
+        type: 'NOUN',
+        translation: { en: 'house', hu: 'ház' },
+        audio: [{ id, text: 'Haus', language: 'de', voice: 'test-voice-de', model: 'eleven_v3' }],
+      },
+    });
+  }
+
+  const response = await fetch(`${baseURL}/api/cards`, {
+    method: 'DELETE',
+    headers: { ...headers, 'Content-Type': 'application/json' },
+    body: JSON.stringify(['haus-a1']),
+  });
+  expect(response.status).toBe(200);
+
+  expect(await getReferenceCount(id)).toBe(1);
+  assertAudioExists(id);
+});
@@ -9,6 +9,7 @@ import {
   withDbConnection,
   assertAudioExists,
   setupTestRateLimits,
+  getApiHeaders,
 } from '../utils';
 
 async function setupVoiceConfigurations() {
@@ -1468,3 +1469,42 @@ test('bulk audio creation hides generate button when front audio disabled and ca
 
   await expect(page.getByRole('button', { name: 'Generate audio for cards' })).not.toBeVisible();
 });
+
+test('changing the source card type re-derives the audio cards need', async ({ page, baseURL }) => {
+  const audioItem = (id: string, text: string, language: string) => ({
+    id,
+    text,
+    voice: 'test-voice',
+    model: 'eleven_v3',
+    language,
+    selected: true,
+  });
+  await createCard({
+    cardId: 'haus-haz',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: {
+      word: 'Haus',
+      type: 'NOUN',
+      translation: { en: 'house', hu: 'ház' },
+      examples: [{ de: 'Das Haus ist groß.', hu: 'A ház nagy.' }],
+      audio: [audioItem('audio-haus', 'Haus', 'de'), audioItem('audio-haz', 'ház', 'hu')],
+    },
+    readiness: 'REVIEWED',
+  });
+
+  const headers = await getApiHeaders(page);
+  const getMissingAudioCardIds = async () => {
+    const response = await fetch(`${baseURL}/api/cards/missing-audio`, { headers });
+    expect(response.status).toBe(200);
+    return (await response.json()).map((card: { id: string }) => card.id);
+  };
+
+  expect(await getMissingAudioCardIds()).toEqual([]);
+
+  await withDbConnection(async (client) => {
+    await client.query(`UPDATE learn_language.sources SET card_type = 'SPEECH' WHERE id = 'goethe-a1'`);
+  });
+
+  expect(await getMissingAudioCardIds()).toEqual(['haus-haz']);
+});
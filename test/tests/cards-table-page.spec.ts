@@ -12,7 +12,9 @@ import {
   setupDefaultChatModelSettings,
   setupDefaultImageModelSettings,
   selectTextRange,
+  storageFilePath,
 } from '../utils';
+import { Page } from '@playwright/test';
 
 test('navigates to cards table from page view', async ({ page }) => {
   await page.goto('/sources');
@@ -1101,6 +1103,46 @@ test('filters cards by ID', async ({ page }) => {
   }).toPass();
 });
 
+test('matches typed wildcard characters in the ID filter literally', async ({ page }) => {
+  await createCard({
+    cardId: 'snake_case-card',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: { word: 'Tisch', type: 'NOUN', translation: { en: 'table' } },
+    state: 'NEW',
+  });
+
+  await createCard({
+    cardId: 'kebab-case-card',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 10,
+    data: { word: 'Stuhl', type: 'NOUN', translation: { en: 'chair' } },
+    state: 'NEW',
+  });
+
+  await page.goto('/sources/goethe-a1/cards');
+
+  const grid = page.getByRole('grid');
+  await expect(async () => {
+    const rows = await getGridData(grid);
+    expect(rows.length).toBe(2);
+  }).toPass();
+
+  await page.getByLabel('Filter by ID').fill('_');
+
+  await expect(async () => {
+    const rows = await getGridData(grid);
+    expect(rows.map((r) => r.ID)).toEqual(['snake_case-card']);
+  }).toPass();
+
+  await page.getByLabel('Filter by ID').fill('%');
+
+  await expect(async () => {
+    const rows = await getGridData(grid);
+    expect(rows).toEqual([]);
+  }).toPass();
+});
+
 test('draft cards are hidden by default', async ({ page }) => {
   await createCard({
     cardId: 'draft-card',
@@ -1622,3 +1664,228 @@ test('quick filter suggested known shows only cards meeting criteria', async ({
     expect(rows[0]['ID']).toBe('suggested-known-card');
   }).toPass();
 });
+
+async function selectAllCardsInState(page: Page, state: string, count: number) {
+  await page.goto('/sources/goethe-a1/cards');
+
+  await page.getByLabel('Filter by state').click();
+  await page.getByRole('option', { name: state }).click();
+
+  await expect(async () => {
+    const rows = await getGridData(page.getByRole('grid'));
+    expect(rows.length).toBe(count);
+  }).toPass();
+
+  await page
+    .getByRole('columnheader', { name: new RegExp(`Select all ${count} cards`) })
+    .getByRole('checkbox')
+    .click();
+}
+
+test('marks all filtered cards as known in one request', async ({ page }) => {
+  await createCard({
+    cardId: 'filter-known-1',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: { word: 'Apfel', type: 'NOUN', translation: { en: 'apple' } },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-known-2',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 10,
+    data: { word: 'Birne', type: 'NOUN', translation: { en: 'pear' } },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-known-review',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 11,
+    data: { word: 'Kirsche', type: 'NOUN', translation: { en: 'cherry' } },
+    state: 'REVIEW',
+    reps: 3,
+  });
+
+  await selectAllCardsInState(page, 'NEW', 2);
+
+  const requestPromise = page.waitForRequest(
+    (request) => request.method() === 'PUT' && request.url().includes('/api/source/goethe-a1/cards/mark-known')
+  );
+  await page.getByRole('button', { name: /Mark 2 as known/ }).click();
+  expect(new URL((await requestPromise).url()).searchParams.get('state')).toBe('NEW');
+
+  await expect(page.getByText('2 card(s) marked as known')).toBeVisible();
+
+  await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT id, readiness FROM learn_language.cards WHERE id LIKE 'filter-known-%' ORDER BY id`
+    );
+    expect(result.rows).toEqual([
+      { id: 'filter-known-1', readiness: 'KNOWN' },
+      { id: 'filter-known-2', readiness: 'KNOWN' },
+      { id: 'filter-known-review', readiness: 'READY' },
+    ]);
+  });
+});
+
+test('moves all filtered cards to draft', async ({ page }) => {
+  await createCard({
+    cardId: 'filter-draft-1',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: { word: 'Hund', type: 'NOUN', translation: { en: 'dog' } },
+    state: 'REVIEW',
+    reps: 4,
+    stability: 12.5,
+    lastReview: new Date(),
+  });
+  await createCard({
+    cardId: 'filter-draft-2',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 10,
+    data: { word: 'Katze', type: 'NOUN', translation: { en: 'cat' } },
+    state: 'REVIEW',
+    reps: 2,
+    stability: 6.1,
+    lastReview: new Date(),
+  });
+  await createCard({
+    cardId: 'filter-draft-new',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 11,
+    data: { word: 'Maus', type: 'NOUN', translation: { en: 'mouse' } },
+    state: 'NEW',
+  });
+  await createReviewLog({ cardId: 'filter-draft-1', rating: 3 });
+
+  await selectAllCardsInState(page, 'REVIEW', 2);
+
+  await page.getByRole('button', { name: /Move 2 to draft/ }).click();
+  const dialog = page.getByRole('dialog', { name: 'Confirmation' });
+  await expect(dialog.getByText('Are you sure you want to move 2 card(s) back to draft?')).toBeVisible();
+  await dialog.getByRole('button', { name: 'Yes' }).click();
+
+  await expect(page.getByText('2 card(s) moved to draft')).toBeVisible();
+
+  await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT id, readiness, state, reps FROM learn_language.cards WHERE id LIKE 'filter-draft-%' ORDER BY id`
+    );
+    expect(result.rows).toEqual([
+      { id: 'filter-draft-1', readiness: 'DRAFT', state: 'NEW', reps: 0 },
+      { id: 'filter-draft-2', readiness: 'DRAFT', state: 'NEW', reps: 0 },
+      { id: 'filter-draft-new', readiness: 'READY', state: 'NEW', reps: 0 },
+    ]);
+
+    const logs = await client.query(
+      `SELECT count(*) FROM learn_language.review_logs WHERE card_id = 'filter-draft-1'`
+    );
+    expect(Number(logs.rows[0].count)).toBe(0);
+  });
+});
+
+test('deletes all filtered cards', async ({ page }) => {
+  await createCard({
+    cardId: 'filter-delete-1',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: { word: 'löschen', type: 'VERB', translation: { en: 'to delete' } },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-delete-2',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 10,
+    data: { word: 'entfernen', type: 'VERB', translation: { en: 'to remove' } },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-delete-review',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 11,
+    data: { word: 'behalten', type: 'VERB', translation: { en: 'to keep' } },
+    state: 'REVIEW',
+    reps: 3,
+  });
+  await createReviewLog({ cardId: 'filter-delete-1', rating: 3 });
+
+  await selectAllCardsInState(page, 'NEW', 2);
+
+  await page.getByRole('button', { name: /Delete 2/ }).click();
+  const dialog = page.getByRole('dialog', { name: 'Confirmation' });
+  await expect(dialog.getByText('Are you sure you want to delete 2 card(s)?')).toBeVisible();
+  await dialog.getByRole('button', { name: 'Yes' }).click();
+
+  await expect(page.getByText('2 card(s) deleted')).toBeVisible();
+
+  await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT id FROM learn_language.cards WHERE id LIKE 'filter-delete-%'`
+    );
+    expect(result.rows).toEqual([{ id: 'filter-delete-review' }]);
+  });
+});
+
+test('deletes audio for all filtered cards and counts only cards that had audio', async ({ page }) => {
+  const audioDir = path.join(STORAGE_DIR, 'audio');
+  fs.mkdirSync(audioDir, { recursive: true });
+  fs.writeFileSync(path.join(audioDir, 'filter-audio-new.mp3'), germanAudioSample);
+  fs.writeFileSync(path.join(audioDir, 'filter-audio-review.mp3'), germanAudioSample);
+
+  await createCard({
+    cardId: 'filter-audio-1',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: {
+      word: 'Musik',
+      type: 'NOUN',
+      translation: { en: 'music' },
+      audio: [{ id: 'filter-audio-new', text: 'Musik', language: 'de', voice: 'v1', model: 'eleven_v3' }],
+    },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-audio-2',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 10,
+    data: { word: 'Stille', type: 'NOUN', translation: { en: 'silence' } },
+    state: 'NEW',
+  });
+  await createCard({
+    cardId: 'filter-audio-review',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 11,
+    data: {
+      word: 'Klang',
+      type: 'NOUN',
+      translation: { en: 'sound' },
+      audio: [{ id: 'filter-audio-review', text: 'Klang', language: 'de', voice: 'v1', model: 'eleven_v3' }],
+    },
+    state: 'REVIEW',
+    reps: 3,
+  });
+
+  await selectAllCardsInState(page, 'NEW', 2);
+
+  await page.getByRole('button', { name: /Delete audio 2/ }).click();
+  const dialog = page.getByRole('dialog', { name: 'Confirmation' });
+  await expect(dialog.getByText('Are you sure you want to delete audio for 2 card(s)?')).toBeVisible();
+  await dialog.getByRole('button', { name: 'Yes' }).click();
+
+  await expect(page.getByText('Audio deleted for 1 card(s)')).toBeVisible();
+
+  expect(fs.existsSync(storageFilePath('audio/filter-audio-new.mp3'))).toBe(false);
+  expect(fs.existsSync(storageFilePath('audio/filter-audio-review.mp3'))).toBe(true);
+
+  await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT id, data->'audio' IS NOT NULL AS "hasAudio" FROM learn_language.cards
+       WHERE id LIKE 'filter-audio-%' ORDER BY id`
+    );
+    expect(result.rows).toEqual([
+      { id: 'filter-audio-1', hasAudio: false },
+      { id: 'filter-audio-2', hasAudio: false },
+      { id: 'filter-audio-review', hasAudio: true },
+    ]);
+  });
+});
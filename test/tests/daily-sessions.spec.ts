@@ -1,10 +1,34 @@
+import { Page } from '@playwright/test';
 import { test, expect } from '../fixtures';
 import {
   createCard,
   createStudySession,
+  getApiHeaders,
   getStudySessionCardsBySource,
+  withDbConnection,
 } from '../utils';
 
+async function getStudySessionIds(sourceId: string): Promise<string[]> {
+  return await withDbConnection(async (client) => {
+    const result = await client.query(
+      `SELECT id FROM learn_language.study_sessions WHERE source_id = $1 ORDER BY created_at`,
+      [sourceId]
+    );
+    return result.rows.map((row) => row.id);
+  });
+}
+
+// Requests carrying a timezone make the warm-up prepare sessions for it
+async function visitFromTimezones(page: Page, baseURL: string | undefined, timezones: string[]) {
+  const headers = await getApiHeaders(page);
+  for (const timezone of timezones) {
+    const response = await fetch(`${baseURL}/api/sources`, {
+      headers: { ...headers, 'X-Timezone': timezone },
+    });
+    expect(response.status).toBe(200);
+  }
+}
+
 test('navigates to daily sessions settings from settings page', async ({ page }) => {
   await page.goto('/settings');
   await expect(page.getByRole('link', { name: 'Daily Sessions' })).toBeVisible();
@@ -71,3 +95,132 @@ test('cancelling the confirmation dialog keeps sessions intact', async ({ page }
 
   expect((await getStudySessionCardsBySource('goethe-a1')).length).toBe(1);
 });
+
+test('warm-up prepares sessions for sources with due cards', async ({ page, baseURL, triggerWarmUp }) => {
+  await createCard({
+    cardId: 'haus-haz',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 5,
+    data: {
+      word: 'Haus',
+      type: 'NOUN',
+      translation: { en: 'house', hu: 'ház', ch: 'Huus' },
+    },
+  });
+
+  await visitFromTimezones(page, baseURL, ['Europe/Budapest']);
+  await triggerWarmUp();
+
+  expect((await getStudySessionCardsBySource('goethe-a1')).map((card) => card.cardId)).toEqual(['haus-haz']);
+});
+
+test('warm-up keeps sessions started in other timezones', async ({ page, baseURL, triggerWarmUp }) => {
+  await createCard({
+    cardId: 'haus-haz',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 5,
+    data: {
+      word: 'Haus',
+      type: 'NOUN',
+      translation: { en: 'house', hu: 'ház', ch: 'Huus' },
+    },
+  });
+  await createCard({
+    cardId: 'baum-fa',
+    sourceId: 'goethe-a2',
+    sourcePageNumber: 5,
+    data: {
+      word: 'Baum',
+      type: 'NOUN',
+      translation: { en: 'tree', hu: 'fa', ch: 'Baum' },
+    },
+  });
+  const sessionId = await createStudySession({
+    sourceId: 'goethe-a2',
+    cardIds: ['baum-fa'],
+  });
+
+  // Timezones almost a day apart, so one of them is always still on the
+  // day the other one has already left
+  await visitFromTimezones(page, baseURL, ['Pacific/Kiritimati', 'Pacific/Pago_Pago']);
+  await triggerWarmUp();
+
+  expect(await getStudySessionIds('goethe-a2')).toEqual([sessionId]);
+  expect((await getStudySessionCardsBySource('goethe-a2')).map((card) => card.cardId)).toEqual(['baum-fa']);
+  expect((await getStudySessionCardsBySource('goethe-a1')).map((card) => card.cardId)).toEqual(['haus-haz']);
+});
+
+test('warm-up replaces sessions from previous days', async ({ page, baseURL, triggerWarmUp }) => {
+  await createCard({
+    cardId: 'baum-fa',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 5,
+    data: {
+      word: 'Baum',
+      type: 'NOUN',
+      translation: { en: 'tree', hu: 'fa', ch: 'Baum' },
+    },
+  });
+  const staleSessionId = await createStudySession({
+    sourceId: 'goethe-a1',
+    cardIds: ['baum-fa'],
+  });
+  await withDbConnection(async (client) => {
+    await client.query(
+      `UPDATE learn_language.study_sessions SET created_at = NOW() - INTERVAL '2 days' WHERE id = $1`,
+      [staleSessionId]
+    );
+  });
+
+  await visitFromTimezones(page, baseURL, ['Pacific/Kiritimati', 'Pacific/Pago_Pago']);
+  await triggerWarmUp();
+
+  const sessionIds = await getStudySessionIds('goethe-a1');
+  expect(sessionIds).toHaveLength(1);
+  expect(sessionIds).not.toContain(staleSessionId);
+  expect((await getStudySessionCardsBySource('goethe-a1')).map((card) => card.cardId)).toEqual(['baum-fa']);
+});
+
+test('cards marked known or deleted leave the cached session queue', async ({ page, baseURL }) => {
+  for (const [cardId, word] of [
+    ['haus-haz', 'Haus'],
+    ['baum-fa', 'Baum'],
+    ['tisch-asztal', 'Tisch'],
+  ]) {
+    await createCard({
+      cardId,
+      sourceId: 'goethe-a1',
+      data: { word, type: 'NOUN', translation: { en: word } },
+    });
+  }
+
+  const headers = await getApiHeaders(page);
+  const sessionResponse = await fetch(`${baseURL}/api/source/goethe-a1/study-session`, {
+    method: 'POST',
+    headers,
+  });
+  expect(sessionResponse.status).toBe(200);
+
+  const getCurrentCardId = async () => {
+    const response = await fetch(`${baseURL}/api/source/goethe-a1/study-session/current-card`, { headers });
+    return response.status === 204 ? null : (await response.json()).card.id;
+  };
+  const firstCardId = await getCurrentCardId();
+
+  const markKnownResponse = await fetch(`${baseURL}/api/cards/mark-known`, {
+    method: 'PUT',
+    headers: { ...headers, 'Content-Type': 'application/json' },
+    body: JSON.stringify([firstCardId]),
+  });
+  expect(markKnownResponse.status).toBe(200);
+
+  const secondCardId = await getCurrentCardId();
+  expect(secondCardId).not.toBe(firstCardId);
+
+  const deleteResponse = await fetch(`${baseURL}/api/card/${secondCardId}`, { method: 'DELETE', headers });
+  expect(deleteResponse.status).toBe(200);
+
+  const thirdCardId = await getCurrentCardId();
+  expect([firstCardId, secondCardId]).not.toContain(thirdCardId);
+  expect((await getStudySessionCardsBySource('goethe-a1')).map((card) => card.cardId)).toEqual([thirdCardId]);
+});
@@ -0,0 +1,135 @@
+import { test, expect } from '../fixtures';
+import { createCard, createReviewLog, getApiHeaders, withDbConnection } from '../utils';
+
+function utcDate(daysAgo: number): string {
+  return new Date(Date.now() - daysAgo * 86400000).toISOString().slice(0, 10);
+}
+
+async function createReviewOn(params: {
+  cardId: string;
+  rating: number;
+  date: string;
+  reviewDuration: number;
+}): Promise<void> {
+  const id = await createReviewLog({ cardId: params.cardId, rating: params.rating });
+
+  await withDbConnection(async (client) => {
+    await client.query(
+      `UPDATE learn_language.review_logs
+       SET review = $2::date + TIME '12:00', review_duration = $3
+       WHERE id = $1`,
+      [id, params.date, params.reviewDuration]
+    );
+  });
+}
+
+async function createVocabularyCards(cardIds: string[]): Promise<void> {
+  for (const cardId of cardIds) {
+    await createCard({
+      cardId,
+      sourceId: 'goethe-a1',
+      sourcePageNumber: 9,
+      data: {
+        word: cardId,
+        type: 'NOUN',
+        translation: { en: cardId },
+      },
+    });
+  }
+}
+
+test('records review figures of a past day without card counts', async ({ page, baseURL }) => {
+  const yesterday = utcDate(1);
+  await createVocabularyCards(['haus', 'baum']);
+  await createReviewOn({ cardId: 'haus', rating: 3, date: yesterday, reviewDuration: 1000 });
+  await createReviewOn({ cardId: 'baum', rating: 1, date: yesterday, reviewDuration: 3000 });
+
+  const headers = await getApiHeaders(page);
+  const snapshotResponse = await fetch(`${baseURL}/api/sources/daily-stats?date=${yesterday}`, {
+    method: 'POST',
+    headers,
+  });
+  expect(snapshotResponse.status).toBe(200);
+  expect((await snapshotResponse.json()).sourceCount).toBe(5);
+
+  const response = await fetch(
+    `${baseURL}/api/source/goethe-a1/daily-stats?from=${yesterday}&to=${yesterday}`,
+    { headers }
+  );
+  expect(response.status).toBe(200);
+  expect(await response.json()).toEqual([
+    {
+      sourceId: 'goethe-a1',
+      date: yesterday,
+      cardCount: null,
+      stateCounts: null,
+      readinessCounts: null,
+      reviewCount: 2,
+      retentionRate: 0.5,
+      averageReviewDurationMs: 2000,
+    },
+  ]);
+});
+
+test('records card counts of today and refreshes them on later snapshots', async ({ page, baseURL }) => {
+  const today = utcDate(0);
+  await createVocabularyCards(['haus', 'baum']);
+
+  const headers = await getApiHeaders(page);
+  const takeSnapshot = async () => {
+    const snapshotResponse = await fetch(`${baseURL}/api/sources/daily-stats?date=${today}`, {
+      method: 'POST',
+      headers,
+    });
+    expect(snapshotResponse.status).toBe(200);
+  };
+  const getTodayStats = async () => {
+    const response = await fetch(`${baseURL}/api/source/goethe-a1/daily-stats?from=${today}&to=${today}`, {
+      headers,
+    });
+    expect(response.status).toBe(200);
+    return await response.json();
+  };
+
+  await takeSnapshot();
+  expect(await getTodayStats()).toEqual([
+    expect.objectContaining({
+      sourceId: 'goethe-a1',
+      date: today,
+      cardCount: 2,
+      stateCounts: { NEW: 2 },
+      readinessCounts: { READY: 2 },
+      reviewCount: 0,
+      retentionRate: null,
+    }),
+  ]);
+
+  await createVocabularyCards(['tisch']);
+  await takeSnapshot();
+  expect(await getTodayStats()).toEqual([
+    expect.objectContaining({
+      cardCount: 3,
+      stateCounts: { NEW: 3 },
+      readinessCounts: { READY: 3 },
+    }),
+  ]);
+});
+
+test('lists daily stats of every source', async ({ page, baseURL }) => {
+  const today = utcDate(0);
+  await createVocabularyCards(['haus']);
+
+  const headers = await getApiHeaders(page);
+  await fetch(`${baseURL}/api/sources/daily-stats?date=${today}`, { method: 'POST', headers });
+
+  const response = await fetch(`${baseURL}/api/sources/daily-stats?from=${today}&to=${today}`, { headers });
+  expect(response.status).toBe(200);
+  const stats = await response.json();
+  expect(stats.map((entry: { sourceId: string; cardCount: number }) => [entry.sourceId, entry.cardCount])).toEqual([
+    ['goethe-a1', 1],
+    ['goethe-a2', 0],
+    ['goethe-b1', 0],
+    ['grammar-a1', 0],
+    ['speech-a1', 0],
+  ]);
+});
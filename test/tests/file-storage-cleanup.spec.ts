@@ -3,11 +3,14 @@ import * as fs from 'fs';
 import * as path from 'path';
 import {
   STORAGE_DIR,
+  storageFilePath,
+  createAudio,
   createCard,
   yellowImage,
   redImage,
   germanAudioSample,
   withDbConnection,
+  getApiHeaders,
 } from '../utils';
 
 function writeStorageFile(relativePath: string, data: Buffer): void {
@@ -17,9 +20,11 @@ function writeStorageFile(relativePath: string, data: Buffer): void {
 }
 
 function storageFileExists(relativePath: string): boolean {
-  return fs.existsSync(path.join(STORAGE_DIR, relativePath));
+  return fs.existsSync(storageFilePath(relativePath));
 }
 
+const germanVoice = { voice: 'test-voice-de', model: 'eleven_v3', language: 'de' };
+
 test('deletes unreferenced audio files on cleanup', async ({ triggerCleanup }) => {
   const referencedAudioId = 'ref-audio-cleanup-1';
   const orphanAudioId = 'orphan-audio-cleanup-1';
@@ -234,3 +239,40 @@ test('preserves non-favorite images on in-review cards', async ({ triggerCleanup
     expect(cardData.examples[0].images).toHaveLength(2);
   });
 });
+
+test('keeps audio clips that still hold references on cleanup', async ({ page, baseURL, triggerCleanup }) => {
+  const headers = await getApiHeaders(page);
+  const referencedClipId = await createAudio(baseURL, headers, { ...germanVoice, input: 'Haus' });
+  const previewClipId = await createAudio(baseURL, headers, { ...germanVoice, input: 'Baum', preview: true });
+
+  await triggerCleanup();
+
+  expect(storageFileExists(`audio/${referencedClipId}.mp3`)).toBe(true);
+  expect(storageFileExists(`audio/${previewClipId}.mp3`)).toBe(false);
+});
+
+test('reusing a cached audio clip restarts its cleanup grace period', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const clipId = await createAudio(baseURL, headers, { ...germanVoice, input: 'Haus' });
+
+  const getCreatedAt = () =>
+    withDbConnection(async (client) => {
+      const result = await client.query(
+        `SELECT created_at FROM learn_language.stored_files WHERE path = $1`,
+        [`audio/${clipId}.mp3`]
+      );
+      return new Date(result.rows[0].created_at);
+    });
+
+  await withDbConnection(async (client) => {
+    await client.query(
+      `UPDATE learn_language.stored_files SET created_at = NOW() - INTERVAL '2 days' WHERE path = $1`,
+      [`audio/${clipId}.mp3`]
+    );
+  });
+  const agedCreatedAt = await getCreatedAt();
+
+  expect(await createAudio(baseURL, headers, { ...germanVoice, input: 'Haus' })).toBe(clipId);
+
+  expect((await getCreatedAt()).getTime()).toBeGreaterThan(agedCreatedAt.getTime() + 86400000);
+});
@@ -0,0 +1,74 @@
+import { test, expect } from '../fixtures';
+import * as fs from 'fs';
+import { createHash } from 'crypto';
+import {
+  getApiHeaders,
+  getColorImageBytes,
+  getImageColor,
+  getImageDimensions,
+  storageFilePath,
+  uploadMockImage,
+  withDbConnection,
+} from '../utils';
+
+function sha256(data: Buffer): string {
+  return createHash('sha256').update(data).digest('hex');
+}
+
+async function storedFileExists(filePath: string): Promise<boolean> {
+  return await withDbConnection(async (client) => {
+    const result = await client.query(`SELECT 1 FROM learn_language.stored_files WHERE path = $1`, [filePath]);
+    return result.rowCount === 1;
+  });
+}
+
+test('serves a resized derivative for the requested width', async ({ page, baseURL }) => {
+  const original = getColorImageBytes('red');
+  const imageId = uploadMockImage(original);
+  const headers = await getApiHeaders(page);
+
+  const response = await fetch(`${baseURL}/api/image/${imageId}?w=300`, { headers });
+  expect(response.status).toBe(200);
+  expect(response.headers.get('content-type')).toBe('image/webp');
+
+  const derivative = Buffer.from(await response.arrayBuffer());
+  expect((await getImageDimensions(page, derivative)).width).toBe(320);
+  expect(await getImageColor(page, derivative)).toBe('red');
+  expect(await storedFileExists(`derivatives/320/${sha256(original)}.webp`)).toBe(true);
+  expect(fs.existsSync(storageFilePath(`derivatives/320/${sha256(original)}.webp`))).toBe(true);
+});
+
+test('serves the original when the requested width exceeds every derivative', async ({ page, baseURL }) => {
+  const original = getColorImageBytes('red');
+  const imageId = uploadMockImage(original);
+  const headers = await getApiHeaders(page);
+
+  const response = await fetch(`${baseURL}/api/image/${imageId}?w=1280`, { headers });
+  expect(response.status).toBe(200);
+
+  expect(Buffer.from(await response.arrayBuffer())).toEqual(original);
+});
+
+test('creates a new derivative when the original is overwritten', async ({ page, baseURL }) => {
+  const imageId = uploadMockImage(getColorImageBytes('red'));
+  const headers = await getApiHeaders(page);
+  const fetchDerivative = async () => {
+    const response = await fetch(`${baseURL}/api/image/${imageId}?w=640`, { headers });
+    expect(response.status).toBe(200);
+    return Buffer.from(await response.arrayBuffer());
+  };
+
+  expect(await getImageColor(page, await fetchDerivative())).toBe('red');
+
+  const replacement = getColorImageBytes('blue');
+  fs.writeFileSync(storageFilePath(`images/${imageId}.webp`), replacement);
+  await withDbConnection(async (client) => {
+    await client.query(`UPDATE learn_language.stored_files SET checksum = $2 WHERE path = $1`, [
+      `images/${imageId}.webp`,
+      sha256(replacement),
+    ]);
+  });
+
+  expect(await getImageColor(page, await fetchDerivative())).toBe('blue');
+  expect(await storedFileExists(`derivatives/640/${sha256(replacement)}.webp`)).toBe(true);
+});
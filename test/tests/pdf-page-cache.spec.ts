@@ -0,0 +1,68 @@
+import { test, expect } from '../fixtures';
+import * as fs from 'fs';
+import * as path from 'path';
+import { STORAGE_DIR, createDocument, createSource, getApiHeaders } from '../utils';
+
+const fileName = 'pdf-cache-test.pdf';
+const filePath = path.join(STORAGE_DIR, 'sources', fileName);
+
+function copyTestPdf(testFileName: string): void {
+  fs.copyFileSync(path.join(__dirname, '..', testFileName), filePath);
+}
+
+test.beforeEach(async () => {
+  copyTestPdf('A1_SD1_Wortliste_02.pdf');
+  await createSource({
+    id: 'pdf-cache',
+    name: 'PDF Cache',
+    startPage: 9,
+    languageLevel: 'A1',
+    cardType: 'VOCABULARY',
+    formatType: 'WORD_LIST_WITH_FORMS_AND_EXAMPLES',
+  });
+  await createDocument({ sourceId: 'pdf-cache', fileName });
+});
+
+test.afterEach(() => {
+  fs.rmSync(filePath, { force: true });
+});
+
+async function getPageText(
+  baseURL: string | undefined,
+  headers: Record<string, string>,
+  pageNumber: number
+): Promise<string> {
+  const response = await fetch(`${baseURL}/api/source/pdf-cache/page/${pageNumber}`, { headers });
+  expect(response.status).toBe(200);
+  const page: { spans: Array<{ text: string }> } = await response.json();
+  return page.spans.map((span) => span.text).join(' ');
+}
+
+test('serves the same page for concurrent and repeated requests', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+
+  const concurrentTexts = await Promise.all(
+    Array.from({ length: 4 }, () => getPageText(baseURL, headers, 9))
+  );
+  const repeatedText = await getPageText(baseURL, headers, 9);
+
+  expect(repeatedText).toContain('die Abfahrt');
+  expect(concurrentTexts).toEqual(Array(4).fill(repeatedText));
+});
+
+test('reloads a document when its file is replaced', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const originalText = await getPageText(baseURL, headers, 8);
+
+  copyTestPdf('Goethe-Zertifikat_A2_Wortliste.pdf');
+
+  const replacedText = await getPageText(baseURL, headers, 8);
+  expect(replacedText).not.toEqual(originalText);
+  expect(replacedText).toContain('die Adresse');
+});
+
+test('shows the cached page in the source page view', async ({ page }) => {
+  await page.goto('/sources/pdf-cache/page/9');
+
+  await expect(page.getByText('die Abfahrt')).toBeVisible();
+});
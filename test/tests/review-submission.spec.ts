@@ -0,0 +1,110 @@
+import { test, expect } from '../fixtures';
+import { v4 as uuidv4 } from 'uuid';
+import {
+  createCard,
+  getApiHeaders,
+  getCardFromDb,
+  getReviewLogsByCardId,
+} from '../utils';
+
+async function submitReviews(
+  baseURL: string | undefined,
+  headers: Record<string, string>,
+  reviews: Array<{ reviewId: string; cardId: string; rating: number; reviewDuration?: number }>
+): Promise<{ appliedCount: number; duplicateCount: number }> {
+  const response = await fetch(`${baseURL}/api/cards/reviews`, {
+    method: 'POST',
+    headers: { ...headers, 'Content-Type': 'application/json' },
+    body: JSON.stringify(reviews),
+  });
+
+  expect(response.status).toBe(200);
+  return await response.json();
+}
+
+test('retried review batch is applied once', async ({ page, baseURL }) => {
+  await createCard({
+    cardId: 'haus-haz',
+    sourceId: 'goethe-a1',
+    data: {
+      word: 'Haus',
+      type: 'NOUN',
+      translation: { en: 'house', hu: 'ház', ch: 'Huus' },
+    },
+  });
+
+  const headers = await getApiHeaders(page);
+  const reviews = [{ reviewId: uuidv4(), cardId: 'haus-haz', rating: 3, reviewDuration: 1200 }];
+
+  expect(await submitReviews(baseURL, headers, reviews)).toEqual({ appliedCount: 1, duplicateCount: 0 });
+  const reviewedCard = await getCardFromDb('haus-haz');
+  expect(reviewedCard.reps).toBe(1);
+
+  expect(await submitReviews(baseURL, headers, reviews)).toEqual({ appliedCount: 0, duplicateCount: 1 });
+
+  expect(await getReviewLogsByCardId('haus-haz')).toHaveLength(1);
+  expect(await getCardFromDb('haus-haz')).toEqual(reviewedCard);
+});
+
+test('concurrent retries of the same review batch apply it once', async ({ page, baseURL }) => {
+  await createCard({
+    cardId: 'baum-fa',
+    sourceId: 'goethe-a1',
+    data: {
+      word: 'Baum',
+      type: 'NOUN',
+      translation: { en: 'tree', hu: 'fa', ch: 'Baum' },
+    },
+  });
+
+  const headers = await getApiHeaders(page);
+  const reviews = [{ reviewId: uuidv4(), cardId: 'baum-fa', rating: 3 }];
+
+  const results = await Promise.all([
+    submitReviews(baseURL, headers, reviews),
+    submitReviews(baseURL, headers, reviews),
+  ]);
+
+  expect(results.map((result) => result.appliedCount).sort()).toEqual([0, 1]);
+  expect(results.map((result) => result.duplicateCount).sort()).toEqual([0, 1]);
+  expect(await getReviewLogsByCardId('baum-fa')).toHaveLength(1);
+  expect((await getCardFromDb('baum-fa')).reps).toBe(1);
+});
+
+test('review batch with already applied reviews applies only the new ones', async ({ page, baseURL }) => {
+  await createCard({
+    cardId: 'tisch-asztal',
+    sourceId: 'goethe-a1',
+    data: {
+      word: 'Tisch',
+      type: 'NOUN',
+      translation: { en: 'table', hu: 'asztal', ch: 'Tisch' },
+    },
+  });
+  await createCard({
+    cardId: 'stuhl-szek',
+    sourceId: 'goethe-a1',
+    data: {
+      word: 'Stuhl',
+      type: 'NOUN',
+      translation: { en: 'chair', hu: 'szék', ch: 'Stuel' },
+    },
+  });
+
+  const headers = await getApiHeaders(page);
+  const firstReview = { reviewId: uuidv4(), cardId: 'tisch-asztal', rating: 3 };
+
+  await submitReviews(baseURL, headers, [firstReview]);
+
+  expect(
+    await submitReviews(baseURL, headers, [
+      firstReview,
+      { reviewId: uuidv4(), cardId: 'stuhl-szek', rating: 1 },
+    ])
+  ).toEqual({ appliedCount: 1, duplicateCount: 1 });
+
+  expect(await getReviewLogsByCardId('tisch-asztal')).toHaveLength(1);
+  expect(await getReviewLogsByCardId('stuhl-szek')).toEqual([
+    expect.objectContaining({ cardId: 'stuhl-szek', rating: 1 }),
+  ]);
+});
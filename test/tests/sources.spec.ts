@@ -1,5 +1,6 @@
 import { test, expect } from '../fixtures';
-import { createCard, cleanupDbRecords, getSource, getDocuments, setupTestRateLimits, getCardFromDb, createLearningPartner, setDetectionSources, getDetectionSources } from '../utils';
+import * as fs from 'fs';
+import { createCard, createSource, storageFilePath, cleanupDbRecords, getSource, getDocuments, setupTestRateLimits, getCardFromDb, createLearningPartner, setDetectionSources, getDetectionSources, getApiHeaders, withDbConnection } from '../utils';
 
 test('displays sources', async ({ page }) => {
   await page.goto('/sources');
@@ -330,6 +331,45 @@ test('can create a new source', async ({ page }) => {
   expect(documents[0].pageNumber).toBeNull();
 });
 
+test('keeps an existing PDF when a different one is uploaded under the same name', async ({ page, baseURL }) => {
+  await createSource({
+    id: 'upload-collision',
+    name: 'Upload Collision',
+    startPage: 1,
+    languageLevel: 'A1',
+    cardType: 'VOCABULARY',
+    formatType: 'WORD_LIST_WITH_EXAMPLES',
+  });
+  const headers = await getApiHeaders(page);
+  const upload = async (content: string) => {
+    const body = new FormData();
+    body.append('file', new Blob([content], { type: 'application/pdf' }), 'collision.pdf');
+    const response = await fetch(`${baseURL}/api/source/upload-collision/documents`, {
+      method: 'POST',
+      headers,
+      body,
+    });
+    expect(response.status).toBe(200);
+    return ((await response.json()) as { fileName: string }).fileName;
+  };
+
+  const firstName = await upload('first PDF content');
+  const secondName = await upload('second PDF content');
+  const repeatedName = await upload('second PDF content');
+
+  try {
+    expect(firstName).toBe('collision.pdf');
+    expect(secondName).not.toBe(firstName);
+    expect(secondName).toMatch(/collision\.pdf$/);
+    expect(repeatedName).toBe(secondName);
+    expect(fs.readFileSync(storageFilePath(`sources/${firstName}`), 'utf8')).toBe('first PDF content');
+    expect(fs.readFileSync(storageFilePath(`sources/${secondName}`), 'utf8')).toBe('second PDF content');
+  } finally {
+    fs.rmSync(storageFilePath(`sources/${firstName}`), { force: true });
+    fs.rmSync(storageFilePath(`sources/${secondName}`), { force: true });
+  }
+});
+
 test('can edit an existing source', async ({ page }) => {
   await page.goto('/sources');
 
@@ -666,3 +706,62 @@ test('can remove a learning partner from a source', async ({ page }) => {
   }).toPass();
 });
 
+
+test('sources overview answers unchanged requests with not modified', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+
+  const response = await fetch(`${baseURL}/api/sources`, { headers });
+  expect(response.status).toBe(200);
+  const etag = response.headers.get('etag');
+  expect(etag).toBeTruthy();
+
+  const cachedResponse = await fetch(`${baseURL}/api/sources`, {
+    headers: { ...headers, 'If-None-Match': etag! },
+  });
+  expect(cachedResponse.status).toBe(304);
+});
+
+test('sources overview etag changes when a card is added', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const etag = (await fetch(`${baseURL}/api/sources`, { headers })).headers.get('etag');
+
+  await createCard({
+    cardId: 'etag-card',
+    sourceId: 'goethe-a1',
+    sourcePageNumber: 9,
+    data: {
+      word: 'lernen',
+      type: 'VERB',
+      translation: { en: 'to learn' },
+    },
+  });
+
+  const response = await fetch(`${baseURL}/api/sources`, {
+    headers: { ...headers, 'If-None-Match': etag! },
+  });
+  expect(response.status).toBe(200);
+  expect(response.headers.get('etag')).not.toBe(etag);
+  const sources = await response.json();
+  expect(sources.find((source: { id: string }) => source.id === 'goethe-a1').cardCount).toBe(1);
+
+  await page.goto('/sources');
+  await expect(page.getByRole('row', { name: 'Goethe A1' }).getByText('Ready 1')).toBeVisible();
+});
+
+test('sources overview etag changes when a source is renamed', async ({ page, baseURL }) => {
+  const headers = await getApiHeaders(page);
+  const etag = (await fetch(`${baseURL}/api/sources`, { headers })).headers.get('etag');
+
+  await withDbConnection(async (client) => {
+    await client.query(`UPDATE learn_language.sources SET name = 'Goethe A1 Neu' WHERE id = 'goethe-a1'`);
+  });
+
+  const response = await fetch(`${baseURL}/api/sources`, {
+    headers: { ...headers, 'If-None-Match': etag! },
+  });
+  expect(response.status).toBe(200);
+  expect(response.headers.get('etag')).not.toBe(etag);
+
+  await page.goto('/sources');
+  await expect(page.getByRole('row', { name: 'Goethe A1 Neu' })).toBeVisible();
+});
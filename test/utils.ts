@@ -1,5 +1,6 @@
 import { Client } from 'pg';
 import { Page, Locator, expect } from '@playwright/test';
+import { createHash } from 'crypto';
 import * as fs from 'fs';
 import * as path from 'path';
 import { v4 as uuidv4 } from 'uuid';
@@ -7,6 +8,26 @@ import { v4 as uuidv4 } from 'uuid';
 // Storage directory path
 export const STORAGE_DIR = path.join(__dirname, 'storage');
 
+const SHARDED_STORAGE_DIRECTORIES = ['audio', 'images', 'derivatives'];
+
+// Resolves a logical storage path, preferring the server's sharded layout
+// (audio/<h0h1>/<h2h3>/<name>) over the legacy flat location
+export function storageFilePath(relativePath: string): string {
+  const segments = relativePath.split('/');
+  const name = segments[segments.length - 1];
+
+  if (segments.length > 1 && SHARDED_STORAGE_DIRECTORIES.includes(segments[0])) {
+    const hash = createHash('sha256').update(name).digest('hex');
+    const shardedPath = path.join(STORAGE_DIR, ...segments.slice(0, -1), hash.slice(0, 2), hash.slice(2, 4), name);
+
+    if (fs.existsSync(shardedPath)) {
+      return shardedPath;
+    }
+  }
+
+  return path.join(STORAGE_DIR, relativePath);
+}
+
 // Database connection helper
 export async function withDbConnection<T>(callback: (client: Client) => Promise<T>): Promise<T> {
   const client = new Client({
@@ -36,13 +57,6 @@ export async function cleanupDb(): Promise<void> {
         END LOOP;
       END $$
     `);
-    await client.query(`
-      DO $$ BEGIN
-        IF EXISTS (SELECT FROM pg_matviews WHERE schemaname = 'learn_language' AND matviewname = 'card_view') THEN
-          EXECUTE 'REFRESH MATERIALIZED VIEW learn_language.card_view';
-        END IF;
-      END $$
-    `);
   });
 }
 
@@ -269,6 +283,7 @@ export async function cleanupDbRecords({ withSources }: { withSources?: boolean
 export function cleanupStorage(): void {
   const imagesDir = path.join(STORAGE_DIR, 'images');
   const audioDir = path.join(STORAGE_DIR, 'audio');
+  const derivativesDir = path.join(STORAGE_DIR, 'derivatives');
 
   if (fs.existsSync(imagesDir)) {
     fs.rmSync(imagesDir, { recursive: true, force: true });
@@ -276,6 +291,9 @@ export function cleanupStorage(): void {
   if (fs.existsSync(audioDir)) {
     fs.rmSync(audioDir, { recursive: true, force: true });
   }
+  if (fs.existsSync(derivativesDir)) {
+    fs.rmSync(derivativesDir, { recursive: true, force: true });
+  }
 }
 
 export function populateStorage(): void {
@@ -556,8 +574,39 @@ export async function navigateToCardEditing(
   await page.getByRole('link', { name: wordName }).click();
 }
 
+// Captures the bearer token and timezone the app sends, so tests can call
+// endpoints the UI has no control for
+export async function getApiHeaders(page: Page): Promise<Record<string, string>> {
+  const requestPromise = page.waitForRequest(
+    (request) => request.url().includes('/api/') && !!request.headers()['authorization']
+  );
+  await page.goto('/sources');
+  const headers = await (await requestPromise).allHeaders();
+
+  return {
+    Authorization: headers['authorization'],
+    'X-Timezone': headers['x-timezone'],
+  };
+}
+
+/** Generates (or reuses) an audio clip through the API and returns its id. */
+export async function createAudio(
+  baseURL: string | undefined,
+  headers: Record<string, string>,
+  request: Record<string, unknown>
+): Promise<string> {
+  const response = await fetch(`${baseURL}/api/audio`, {
+    method: 'POST',
+    headers: { ...headers, 'Content-Type': 'application/json' },
+    body: JSON.stringify(request),
+  });
+
+  expect(response.status).toBe(200);
+  return (await response.json()).id;
+}
+
 export function downloadImage(id: string): Buffer {
-  const imagePath = path.join(STORAGE_DIR, 'images', `${id}.webp`);
+  const imagePath = storageFilePath(`images/${id}.webp`);
 
   if (!fs.existsSync(imagePath)) {
     throw new Error(`Image ${id}.webp does not exist in storage.`);
@@ -663,7 +712,7 @@ export async function getImageDimensions(
 }
 
 export function assertAudioExists(id: string): void {
-  const audioPath = path.join(STORAGE_DIR, 'audio', `${id}.mp3`);
+  const audioPath = storageFilePath(`audio/${id}.mp3`);
 
   if (!fs.existsSync(audioPath)) {
     throw new Error(`Audio ${id}.mp3 does not exist in storage.`);
@@ -1188,7 +1237,7 @@ export async function getPendingPhotos(sourceId: string): Promise<
   return await withDbConnection(async (client) => {
     const result = await client.query(
       `SELECT id::text as id, user_id as "userId", source_id as "sourceId",
-              content_type as "contentType", octet_length(image_data) as "imageDataLength"
+              content_type as "contentType", size as "imageDataLength"
        FROM learn_language.pending_photos
        WHERE source_id = $1`,
       [sourceId]
@@ -1337,6 +1386,10 @@ export async function createReviewLog(params: {
         due,
       ]
     );
+    await client.query(
+      `CALL learn_language.refresh_card_stats(ARRAY[$1]::varchar[])`,
+      [cardId]
+    );
     return result.rows[0].id;
   });
 }